@@ -0,0 +1,29 @@
+package org.springframework.mongo.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar: runs all the benchmarks with the GC profiler, so that the report contains
+ * allocation rate along with the throughput. Accepts standard JMH command line options, e.g.
+ * {@code -p compiled=true} or {@code -rf json -rff result.json} to store results for comparison across versions.
+ *
+ * @author Alexander Shabanov
+ */
+public final class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        final Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+    private BenchmarkRunner() {}
+}
@@ -0,0 +1,9 @@
+package org.springframework.mongo.benchmark.objects;
+
+/**
+ * Mappable base for all the benchmarked domain objects.
+ *
+ * @author Alexander Shabanov
+ */
+public abstract class BenchmarkObject {
+}
@@ -0,0 +1,26 @@
+package org.springframework.mongo.benchmark.objects;
+
+/**
+ * @author Alexander Shabanov
+ */
+public final class Book extends BenchmarkObject {
+    private String name;
+    private long pages;
+
+    public Book() {
+    }
+
+    public Book(String name, long pages) {
+        this();
+        this.name = name;
+        this.pages = pages;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getPages() {
+        return pages;
+    }
+}
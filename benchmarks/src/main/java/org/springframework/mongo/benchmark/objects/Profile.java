@@ -0,0 +1,52 @@
+package org.springframework.mongo.benchmark.objects;
+
+/**
+ * Flat object, that contains scalar fields only.
+ *
+ * @author Alexander Shabanov
+ */
+public final class Profile extends BenchmarkObject {
+    private String id;
+    private String name;
+    private Integer age;
+    private String email;
+    private Double rating;
+    private Boolean active;
+
+    public Profile() {
+    }
+
+    public Profile(String id, String name, Integer age, String email, Double rating, Boolean active) {
+        this();
+        this.id = id;
+        this.name = name;
+        this.age = age;
+        this.email = email;
+        this.rating = rating;
+        this.active = active;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Double getRating() {
+        return rating;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+}
@@ -0,0 +1,42 @@
+package org.springframework.mongo.benchmark.objects;
+
+import java.util.List;
+
+/**
+ * Object with embedded mappable object and collections.
+ *
+ * @author Alexander Shabanov
+ */
+public final class Shelf extends BenchmarkObject {
+    private String id;
+    private List<Book> books;
+    private List<String> tags;
+    private Profile librarian;
+
+    public Shelf() {
+    }
+
+    public Shelf(String id, List<Book> books, List<String> tags, Profile librarian) {
+        this();
+        this.id = id;
+        this.books = books;
+        this.tags = tags;
+        this.librarian = librarian;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public List<Book> getBooks() {
+        return books;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public Profile getLibrarian() {
+        return librarian;
+    }
+}
@@ -0,0 +1,149 @@
+package org.springframework.mongo.mappable.support;
+
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mongo.benchmark.objects.BenchmarkObject;
+import org.springframework.mongo.benchmark.objects.Book;
+import org.springframework.mongo.benchmark.objects.Profile;
+import org.springframework.mongo.benchmark.objects.Shelf;
+import org.springframework.mongo.mappable.object.MappableClassLayout;
+import org.springframework.mongo.support.MongoUtil;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the mapping layer, that do not need a database: in-memory mongo objects are run through
+ * the field converters, the cursor mappers and the serializers of the mappable class layouts.
+ *
+ * @author Alexander Shabanov
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    /**
+     * Shape of the mapped object.
+     */
+    public enum Shape {
+        /**
+         * Scalar fields only.
+         */
+        FLAT,
+
+        /**
+         * Embedded object and a few embedded objects in the list.
+         */
+        NESTED,
+
+        /**
+         * Large lists of embedded objects and strings.
+         */
+        COLLECTIONS
+    }
+
+    @Param({"FLAT", "NESTED", "COLLECTIONS"})
+    public Shape shape;
+
+    @Param({"true", "false"})
+    public boolean compiled;
+
+    private MappableClassLayout<Object> layout;
+    private Object object;
+    private DBObject dbObject;
+
+    private FieldDescriptor[] fieldDescriptors;
+    private Object[] javaValues;
+    private Object[] mongoValues;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IllegalAccessException {
+        final MappableObjectsConfig config = new MappableObjectsConfig();
+        config.setMappableBase(BenchmarkObject.class);
+        config.setCompiledMappersEnabled(compiled);
+
+        object = createObject(shape);
+        layout = (MappableClassLayout<Object>) config.getLayout(object.getClass());
+        dbObject = layout.toDBObject(object);
+        dbObject.put(MongoUtil.ID, new ObjectId());
+
+        final List<FieldDescriptor> descriptors = new ArrayList<FieldDescriptor>();
+        for (final Field field : object.getClass().getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                descriptors.add(new FieldDescriptor(field, config));
+            }
+        }
+
+        fieldDescriptors = descriptors.toArray(new FieldDescriptor[descriptors.size()]);
+        javaValues = new Object[fieldDescriptors.length];
+        mongoValues = new Object[fieldDescriptors.length];
+        for (int i = 0; i < fieldDescriptors.length; ++i) {
+            final Field field = fieldDescriptors[i].getField();
+            field.setAccessible(true);
+            javaValues[i] = field.get(object);
+            mongoValues[i] = dbObject.get(fieldDescriptors[i].getMongoName());
+        }
+    }
+
+    @Benchmark
+    public void fieldConverters(Blackhole blackhole) {
+        for (int i = 0; i < fieldDescriptors.length; ++i) {
+            blackhole.consume(fieldDescriptors[i].getMongoToJavaConverter().convert(mongoValues[i]));
+            blackhole.consume(fieldDescriptors[i].getJavaToMongoConverter().convert(javaValues[i]));
+        }
+    }
+
+    @Benchmark
+    public DBObject toDBObject() {
+        return layout.toDBObject(object);
+    }
+
+    @Benchmark
+    public Object mapCursor() {
+        return layout.getCursorMapper().mapCursor(dbObject, 0);
+    }
+
+    //
+    // Private
+    //
+
+    private static Object createObject(Shape shape) {
+        final Profile librarian = new Profile(null, "jane", 23, "jane@site.com", 4.5, Boolean.TRUE);
+        switch (shape) {
+            case FLAT:
+                return librarian;
+
+            case NESTED:
+                return createShelf(librarian, 3, 3);
+
+            case COLLECTIONS:
+                return createShelf(librarian, 100, 50);
+
+            default:
+                throw new IllegalArgumentException("Unknown shape " + shape);
+        }
+    }
+
+    private static Shelf createShelf(Profile librarian, int bookCount, int tagCount) {
+        final List<Book> books = new ArrayList<Book>(bookCount);
+        for (int i = 0; i < bookCount; ++i) {
+            books.add(new Book("Book #" + i, 100L + i));
+        }
+
+        final List<String> tags = new ArrayList<String>(tagCount);
+        for (int i = 0; i < tagCount; ++i) {
+            tags.add("tag" + i);
+        }
+        return new Shelf(null, books, tags, librarian);
+    }
+}
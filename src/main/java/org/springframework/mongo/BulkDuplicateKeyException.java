@@ -0,0 +1,25 @@
+package org.springframework.mongo;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.mongo.core.BulkResult;
+
+/**
+ * Duplicate key error of the bulk write, that provides the result of the operations.
+ *
+ * @author Alexander Shabanov
+ */
+public final class BulkDuplicateKeyException extends DuplicateKeyException {
+    private final transient BulkResult bulkResult;
+
+    public BulkDuplicateKeyException(String msg, Throwable cause, BulkResult bulkResult) {
+        super(msg, cause);
+        this.bulkResult = bulkResult;
+    }
+
+    /**
+     * @return Result of the succeeded, failed and not executed operations or null if it is unknown
+     */
+    public BulkResult getBulkResult() {
+        return bulkResult;
+    }
+}
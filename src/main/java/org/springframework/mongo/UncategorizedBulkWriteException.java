@@ -0,0 +1,24 @@
+package org.springframework.mongo;
+
+import org.springframework.mongo.core.BulkResult;
+
+/**
+ * Error of the bulk write, other than duplicate key one, that provides the result of the operations.
+ *
+ * @author Alexander Shabanov
+ */
+public final class UncategorizedBulkWriteException extends UncategorizedMongoException {
+    private final transient BulkResult bulkResult;
+
+    public UncategorizedBulkWriteException(String msg, Throwable cause, BulkResult bulkResult) {
+        super(msg, cause);
+        this.bulkResult = bulkResult;
+    }
+
+    /**
+     * @return Result of the succeeded, failed and not executed operations or null if it is unknown
+     */
+    public BulkResult getBulkResult() {
+        return bulkResult;
+    }
+}
@@ -7,7 +7,7 @@ import org.springframework.dao.UncategorizedDataAccessException;
  *
  * @author Alexander Shabanov
  */
-public final class UncategorizedMongoException extends UncategorizedDataAccessException {
+public class UncategorizedMongoException extends UncategorizedDataAccessException {
     /**
      * Constructor for UncategorizedDataAccessException.
      *
@@ -0,0 +1,93 @@
+package org.springframework.mongo.core;
+
+import com.mongodb.ReadPreference;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settings of the aggregation pipeline execution for the aggregate methods of {@link MongoOperations} and
+ * {@link org.springframework.mongo.mappable.MappableMongoOperations}.
+ *
+ * <p>Sample usage:
+ * <pre>
+ * mo.aggregate("Profile", mapper, pipeline, new AggregateOptions().allowDiskUse(true));
+ * </pre>
+ *
+ * @author Alexander Shabanov
+ */
+public final class AggregateOptions {
+    private boolean allowDiskUse;
+    private int batchSize;
+    private long maxTimeMillis;
+    private ReadPreference readPreference;
+
+    public boolean isAllowDiskUse() {
+        return allowDiskUse;
+    }
+
+    /**
+     * @param allowDiskUse True, if the stages, that exceed the server memory limit, such as large groupings
+     *                     and sorts, may write temporary files
+     * @return This instance
+     */
+    public AggregateOptions allowDiskUse(boolean allowDiskUse) {
+        this.allowDiskUse = allowDiskUse;
+        return this;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @param batchSize Number of the result documents returned in each batch, zero means server default
+     * @return This instance
+     */
+    public AggregateOptions batchSize(int batchSize) {
+        Assert.isTrue(batchSize >= 0, "batchSize can not be negative");
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public long getMaxTimeMillis() {
+        return maxTimeMillis;
+    }
+
+    /**
+     * @param maxTime Time limit of the pipeline execution on the server, zero means no limit
+     * @param unit Time unit of the maxTime argument
+     * @return This instance
+     */
+    public AggregateOptions maxTime(long maxTime, TimeUnit unit) {
+        Assert.isTrue(maxTime >= 0, "maxTime can not be negative");
+        this.maxTimeMillis = unit.toMillis(maxTime);
+        return this;
+    }
+
+    public ReadPreference getReadPreference() {
+        return readPreference;
+    }
+
+    /**
+     * @param readPreference Read preference of the aggregation or null if the default one should be used,
+     *                       pipelines with {@code $out} stage can only run on the primary
+     * @return This instance
+     */
+    public AggregateOptions readPreference(ReadPreference readPreference) {
+        this.readPreference = readPreference;
+        return this;
+    }
+
+    /**
+     * @return New options instance with the same settings
+     */
+    public AggregateOptions copy() {
+        final AggregateOptions result = new AggregateOptions();
+        result.allowDiskUse = allowDiskUse;
+        result.batchSize = batchSize;
+        result.maxTimeMillis = maxTimeMillis;
+        result.readPreference = readPreference;
+        return result;
+    }
+}
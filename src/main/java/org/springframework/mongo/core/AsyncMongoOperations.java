@@ -0,0 +1,51 @@
+package org.springframework.mongo.core;
+
+import com.mongodb.DBObject;
+import com.mongodb.WriteResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Asynchronous counterpart of the {@link MongoOperations}: each method runs the corresponding operation on
+ * the executor and immediately returns the future of its result.
+ * Futures are completed exceptionally with {@link org.springframework.dao.DataAccessException}s,
+ * their cancellation cancels the pending operation.
+ *
+ * <p>Sample usage:
+ * <pre>
+ * final CompletableFuture&lt;List&lt;Profile&gt;&gt; profiles = amo.query("Profile", profileMapper, profileQuery);
+ * final CompletableFuture&lt;List&lt;Shelf&gt;&gt; shelves = amo.query("Shelf", shelfMapper, shelfQuery);
+ * CompletableFuture.allOf(profiles, shelves).join();
+ * </pre>
+ *
+ * @author Alexander Shabanov
+ * @see org.springframework.mongo.core.support.AsyncMongoTemplate
+ */
+public interface AsyncMongoOperations {
+
+    /**
+     * Runs the given callback with the underlying synchronous operations.
+     *
+     * @param callback Callback
+     * @param <T> Type of the callback result
+     * @return Future of the callback result
+     */
+    <T> CompletableFuture<T> execute(Function<MongoOperations, T> callback);
+
+    CompletableFuture<String> insert(String collectionName, DBObject dbObject);
+
+    CompletableFuture<List<String>> insert(String collectionName, List<DBObject> dbObjects);
+
+    CompletableFuture<WriteResult> update(String collectionName, DBObject query, DBObject dbObject);
+
+    CompletableFuture<WriteResult> remove(String collectionName, DBObject query);
+
+    <T> CompletableFuture<List<T>> query(String collectionName, CursorMapper<T> mapper, DBObject query);
+
+    <T> CompletableFuture<List<T>> query(String collectionName, CursorMapper<T> mapper, DBObject query,
+                                         DBObject fields, DBObject orderBy, QueryOptions options);
+
+    <T> CompletableFuture<T> queryForObject(String collectionName, CursorMapper<T> mapper, DBObject query);
+}
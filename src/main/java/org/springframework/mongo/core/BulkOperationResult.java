@@ -0,0 +1,77 @@
+package org.springframework.mongo.core;
+
+import com.mongodb.BulkWriteError;
+
+/**
+ * Result of one operation of the {@link BulkOperations}. The server reports matched, modified and removed
+ * counts for the whole bulk write only, so they are available in {@link BulkResult}.
+ *
+ * @author Alexander Shabanov
+ */
+public final class BulkOperationResult {
+    private final int index;
+    private final BulkOperationType type;
+    private final Object id;
+    private final boolean upserted;
+    private final boolean executed;
+    private final BulkWriteError error;
+
+    public BulkOperationResult(int index, BulkOperationType type, Object id, boolean upserted, boolean executed,
+                               BulkWriteError error) {
+        this.index = index;
+        this.type = type;
+        this.id = id;
+        this.upserted = upserted;
+        this.executed = executed;
+        this.error = error;
+    }
+
+    /**
+     * @return Index of the operation in the queue
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public BulkOperationType getType() {
+        return type;
+    }
+
+    /**
+     * @return Value of the {@code _id} field of the inserted or upserted document, null otherwise
+     */
+    public Object getId() {
+        return id;
+    }
+
+    /**
+     * @return True, if the upsert operation inserted the new document
+     */
+    public boolean isUpserted() {
+        return upserted;
+    }
+
+    /**
+     * @return False, if the operation was not sent because the preceding operation of the ordered bulk write failed
+     */
+    public boolean isExecuted() {
+        return executed;
+    }
+
+    /**
+     * @return Error of the operation or null if it succeeded or was not executed
+     */
+    public BulkWriteError getError() {
+        return error;
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkOperationResult{index=" + index + ", type=" + type + ", id=" + id + ", upserted=" + upserted +
+                ", executed=" + executed + ", error=" + error + '}';
+    }
+}
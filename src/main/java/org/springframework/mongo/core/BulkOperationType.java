@@ -0,0 +1,15 @@
+package org.springframework.mongo.core;
+
+/**
+ * Type of the operation, queued to the {@link BulkOperations}.
+ *
+ * @author Alexander Shabanov
+ */
+public enum BulkOperationType {
+    INSERT,
+    UPDATE_ONE,
+    UPDATE_MULTI,
+    UPSERT,
+    REMOVE_ONE,
+    REMOVE
+}
@@ -0,0 +1,70 @@
+package org.springframework.mongo.core;
+
+import com.mongodb.DBObject;
+
+/**
+ * Queue of write operations on one collection, that are sent to the server in batches on {@link #execute()}.
+ * Update documents without update operators replace the matched document, like in
+ * {@link MongoOperations#update(String, DBObject, DBObject)}.
+ * Instances are not thread safe and are not reusable after execution.
+ *
+ * <p>Sample usage:
+ * <pre>
+ * final BulkResult result = mo.bulkOps("Profile", false)
+ *         .upsert(new BasicDBObject("name", "bob"), new BasicDBObject("$set", new BasicDBObject("age", 36)))
+ *         .remove(new BasicDBObject("age", null))
+ *         .execute();
+ * </pre>
+ *
+ * @author Alexander Shabanov
+ * @see MongoOperations#bulkOps(String, boolean)
+ */
+public interface BulkOperations {
+
+    /**
+     * Queues insertion of the given document. Document without {@code _id} field is assigned with the new
+     * {@link org.bson.types.ObjectId}.
+     *
+     * @param dbObject Document to be inserted
+     * @return This instance
+     */
+    BulkOperations insert(DBObject dbObject);
+
+    BulkOperations updateOne(DBObject query, DBObject update);
+
+    /**
+     * @param query Query object
+     * @param update Update object with update operators
+     * @return This instance
+     */
+    BulkOperations updateMulti(DBObject query, DBObject update);
+
+    /**
+     * Queues update of one document, that inserts the new document if nothing matches the query.
+     *
+     * @param query Query object
+     * @param update Update object or replacement document
+     * @return This instance
+     */
+    BulkOperations upsert(DBObject query, DBObject update);
+
+    BulkOperations removeOne(DBObject query);
+
+    BulkOperations remove(DBObject query);
+
+    /**
+     * @return Number of queued operations
+     */
+    int size();
+
+    /**
+     * Sends all the queued operations.
+     *
+     * @return Result of the operations
+     * @throws org.springframework.mongo.BulkDuplicateKeyException if any of the operations failed with duplicate
+     * key error, the exception provides results of the other operations
+     * @throws org.springframework.mongo.UncategorizedBulkWriteException if any of the operations failed otherwise
+     * @throws org.springframework.mongo.UncategorizedMongoException if the bulk write could not be sent
+     */
+    BulkResult execute();
+}
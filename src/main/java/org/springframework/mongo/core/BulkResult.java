@@ -0,0 +1,90 @@
+package org.springframework.mongo.core;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of the {@link BulkOperations} execution. Counts are zero if the write was not acknowledged.
+ *
+ * @author Alexander Shabanov
+ */
+public final class BulkResult {
+    private final boolean acknowledged;
+    private final int insertedCount;
+    private final int matchedCount;
+    private final int modifiedCount;
+    private final int removedCount;
+    private final List<String> insertedIds;
+    private final Map<Integer, Object> upsertedIds;
+    private final List<BulkOperationResult> operationResults;
+
+    public BulkResult(boolean acknowledged, int insertedCount, int matchedCount, int modifiedCount,
+                      int removedCount, List<String> insertedIds, Map<Integer, Object> upsertedIds,
+                      List<BulkOperationResult> operationResults) {
+        this.acknowledged = acknowledged;
+        this.insertedCount = insertedCount;
+        this.matchedCount = matchedCount;
+        this.modifiedCount = modifiedCount;
+        this.removedCount = removedCount;
+        this.insertedIds = Collections.unmodifiableList(insertedIds);
+        this.upsertedIds = Collections.unmodifiableMap(upsertedIds);
+        this.operationResults = Collections.unmodifiableList(operationResults);
+    }
+
+    public boolean isAcknowledged() {
+        return acknowledged;
+    }
+
+    public int getInsertedCount() {
+        return insertedCount;
+    }
+
+    public int getMatchedCount() {
+        return matchedCount;
+    }
+
+    /**
+     * @return Number of actually modified documents or -1 if the server does not report it
+     */
+    public int getModifiedCount() {
+        return modifiedCount;
+    }
+
+    public int getRemovedCount() {
+        return removedCount;
+    }
+
+    public int getUpsertedCount() {
+        return upsertedIds.size();
+    }
+
+    /**
+     * @return Identifiers of the queued documents to be inserted in the queue order
+     */
+    public List<String> getInsertedIds() {
+        return insertedIds;
+    }
+
+    /**
+     * @return Identifiers of the upserted documents keyed by the index of the upsert operation in the queue
+     */
+    public Map<Integer, Object> getUpsertedIds() {
+        return upsertedIds;
+    }
+
+    /**
+     * @return Results of the queued operations in the queue order; errors and upserted ids are not known
+     * if the write was not acknowledged
+     */
+    public List<BulkOperationResult> getOperationResults() {
+        return operationResults;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkResult{acknowledged=" + acknowledged + ", insertedCount=" + insertedCount +
+                ", matchedCount=" + matchedCount + ", modifiedCount=" + modifiedCount +
+                ", removedCount=" + removedCount + ", upsertedIds=" + upsertedIds + '}';
+    }
+}
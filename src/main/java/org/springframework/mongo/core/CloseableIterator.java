@@ -0,0 +1,21 @@
+package org.springframework.mongo.core;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * Iterator over the mapped query results, that holds an open mongo cursor.
+ * The cursor is released once the iterator is exhausted, callers that stop the iteration earlier
+ * should call {@link #close()} to release it, e.g. by using try-with-resources statement.
+ *
+ * @param <T> Type of the iterated objects.
+ * @author Alexander Shabanov
+ */
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+
+    /**
+     * Releases the underlying cursor. Subsequent calls of this method have no effect.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,98 @@
+package org.springframework.mongo.core;
+
+import com.mongodb.DBObject;
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+
+/**
+ * Growable column of the values of a single document field, filled by
+ * {@link MongoOperations#queryColumns(String, com.mongodb.DBObject, com.mongodb.DBObject, QueryOptions, Column...)}.
+ * Values are stored in the primitive arrays by the subclasses, missing and null values are tracked in the bitmap.
+ * Field name may be a dotted path to the field of the embedded document, e.g. {@code address.city}.
+ * Not thread safe.
+ *
+ * @author Alexander Shabanov
+ */
+public abstract class Column {
+    static final int INITIAL_CAPACITY = 64;
+
+    private final String fieldName;
+    private final String[] path;
+    private long[] nulls = new long[1];
+    private int size;
+
+    protected Column(String fieldName) {
+        Assert.hasText(fieldName, "fieldName can not be empty");
+        this.fieldName = fieldName;
+        this.path = fieldName.split("\\.");
+    }
+
+    public final String getFieldName() {
+        return fieldName;
+    }
+
+    public final int size() {
+        return size;
+    }
+
+    /**
+     * @param row Row index
+     * @return True, if the field was null or missing in the given row
+     */
+    public final boolean isNull(int row) {
+        checkRow(row);
+        final int word = row >>> 6;
+        return word < nulls.length && (nulls[word] & (1L << row)) != 0;
+    }
+
+    /**
+     * Appends the value of the field of the given document, following the dotted path through
+     * the embedded documents.
+     *
+     * @param document Document, returned by the driver
+     */
+    public final void addFrom(DBObject document) {
+        Object value = document.get(path[0]);
+        for (int i = 1; i < path.length && value != null; ++i) {
+            value = value instanceof DBObject ? ((DBObject) value).get(path[i]) : null;
+        }
+        add(value);
+    }
+
+    /**
+     * Appends the value of the field.
+     *
+     * @param mongoValue Value of the field, returned by the driver, or null if the field is missing
+     */
+    public final void add(Object mongoValue) {
+        final int row = size;
+        if (mongoValue == null) {
+            final int word = row >>> 6;
+            if (word >= nulls.length) {
+                nulls = Arrays.copyOf(nulls, Math.max(word + 1, nulls.length * 2));
+            }
+            nulls[word] |= 1L << row;
+        }
+        set(row, mongoValue);
+        size = row + 1;
+    }
+
+    /**
+     * Stores the value of the given row, growing the storage if needed.
+     *
+     * @param row Row index, equal to the current size
+     * @param mongoValue Value of the field or null
+     */
+    protected abstract void set(int row, Object mongoValue);
+
+    protected final void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row=" + row + ", size=" + size);
+        }
+    }
+
+    protected static int grownCapacity(int capacity) {
+        return Math.max(INITIAL_CAPACITY, capacity + (capacity >> 1));
+    }
+}
@@ -0,0 +1,26 @@
+package org.springframework.mongo.core;
+
+import com.mongodb.DBObject;
+
+/**
+ * An interface used by {@link org.springframework.mongo.core.support.MongoTemplate} for processing rows
+ * of a {@link DBObject} cursor on a per-row basis. Unlike {@link CursorMapper}, implementations of this
+ * interface do not return a result object: they are expected to process each row as it arrives,
+ * so the memory used by the query does not depend on the number of rows returned.
+ *
+ * <p>Consider this as a mongo counterpart of the spring-jdbc's {@code RowCallbackHandler}.
+ *
+ * @author Alexander Shabanov
+ */
+public interface CursorCallbackHandler {
+
+    /**
+     * Implementations must implement this method to process each row of data in the cursor object.
+     * This method should not cast the provided cursor object to {@link com.mongodb.DBCursor} to invoke
+     * any cursor related functionality; it is only supposed to process values of the current row.
+     *
+     * @param cursor the Cursor to process (pre-initialized for the current row)
+     * @param rowNum the number of the current row
+     */
+    void processCursor(DBObject cursor, int rowNum);
+}
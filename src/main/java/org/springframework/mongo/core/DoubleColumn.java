@@ -0,0 +1,36 @@
+package org.springframework.mongo.core;
+
+import java.util.Arrays;
+
+/**
+ * Column of the double values, numbers of other types are converted, null values are stored as zero.
+ *
+ * @author Alexander Shabanov
+ */
+public final class DoubleColumn extends Column {
+    private double[] values = new double[0];
+
+    public DoubleColumn(String fieldName) {
+        super(fieldName);
+    }
+
+    public double get(int row) {
+        checkRow(row);
+        return values[row];
+    }
+
+    /**
+     * @return Copy of the column values
+     */
+    public double[] toArray() {
+        return Arrays.copyOf(values, size());
+    }
+
+    @Override
+    protected void set(int row, Object mongoValue) {
+        if (row == values.length) {
+            values = Arrays.copyOf(values, grownCapacity(row));
+        }
+        values[row] = mongoValue != null ? ((Number) mongoValue).doubleValue() : 0.0;
+    }
+}
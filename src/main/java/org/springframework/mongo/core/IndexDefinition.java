@@ -0,0 +1,222 @@
+package org.springframework.mongo.core;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Index specification for {@link MongoOperations#ensureIndex(String, IndexDefinition)}.
+ *
+ * <p>Sample usage:
+ * <pre>
+ * mo.ensureIndex("Profile", new IndexDefinition(new BasicDBObject("name", 1).append("age", -1)).unique(true));
+ * </pre>
+ *
+ * @author Alexander Shabanov
+ */
+public final class IndexDefinition {
+    private final DBObject keys;
+    private String name;
+    private boolean unique;
+    private boolean sparse;
+    private long expireAfterSeconds = -1L;
+    private boolean background;
+
+    /**
+     * @param keys Indexed fields in the index order, mapped to 1 for ascending or -1 for descending order
+     */
+    public IndexDefinition(DBObject keys) {
+        Assert.notNull(keys, "keys can not be null");
+        Assert.isTrue(!keys.keySet().isEmpty(), "keys can not be empty");
+        this.keys = keys;
+    }
+
+    public DBObject getKeys() {
+        return keys;
+    }
+
+    /**
+     * @return Name of the index, generated from the keys the same way as the server does unless set explicitly
+     */
+    public String getName() {
+        if (name != null) {
+            return name;
+        }
+
+        final StringBuilder builder = new StringBuilder();
+        for (final String key : keys.keySet()) {
+            if (builder.length() > 0) {
+                builder.append('_');
+            }
+            final Object value = keys.get(key);
+            builder.append(key).append('_').append(value instanceof Number ? ((Number) value).intValue() : value);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @param name Name of the index or null if it should be generated
+     * @return This instance
+     */
+    public IndexDefinition name(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public boolean isUnique() {
+        return unique;
+    }
+
+    /**
+     * @param unique True, if the index should reject documents with the duplicate keys
+     * @return This instance
+     */
+    public IndexDefinition unique(boolean unique) {
+        this.unique = unique;
+        return this;
+    }
+
+    public boolean isSparse() {
+        return sparse;
+    }
+
+    /**
+     * @param sparse True, if the index should skip documents without the indexed fields
+     * @return This instance
+     */
+    public IndexDefinition sparse(boolean sparse) {
+        this.sparse = sparse;
+        return this;
+    }
+
+    public long getExpireAfterSeconds() {
+        return expireAfterSeconds;
+    }
+
+    /**
+     * Makes this index a TTL one: the server removes documents once the time, stored in the indexed date field,
+     * is older than the given duration. Applies to the single field indexes only.
+     *
+     * @param duration Time to live, negative value means no expiration
+     * @param unit Time unit of the duration argument
+     * @return This instance
+     */
+    public IndexDefinition expireAfter(long duration, TimeUnit unit) {
+        Assert.isTrue(duration < 0 || keys.keySet().size() == 1, "Only single field index can expire documents");
+        this.expireAfterSeconds = duration >= 0 ? unit.toSeconds(duration) : -1L;
+        return this;
+    }
+
+    public boolean isBackground() {
+        return background;
+    }
+
+    /**
+     * @param background True, if the server should build the index without blocking other operations
+     *                   on the collection, which takes longer
+     * @return This instance
+     */
+    public IndexDefinition background(boolean background) {
+        this.background = background;
+        return this;
+    }
+
+    /**
+     * @return Index options, as expected by {@link com.mongodb.DBCollection#createIndex(DBObject, DBObject)}
+     */
+    public DBObject toOptions() {
+        final BasicDBObject options = new BasicDBObject("name", getName());
+        if (unique) {
+            options.put("unique", true);
+        }
+        if (sparse) {
+            options.put("sparse", true);
+        }
+        if (expireAfterSeconds >= 0) {
+            options.put("expireAfterSeconds", expireAfterSeconds);
+        }
+        if (background) {
+            options.put("background", true);
+        }
+        return options;
+    }
+
+    /**
+     * Compares this definition with the existing index. Background build option is not compared, as it does
+     * not affect the built index.
+     *
+     * @param indexInfo Index description, as returned by {@link MongoOperations#getIndexInfo(String)}
+     * @return Descriptions of the keys and options, that differ from this definition, empty if the index matches
+     */
+    public List<String> getDifferences(DBObject indexInfo) {
+        final List<String> differences = new ArrayList<String>();
+        if (!getName().equals(indexInfo.get("name"))) {
+            differences.add("name " + indexInfo.get("name") + " instead of " + getName());
+        }
+        final Object key = indexInfo.get("key");
+        if (!(key instanceof DBObject) || !isSameKeys((DBObject) key)) {
+            differences.add("key " + key + " instead of " + keys);
+        }
+        if (isTrue(indexInfo.get("unique")) != unique) {
+            differences.add("unique " + !unique + " instead of " + unique);
+        }
+        if (isTrue(indexInfo.get("sparse")) != sparse) {
+            differences.add("sparse " + !sparse + " instead of " + sparse);
+        }
+        final Object expire = indexInfo.get("expireAfterSeconds");
+        final long existingExpireAfterSeconds = expire instanceof Number ? ((Number) expire).longValue() : -1L;
+        if (existingExpireAfterSeconds != expireAfterSeconds) {
+            differences.add("expireAfterSeconds " + existingExpireAfterSeconds + " instead of " + expireAfterSeconds);
+        }
+        return differences;
+    }
+
+    /**
+     * @param indexKeys Value of the {@code key} field of the index description
+     * @return True, if the index has the same keys in the same order as this definition
+     */
+    public boolean isSameKeys(DBObject indexKeys) {
+        final Iterator<String> names = keys.keySet().iterator();
+        for (final String name : indexKeys.keySet()) {
+            if (!names.hasNext() || !name.equals(names.next()) ||
+                    !isSameKeyValue(keys.get(name), indexKeys.get(name))) {
+                return false;
+            }
+        }
+        return !names.hasNext();
+    }
+
+    /**
+     * @return New definition with the same settings
+     */
+    public IndexDefinition copy() {
+        final IndexDefinition result = new IndexDefinition(keys);
+        result.name = name;
+        result.unique = unique;
+        result.sparse = sparse;
+        result.expireAfterSeconds = expireAfterSeconds;
+        result.background = background;
+        return result;
+    }
+
+    //
+    // Private
+    //
+
+    private static boolean isSameKeyValue(Object value, Object existingValue) {
+        if (value instanceof Number && existingValue instanceof Number) {
+            // server may return 1.0 for 1
+            return ((Number) value).doubleValue() == ((Number) existingValue).doubleValue();
+        }
+        return value != null && value.equals(existingValue);
+    }
+
+    private static boolean isTrue(Object value) {
+        return Boolean.TRUE.equals(value) || (value instanceof Number && ((Number) value).intValue() != 0);
+    }
+}
@@ -0,0 +1,36 @@
+package org.springframework.mongo.core;
+
+import java.util.Arrays;
+
+/**
+ * Column of the int values, numbers of other types are converted, null values are stored as zero.
+ *
+ * @author Alexander Shabanov
+ */
+public final class IntColumn extends Column {
+    private int[] values = new int[0];
+
+    public IntColumn(String fieldName) {
+        super(fieldName);
+    }
+
+    public int get(int row) {
+        checkRow(row);
+        return values[row];
+    }
+
+    /**
+     * @return Copy of the column values
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(values, size());
+    }
+
+    @Override
+    protected void set(int row, Object mongoValue) {
+        if (row == values.length) {
+            values = Arrays.copyOf(values, grownCapacity(row));
+        }
+        values[row] = mongoValue != null ? ((Number) mongoValue).intValue() : 0;
+    }
+}
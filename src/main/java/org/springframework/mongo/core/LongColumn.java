@@ -0,0 +1,36 @@
+package org.springframework.mongo.core;
+
+import java.util.Arrays;
+
+/**
+ * Column of the long values, numbers of other types are converted, null values are stored as zero.
+ *
+ * @author Alexander Shabanov
+ */
+public final class LongColumn extends Column {
+    private long[] values = new long[0];
+
+    public LongColumn(String fieldName) {
+        super(fieldName);
+    }
+
+    public long get(int row) {
+        checkRow(row);
+        return values[row];
+    }
+
+    /**
+     * @return Copy of the column values
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(values, size());
+    }
+
+    @Override
+    protected void set(int row, Object mongoValue) {
+        if (row == values.length) {
+            values = Arrays.copyOf(values, grownCapacity(row));
+        }
+        values[row] = mongoValue != null ? ((Number) mongoValue).longValue() : 0L;
+    }
+}
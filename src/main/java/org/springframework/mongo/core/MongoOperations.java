@@ -1,6 +1,7 @@
 package org.springframework.mongo.core;
 
 import com.mongodb.DBObject;
+import com.mongodb.WriteConcern;
 import com.mongodb.WriteResult;
 
 import java.util.List;
@@ -18,21 +19,213 @@ import java.util.List;
 public interface MongoOperations {
     String insert(String collectionName, DBObject dbObject);
 
+    String insert(String collectionName, DBObject dbObject, WriteConcern writeConcern);
+
+    /**
+     * Inserts the given objects in batches, limited both by the number of documents and their estimated size.
+     * Objects without {@code _id} field are assigned with the new {@link org.bson.types.ObjectId} prior to insertion.
+     * Batches that precede the failed one remain inserted.
+     *
+     * @param collectionName Name of the collection
+     * @param dbObjects Objects to be inserted
+     * @return Identifiers of the inserted objects in the input order
+     */
+    List<String> insert(String collectionName, List<DBObject> dbObjects);
+
+    List<String> insert(String collectionName, List<DBObject> dbObjects, WriteConcern writeConcern);
+
     WriteResult update(String collectionName, DBObject query, DBObject dbObject);
 
+    WriteResult update(String collectionName, DBObject query, DBObject dbObject, WriteConcern writeConcern);
+
     WriteResult remove(String collectionName, DBObject query);
 
+    WriteResult remove(String collectionName, DBObject query, WriteConcern writeConcern);
+
+    /**
+     * Creates queue of the write operations on the given collection, sent in batches on execution.
+     *
+     * @param collectionName Name of the collection
+     * @param ordered True, if operations should be applied in the queue order and stop on the first error,
+     *                false if the server may apply them in any order and continue after errors
+     * @return Bulk operations
+     */
+    BulkOperations bulkOps(String collectionName, boolean ordered);
+
+    BulkOperations bulkOps(String collectionName, boolean ordered, WriteConcern writeConcern);
+
     <T> List<T> query(String collectionName, CursorMapper<T> mapper, String key, Object value);
 
     <T> List<T> query(String collectionName, CursorMapper<T> mapper, DBObject query);
 
     <T> List<T> query(String collectionName, CursorMapper<T> mapper, DBObject query, DBObject orderBy);
 
+    /**
+     * Queries the collection and maps each returned document.
+     *
+     * @param collectionName Name of the collection
+     * @param mapper Mapper for the returned documents
+     * @param query Query object
+     * @param fields Projection, that specifies fields to be returned or null if whole documents should be returned
+     * @param orderBy Sort order or null
+     * @param <T> Type of the mapped object
+     * @return Unmodifiable list of the mapped objects
+     */
+    <T> List<T> query(String collectionName, CursorMapper<T> mapper, DBObject query, DBObject fields,
+                      DBObject orderBy);
+
+    <T> List<T> query(String collectionName, CursorMapper<T> mapper, DBObject query, DBObject fields,
+                      DBObject orderBy, QueryOptions options);
+
     <T> List<T> query(String collectionName, String resultFieldName, Class<T> resultClass, DBObject query, DBObject orderBy);
 
+    void query(String collectionName, CursorCallbackHandler callbackHandler, DBObject query);
+
+    void query(String collectionName, CursorCallbackHandler callbackHandler, DBObject query, DBObject orderBy);
+
+    void query(String collectionName, CursorCallbackHandler callbackHandler, DBObject query, DBObject fields,
+               DBObject orderBy);
+
+    void query(String collectionName, CursorCallbackHandler callbackHandler, DBObject query, DBObject fields,
+               DBObject orderBy, QueryOptions options);
+
+    /**
+     * Splits the query into the ranges of the split key values and scans the ranges concurrently, one cursor
+     * per range. Split key should be indexed.
+     *
+     * @param collectionName Name of the collection
+     * @param mapper Mapper for the returned documents, called concurrently
+     * @param query Query object
+     * @param fields Projection or null
+     * @param options Parallel query options
+     * @param <T> Type of the mapped object
+     * @return Unmodifiable list of the mapped objects, ordered by the split key
+     */
+    <T> List<T> parallelQuery(String collectionName, CursorMapper<T> mapper, DBObject query, DBObject fields,
+                              ParallelQueryOptions options);
+
+    <T> void parallelQuery(String collectionName, CursorMapper<T> mapper, DBObject query, DBObject fields,
+                           ParallelQueryOptions options, PartitionCallbackHandler<T> callbackHandler);
+
+    /**
+     * @param collectionName Name of the collection
+     * @param query Query object
+     * @return Number of the documents, matching the query, counted by the server
+     */
+    long count(String collectionName, DBObject query);
+
+    /**
+     * @param collectionName Name of the collection
+     * @param query Query object
+     * @param options Query options, only the read preference is applied, or null
+     * @return Number of the documents, matching the query, counted by the server
+     */
+    long count(String collectionName, DBObject query, QueryOptions options);
+
+    /**
+     * @param collectionName Name of the collection
+     * @param query Query object
+     * @return True, if at least one document matches the query, only the id of the first document is fetched
+     */
+    boolean exists(String collectionName, DBObject query);
+
+    /**
+     * @param collectionName Name of the collection
+     * @param query Query object
+     * @param options Query options, limit, batch size and decoder factory are not applied, or null
+     * @return True, if at least one document matches the query, only the id of the first document is fetched
+     */
+    boolean exists(String collectionName, DBObject query, QueryOptions options);
+
+    /**
+     * @param collectionName Name of the collection
+     * @param fieldName Name of the document field, for the array fields distinct elements are returned
+     * @param resultClass Class of the field values, numeric values of the other types are converted to it
+     * @param query Query object or null
+     * @param <T> Type of the field values
+     * @return Unmodifiable list of the distinct values of the field in the documents, matching the query
+     */
+    <T> List<T> distinct(String collectionName, String fieldName, Class<T> resultClass, DBObject query);
+
+    /**
+     * @param options Query options, only the read preference is applied, or null
+     * @see #distinct(String, String, Class, DBObject)
+     */
+    <T> List<T> distinct(String collectionName, String fieldName, Class<T> resultClass, DBObject query,
+                         QueryOptions options);
+
+    /**
+     * Creates the index, if the collection has no index with the same name.
+     *
+     * @param collectionName Name of the collection
+     * @param index Index definition
+     */
+    void ensureIndex(String collectionName, IndexDefinition index);
+
+    /**
+     * @param collectionName Name of the collection
+     * @return Unmodifiable list of the index descriptions, returned by the server, each contains
+     * {@code name} and {@code key} fields
+     */
+    List<DBObject> getIndexInfo(String collectionName);
+
+    /**
+     * Queries the collection and appends the values of the column fields of each returned document to the columns.
+     * Only the column fields are fetched.
+     *
+     * <p>Sample usage:
+     * <pre>
+     * final LongColumn ages = new LongColumn("age");
+     * final StringColumn names = new StringColumn("name");
+     * mo.queryColumns("Profile", query, null, null, ages, names);
+     * </pre>
+     *
+     * @param collectionName Name of the collection
+     * @param query Query object
+     * @param orderBy Sort order or null
+     * @param options Query options or null
+     * @param columns Columns to be filled
+     * @return Number of the returned documents
+     */
+    int queryColumns(String collectionName, DBObject query, DBObject orderBy, QueryOptions options,
+                     Column... columns);
+
+    /**
+     * Runs the aggregation pipeline on the server and maps each result document. Results are fetched through
+     * the server cursor in batches, so the result size is not limited by the maximum document size.
+     *
+     * @param collectionName Name of the collection
+     * @param mapper Mapper for the result documents
+     * @param pipeline Pipeline stages, e.g. {@code $match}, {@code $group}, {@code $sort}
+     * @param options Aggregation options or null
+     * @param <T> Type of the mapped object
+     * @return Unmodifiable list of the mapped objects
+     */
+    <T> List<T> aggregate(String collectionName, CursorMapper<T> mapper, List<DBObject> pipeline,
+                          AggregateOptions options);
+
+    /**
+     * Runs the aggregation pipeline on the server and passes each result document to the callback handler
+     * as soon as it is fetched, without retaining the results.
+     *
+     * @see #aggregate(String, CursorMapper, List, AggregateOptions)
+     */
+    void aggregate(String collectionName, CursorCallbackHandler callbackHandler, List<DBObject> pipeline,
+                   AggregateOptions options);
+
+    <T> CloseableIterator<T> iterate(String collectionName, CursorMapper<T> mapper, DBObject query, DBObject orderBy);
+
+    <T> CloseableIterator<T> iterate(String collectionName, CursorMapper<T> mapper, DBObject query, DBObject fields,
+                                     DBObject orderBy);
+
+    <T> CloseableIterator<T> iterate(String collectionName, CursorMapper<T> mapper, DBObject query, DBObject fields,
+                                     DBObject orderBy, QueryOptions options);
+
     <T> T queryForObject(String collectionName, CursorMapper<T> mapper, String key, Object value);
 
     <T> T queryForObject(String collectionName, CursorMapper<T> mapper, DBObject queryObject);
 
+    <T> T queryForObject(String collectionName, CursorMapper<T> mapper, DBObject queryObject, DBObject fields);
+
     <T> T queryForObject(String collectionName, String resultFieldName, Class<T> resultClass, DBObject query);
 }
@@ -0,0 +1,113 @@
+package org.springframework.mongo.core;
+
+import org.springframework.util.Assert;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Settings of the parallel range-partitioned query, see
+ * {@link MongoOperations#parallelQuery(String, CursorMapper, com.mongodb.DBObject, com.mongodb.DBObject, ParallelQueryOptions)}.
+ *
+ * <p>Sample usage:
+ * <pre>
+ * mo.parallelQuery("Profile", mapper, query, null, new ParallelQueryOptions().partitions(32).splitKey("userId"));
+ * </pre>
+ *
+ * @author Alexander Shabanov
+ */
+public final class ParallelQueryOptions {
+    /**
+     * Default number of sampled split key values per partition.
+     */
+    public static final int DEFAULT_SAMPLES_PER_PARTITION = 32;
+
+    private int partitions = Runtime.getRuntime().availableProcessors();
+    private String splitKey = "_id";
+    private int samplesPerPartition = DEFAULT_SAMPLES_PER_PARTITION;
+    private ForkJoinPool pool;
+    private QueryOptions queryOptions;
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * @param partitions Maximum number of key ranges, scanned in parallel; defaults to the number of processors
+     * @return This instance
+     */
+    public ParallelQueryOptions partitions(int partitions) {
+        Assert.isTrue(partitions > 0, "partitions should be positive");
+        this.partitions = partitions;
+        return this;
+    }
+
+    public String getSplitKey() {
+        return splitKey;
+    }
+
+    /**
+     * @param splitKey Indexed field, which values are split into ranges, e.g. the shard key; defaults to {@code _id}
+     * @return This instance
+     */
+    public ParallelQueryOptions splitKey(String splitKey) {
+        Assert.hasText(splitKey, "splitKey can not be empty");
+        this.splitKey = splitKey;
+        return this;
+    }
+
+    public int getSamplesPerPartition() {
+        return samplesPerPartition;
+    }
+
+    /**
+     * @param samplesPerPartition Number of sampled documents per partition, more samples give more even ranges
+     * @return This instance
+     */
+    public ParallelQueryOptions samplesPerPartition(int samplesPerPartition) {
+        Assert.isTrue(samplesPerPartition > 0, "samplesPerPartition should be positive");
+        this.samplesPerPartition = samplesPerPartition;
+        return this;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * @param pool Pool, that runs partition cursors; defaults to the pool of the template, dedicated
+     *             to the parallel queries
+     * @return This instance
+     */
+    public ParallelQueryOptions pool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    public QueryOptions getQueryOptions() {
+        return queryOptions;
+    }
+
+    /**
+     * @param queryOptions Options of each partition cursor, limit and skip are not supported
+     * @return This instance
+     */
+    public ParallelQueryOptions queryOptions(QueryOptions queryOptions) {
+        Assert.isTrue(queryOptions == null || (queryOptions.getLimit() == 0 && queryOptions.getSkip() == 0),
+                "limit and skip are not supported by the parallel query");
+        this.queryOptions = queryOptions;
+        return this;
+    }
+
+    /**
+     * @return New options with the same settings
+     */
+    public ParallelQueryOptions copy() {
+        final ParallelQueryOptions result = new ParallelQueryOptions();
+        result.partitions = partitions;
+        result.splitKey = splitKey;
+        result.samplesPerPartition = samplesPerPartition;
+        result.pool = pool;
+        result.queryOptions = queryOptions;
+        return result;
+    }
+}
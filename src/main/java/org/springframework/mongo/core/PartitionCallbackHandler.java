@@ -0,0 +1,12 @@
+package org.springframework.mongo.core;
+
+/**
+ * Callback interface, used by the parallel query to process each mapped object.
+ * Objects of the different partitions are processed concurrently, objects of one partition are processed
+ * sequentially in the split key order.
+ *
+ * @author Alexander Shabanov
+ */
+public interface PartitionCallbackHandler<T> {
+    void processObject(int partition, T object);
+}
@@ -0,0 +1,188 @@
+package org.springframework.mongo.core;
+
+import com.mongodb.DBDecoderFactory;
+import com.mongodb.DBObject;
+import com.mongodb.ReadPreference;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Cursor settings for the query methods of {@link MongoOperations} and
+ * {@link org.springframework.mongo.mappable.MappableMongoOperations}.
+ *
+ * <p>Sample usage:
+ * <pre>
+ * mo.query("Profile", mapper, query, null, orderBy, new QueryOptions().skip(100).limit(20));
+ * </pre>
+ *
+ * @author Alexander Shabanov
+ */
+public final class QueryOptions {
+    private int limit;
+    private int skip;
+    private int batchSize;
+    private DBObject hint;
+    private String hintIndexName;
+    private boolean adaptiveBatchSize;
+    private ForkJoinPool mappingPool;
+    private DBDecoderFactory decoderFactory;
+    private ReadPreference readPreference;
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @param limit Maximum number of documents to be returned, zero means no limit
+     * @return This instance
+     */
+    public QueryOptions limit(int limit) {
+        Assert.isTrue(limit >= 0, "limit can not be negative");
+        this.limit = limit;
+        return this;
+    }
+
+    public int getSkip() {
+        return skip;
+    }
+
+    /**
+     * @param skip Number of documents to be skipped
+     * @return This instance
+     */
+    public QueryOptions skip(int skip) {
+        Assert.isTrue(skip >= 0, "skip can not be negative");
+        this.skip = skip;
+        return this;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @param batchSize Number of documents returned in each batch, zero means server default
+     * @return This instance
+     */
+    public QueryOptions batchSize(int batchSize) {
+        Assert.isTrue(batchSize >= 0, "batchSize can not be negative");
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public DBObject getHint() {
+        return hint;
+    }
+
+    /**
+     * @param hint Index specification the server should use
+     * @return This instance
+     */
+    public QueryOptions hint(DBObject hint) {
+        this.hint = hint;
+        return this;
+    }
+
+    public String getHintIndexName() {
+        return hintIndexName;
+    }
+
+    /**
+     * @param hintIndexName Name of the index the server should use
+     * @return This instance
+     */
+    public QueryOptions hint(String hintIndexName) {
+        this.hintIndexName = hintIndexName;
+        return this;
+    }
+
+    public boolean isAdaptiveBatchSize() {
+        return adaptiveBatchSize;
+    }
+
+    /**
+     * Enables tuning of the batch size while iterating over the cursor: each new batch size is derived from
+     * the observed document size and the latency of the previous batch, so that batches neither exceed
+     * a few megabytes nor take too long to fetch. The explicit batch size, if any, is used for the first batch.
+     *
+     * @param adaptiveBatchSize True, if adaptive batch sizing should be enabled
+     * @return This instance
+     */
+    public QueryOptions adaptiveBatchSize(boolean adaptiveBatchSize) {
+        this.adaptiveBatchSize = adaptiveBatchSize;
+        return this;
+    }
+
+    public ForkJoinPool getMappingPool() {
+        return mappingPool;
+    }
+
+    /**
+     * Enables mapping of the fetched rows on the common fork/join pool, see {@link #mappingPool(ForkJoinPool)}.
+     *
+     * @param parallelMapping True, if rows should be mapped in parallel
+     * @return This instance
+     */
+    public QueryOptions parallelMapping(boolean parallelMapping) {
+        return mappingPool(parallelMapping ? ForkJoinPool.commonPool() : null);
+    }
+
+    /**
+     * Enables mapping of the fetched rows on the given pool in chunks, while the cursor fetches the next rows.
+     * Worth it for the mappers, that cost more than fetching of the documents, e.g. mappers of the deeply nested
+     * objects. Mapper should be thread safe. Applies only to the queries, that return lists of the mapped objects,
+     * mapped objects are returned in the original order.
+     *
+     * @param mappingPool Pool for mapping or null if rows should be mapped sequentially
+     * @return This instance
+     */
+    public QueryOptions mappingPool(ForkJoinPool mappingPool) {
+        this.mappingPool = mappingPool;
+        return this;
+    }
+
+    public DBDecoderFactory getDecoderFactory() {
+        return decoderFactory;
+    }
+
+    /**
+     * @param decoderFactory Factory of the decoders for the returned documents or null if the collection's
+     *                       decoder should be used
+     * @return This instance
+     */
+    public QueryOptions decoderFactory(DBDecoderFactory decoderFactory) {
+        this.decoderFactory = decoderFactory;
+        return this;
+    }
+
+    public ReadPreference getReadPreference() {
+        return readPreference;
+    }
+
+    /**
+     * @param readPreference Read preference of the query or null if the default one should be used
+     * @return This instance
+     */
+    public QueryOptions readPreference(ReadPreference readPreference) {
+        this.readPreference = readPreference;
+        return this;
+    }
+
+    /**
+     * @return New options instance with the same settings
+     */
+    public QueryOptions copy() {
+        final QueryOptions result = new QueryOptions();
+        result.limit = limit;
+        result.skip = skip;
+        result.batchSize = batchSize;
+        result.hint = hint;
+        result.hintIndexName = hintIndexName;
+        result.adaptiveBatchSize = adaptiveBatchSize;
+        result.mappingPool = mappingPool;
+        result.decoderFactory = decoderFactory;
+        result.readPreference = readPreference;
+        return result;
+    }
+}
@@ -0,0 +1,36 @@
+package org.springframework.mongo.core;
+
+import java.util.Arrays;
+
+/**
+ * Column of the string values, values of other types are converted by {@link Object#toString()}.
+ *
+ * @author Alexander Shabanov
+ */
+public final class StringColumn extends Column {
+    private String[] values = new String[0];
+
+    public StringColumn(String fieldName) {
+        super(fieldName);
+    }
+
+    public String get(int row) {
+        checkRow(row);
+        return values[row];
+    }
+
+    /**
+     * @return Copy of the column values
+     */
+    public String[] toArray() {
+        return Arrays.copyOf(values, size());
+    }
+
+    @Override
+    protected void set(int row, Object mongoValue) {
+        if (row == values.length) {
+            values = Arrays.copyOf(values, grownCapacity(row));
+        }
+        values[row] = mongoValue != null ? mongoValue.toString() : null;
+    }
+}
@@ -0,0 +1,84 @@
+package org.springframework.mongo.core.support;
+
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+
+import static org.springframework.mongo.support.MongoUtil.estimateBsonSize;
+
+/**
+ * Tunes batch size of the cursor while it is being iterated.
+ * A new batch is detected by the change of the cursor's getMore counter, the time spent in the cursor call
+ * that triggered it is considered as the batch latency. The next batch size is chosen so that the batch fits
+ * into {@link #TARGET_BATCH_BYTES} and is expected to be fetched within {@link #TARGET_BATCH_NANOS}.
+ * Document size is estimated for the first {@link #SAMPLED_DOCUMENTS} documents of the batch and for every
+ * {@link #SAMPLE_INTERVAL}-th one after them, the average of the samples is applied to the whole batch.
+ *
+ * @author Alexander Shabanov
+ */
+final class AdaptiveBatchSizer {
+    static final int TARGET_BATCH_BYTES = 4 * 1024 * 1024;
+    static final long TARGET_BATCH_NANOS = 100L * 1000L * 1000L;
+    static final int MIN_BATCH_SIZE = 16;
+    static final int MAX_BATCH_SIZE = 100000;
+    static final int SAMPLED_DOCUMENTS = 8;
+    static final int SAMPLE_INTERVAL = 16;
+
+    private final DBCursor cursor;
+    private int batchSize;
+    private int observedGetMores;
+    private int batchDocuments;
+    private int sampledDocuments;
+    private long sampledBytes;
+
+    AdaptiveBatchSizer(DBCursor cursor, int initialBatchSize) {
+        this.cursor = cursor;
+        this.batchSize = initialBatchSize;
+    }
+
+    int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Should be called after retrieving each document from the cursor.
+     *
+     * @param document Retrieved document
+     * @param startNanos Value of {@link System#nanoTime()} prior to the cursor call(s) that retrieved the document
+     */
+    void onDocument(DBObject document, long startNanos) {
+        final int getMores = cursor.numGetMores();
+        if (getMores != observedGetMores) {
+            observedGetMores = getMores;
+            onBatch(System.nanoTime() - startNanos);
+        }
+
+        if (batchDocuments < SAMPLED_DOCUMENTS || batchDocuments % SAMPLE_INTERVAL == 0) {
+            ++sampledDocuments;
+            sampledBytes += estimateBsonSize(document);
+        }
+        ++batchDocuments;
+    }
+
+    void onBatch(long latencyNanos) {
+        if (batchDocuments == 0) {
+            return;
+        }
+
+        // server is expected to return approximately the same number of documents as in the previous batch
+        final long documentBytes = Math.max(1L, sampledBytes / sampledDocuments);
+        final long documentNanos = Math.max(1L, latencyNanos / batchDocuments);
+        final long target = Math.min(TARGET_BATCH_BYTES / documentBytes, TARGET_BATCH_NANOS / documentNanos);
+        // smooth changes to avoid oscillation caused by the latency spikes
+        final long smoothed = batchSize > 0 ? (batchSize + target) / 2 : target;
+        final int newBatchSize = (int) Math.max(MIN_BATCH_SIZE, Math.min(MAX_BATCH_SIZE, smoothed));
+
+        if (newBatchSize != batchSize) {
+            batchSize = newBatchSize;
+            cursor.batchSize(newBatchSize);
+        }
+
+        batchDocuments = 0;
+        sampledDocuments = 0;
+        sampledBytes = 0;
+    }
+}
@@ -0,0 +1,198 @@
+package org.springframework.mongo.core.support;
+
+import com.mongodb.DBObject;
+import com.mongodb.WriteResult;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.mongo.core.AsyncMongoOperations;
+import org.springframework.mongo.core.CursorMapper;
+import org.springframework.mongo.core.MongoOperations;
+import org.springframework.mongo.core.QueryOptions;
+import org.springframework.mongo.support.AsyncUtil;
+import org.springframework.mongo.support.AsyncUtil.ExecutorHolder;
+import org.springframework.util.Assert;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Default implementation of the {@link AsyncMongoOperations}, that delegates to the synchronous mongo operations.
+ * Unless the executor is given, operations run on virtual threads if the JVM supports them or on the bounded
+ * thread pool otherwise; operations, submitted when the pool queue is full, fail with
+ * {@link org.springframework.core.task.TaskRejectedException}.
+ *
+ * @author Alexander Shabanov
+ */
+public final class AsyncMongoTemplate implements AsyncMongoOperations {
+    /**
+     * Default maximum number of threads, blocked in the mongo driver calls.
+     */
+    public static final int DEFAULT_POOL_SIZE = AsyncUtil.DEFAULT_POOL_SIZE;
+
+    /**
+     * Default maximum number of operations, waiting for the free thread.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = AsyncUtil.DEFAULT_QUEUE_CAPACITY;
+
+    private MongoOperations mongoOperations;
+
+    private final ExecutorHolder executorHolder = new ExecutorHolder();
+
+    public MongoOperations getMongoOperations() {
+        return mongoOperations;
+    }
+
+    public void setMongoOperations(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    public Executor getExecutor() {
+        return executorHolder.getExecutor();
+    }
+
+    /**
+     * @param executor Executor for the mongo operations, that is not shut down by this instance
+     */
+    public void setExecutor(Executor executor) {
+        executorHolder.setExecutor(executor);
+    }
+
+    public int getPoolSize() {
+        return executorHolder.getPoolSize();
+    }
+
+    /**
+     * @param poolSize Maximum number of the concurrently running operations
+     */
+    public void setPoolSize(int poolSize) {
+        executorHolder.setPoolSize(poolSize);
+    }
+
+    public int getQueueCapacity() {
+        return executorHolder.getQueueCapacity();
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        executorHolder.setQueueCapacity(queueCapacity);
+    }
+
+    public boolean isVirtualThreadsEnabled() {
+        return executorHolder.isVirtualThreadsEnabled();
+    }
+
+    public void setVirtualThreadsEnabled(boolean virtualThreadsEnabled) {
+        executorHolder.setVirtualThreadsEnabled(virtualThreadsEnabled);
+    }
+
+    public AsyncMongoTemplate() {
+    }
+
+    public AsyncMongoTemplate(MongoOperations mongoOperations) {
+        this();
+        setMongoOperations(mongoOperations);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (mongoOperations == null) {
+            throw new BeanInitializationException("mongoOperations property was not set");
+        }
+
+        executorHolder.start();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executorHolder.shutdown();
+    }
+
+    @Override
+    public <T> CompletableFuture<T> execute(final Function<MongoOperations, T> callback) {
+        Assert.notNull(callback, "callback can not be null");
+        return executorHolder.submit(new Callable<T>() {
+            @Override
+            public T call() {
+                return callback.apply(mongoOperations);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<String> insert(final String collectionName, final DBObject dbObject) {
+        return execute(new Function<MongoOperations, String>() {
+            @Override
+            public String apply(MongoOperations mo) {
+                return mo.insert(collectionName, dbObject);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<String>> insert(final String collectionName, final List<DBObject> dbObjects) {
+        return execute(new Function<MongoOperations, List<String>>() {
+            @Override
+            public List<String> apply(MongoOperations mo) {
+                return mo.insert(collectionName, dbObjects);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<WriteResult> update(final String collectionName, final DBObject query,
+                                                 final DBObject dbObject) {
+        return execute(new Function<MongoOperations, WriteResult>() {
+            @Override
+            public WriteResult apply(MongoOperations mo) {
+                return mo.update(collectionName, query, dbObject);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<WriteResult> remove(final String collectionName, final DBObject query) {
+        return execute(new Function<MongoOperations, WriteResult>() {
+            @Override
+            public WriteResult apply(MongoOperations mo) {
+                return mo.remove(collectionName, query);
+            }
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> query(final String collectionName, final CursorMapper<T> mapper,
+                                                final DBObject query) {
+        return execute(new Function<MongoOperations, List<T>>() {
+            @Override
+            public List<T> apply(MongoOperations mo) {
+                return mo.query(collectionName, mapper, query);
+            }
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> query(final String collectionName, final CursorMapper<T> mapper,
+                                                final DBObject query, final DBObject fields,
+                                                final DBObject orderBy, final QueryOptions options) {
+        return execute(new Function<MongoOperations, List<T>>() {
+            @Override
+            public List<T> apply(MongoOperations mo) {
+                return mo.query(collectionName, mapper, query, fields, orderBy, options);
+            }
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<T> queryForObject(final String collectionName, final CursorMapper<T> mapper,
+                                                   final DBObject query) {
+        return execute(new Function<MongoOperations, T>() {
+            @Override
+            public T apply(MongoOperations mo) {
+                return mo.queryForObject(collectionName, mapper, query);
+            }
+        });
+    }
+}
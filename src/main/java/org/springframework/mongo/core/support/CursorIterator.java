@@ -0,0 +1,103 @@
+package org.springframework.mongo.core.support;
+
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import org.springframework.mongo.core.CloseableIterator;
+import org.springframework.mongo.core.CursorMapper;
+import org.springframework.mongo.metrics.MetricsListener;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator that maps cursor rows one by one and closes the cursor once it is exhausted.
+ * If the metrics listener is given, the query is reported to it when the iterator is closed.
+ *
+ * @author Alexander Shabanov
+ */
+final class CursorIterator<T> implements CloseableIterator<T> {
+    private final DBCursor cursor;
+    private final CursorMapper<T> mapper;
+    private final AdaptiveBatchSizer batchSizer;
+    private final String collectionName;
+    private final MetricsListener metricsListener;
+    private int rowNum;
+    private boolean closed;
+    private boolean fetched;
+    private long fetchStartNanos;
+    private long driverNanos;
+    private long mappingNanos;
+
+    CursorIterator(DBCursor cursor, CursorMapper<T> mapper, AdaptiveBatchSizer batchSizer, String collectionName,
+                   MetricsListener metricsListener) {
+        this.cursor = cursor;
+        this.mapper = mapper;
+        this.batchSizer = batchSizer;
+        this.collectionName = collectionName;
+        this.metricsListener = metricsListener;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        } else if (fetched) {
+            // next document is already fetched, keep the start time of the fetch
+            return true;
+        }
+
+        if (batchSizer != null || metricsListener != null) {
+            fetchStartNanos = System.nanoTime();
+        }
+
+        final boolean hasNext = cursor.hasNext();
+        if (metricsListener != null) {
+            driverNanos += System.nanoTime() - fetchStartNanos;
+        }
+
+        if (!hasNext) {
+            close();
+            return false;
+        }
+        fetched = true;
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        fetched = false;
+        final long nextStartNanos = metricsListener != null ? System.nanoTime() : 0L;
+        final DBObject document = cursor.next();
+        if (batchSizer != null) {
+            batchSizer.onDocument(document, fetchStartNanos);
+        }
+
+        if (metricsListener == null) {
+            return mapper.mapCursor(document, rowNum++);
+        }
+
+        final long mappingStartNanos = System.nanoTime();
+        driverNanos += mappingStartNanos - nextStartNanos;
+        final T result = mapper.mapCursor(document, rowNum++);
+        mappingNanos += System.nanoTime() - mappingStartNanos;
+        return result;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove");
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            cursor.close();
+            if (metricsListener != null) {
+                metricsListener.onQuery(collectionName, driverNanos, mappingNanos, rowNum);
+            }
+        }
+    }
+}
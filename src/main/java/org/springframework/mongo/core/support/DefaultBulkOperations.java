@@ -0,0 +1,213 @@
+package org.springframework.mongo.core.support;
+
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteException;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.BulkWriteRequestBuilder;
+import com.mongodb.BulkWriteResult;
+import com.mongodb.BulkWriteUpsert;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+import com.mongodb.WriteConcern;
+import org.bson.types.ObjectId;
+import org.springframework.mongo.UncategorizedMongoException;
+import org.springframework.mongo.core.BulkOperationResult;
+import org.springframework.mongo.core.BulkOperationType;
+import org.springframework.mongo.core.BulkOperations;
+import org.springframework.mongo.core.BulkResult;
+import org.springframework.mongo.metrics.MetricsListener;
+import org.springframework.mongo.metrics.OperationType;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.mongo.support.MongoUtil.*;
+
+/**
+ * Bulk operations, that delegate to the driver's {@link BulkWriteOperation}.
+ * The driver splits queued operations into batches, limited by the server's maximum batch and message sizes.
+ *
+ * @author Alexander Shabanov
+ */
+final class DefaultBulkOperations implements BulkOperations {
+    private final DBCollection collection;
+    private final BulkWriteOperation bulkWriteOperation;
+    private final boolean ordered;
+    private final WriteConcern writeConcern;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final MetricsListener metricsListener;
+    private final List<String> insertedIds = new ArrayList<String>();
+    private final List<BulkOperationType> types = new ArrayList<BulkOperationType>();
+    // ids of the inserted documents by the operation index, null for the other operations
+    private final List<Object> ids = new ArrayList<Object>();
+    private boolean executed;
+
+    DefaultBulkOperations(DBCollection collection, boolean ordered, WriteConcern writeConcern,
+                          ReadYourWritesTracker readYourWritesTracker, MetricsListener metricsListener) {
+        this.collection = collection;
+        this.bulkWriteOperation = ordered ? collection.initializeOrderedBulkOperation() :
+                collection.initializeUnorderedBulkOperation();
+        this.ordered = ordered;
+        this.writeConcern = writeConcern;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.metricsListener = metricsListener;
+    }
+
+    @Override
+    public BulkOperations insert(DBObject dbObject) {
+        Assert.notNull(dbObject, "dbObject can not be null");
+        checkNotExecuted();
+        if (dbObject.get(ID) == null) {
+            dbObject.put(ID, new ObjectId());
+        }
+        bulkWriteOperation.insert(dbObject);
+        insertedIds.add(extractId(dbObject));
+        add(BulkOperationType.INSERT, dbObject.get(ID));
+        return this;
+    }
+
+    @Override
+    public BulkOperations updateOne(DBObject query, DBObject update) {
+        Assert.notNull(update, "update can not be null");
+        if (hasUpdateOperators(update)) {
+            find(query).updateOne(update);
+        } else {
+            find(query).replaceOne(update);
+        }
+        add(BulkOperationType.UPDATE_ONE, null);
+        return this;
+    }
+
+    @Override
+    public BulkOperations updateMulti(DBObject query, DBObject update) {
+        Assert.notNull(update, "update can not be null");
+        Assert.isTrue(hasUpdateOperators(update), "multi update requires update operators");
+        find(query).update(update);
+        add(BulkOperationType.UPDATE_MULTI, null);
+        return this;
+    }
+
+    @Override
+    public BulkOperations upsert(DBObject query, DBObject update) {
+        Assert.notNull(update, "update can not be null");
+        if (hasUpdateOperators(update)) {
+            find(query).upsert().updateOne(update);
+        } else {
+            find(query).upsert().replaceOne(update);
+        }
+        add(BulkOperationType.UPSERT, null);
+        return this;
+    }
+
+    @Override
+    public BulkOperations removeOne(DBObject query) {
+        find(query).removeOne();
+        add(BulkOperationType.REMOVE_ONE, null);
+        return this;
+    }
+
+    @Override
+    public BulkOperations remove(DBObject query) {
+        find(query).remove();
+        add(BulkOperationType.REMOVE, null);
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return types.size();
+    }
+
+    @Override
+    public BulkResult execute() {
+        checkNotExecuted();
+        executed = true;
+        if (types.isEmpty()) {
+            // the driver rejects empty bulk operations
+            return new BulkResult(true, 0, 0, 0, 0, insertedIds, new HashMap<Integer, Object>(),
+                    Collections.<BulkOperationResult>emptyList());
+        }
+
+        final long startNanos = metricsListener != null ? System.nanoTime() : 0L;
+        final BulkWriteResult result;
+        try {
+            result = bulkWriteOperation.execute(writeConcern);
+        } catch (BulkWriteException e) {
+            throw translateBulkWriteException(e, toBulkResult(e.getWriteResult(), e.getWriteErrors()));
+        } catch (MongoException e) {
+            throw new UncategorizedMongoException("Unable to execute bulk write", e);
+        } finally {
+            readYourWritesTracker.onWrite();
+        }
+        final BulkResult bulkResult = toBulkResult(result, Collections.<BulkWriteError>emptyList());
+        if (metricsListener != null) {
+            metricsListener.onWrite(collection.getName(), OperationType.BULK_WRITE, System.nanoTime() - startNanos,
+                    bulkResult.getInsertedCount() + bulkResult.getMatchedCount() + bulkResult.getRemovedCount() +
+                            bulkResult.getUpsertedCount());
+        }
+        return bulkResult;
+    }
+
+    //
+    // Private
+    //
+
+    private void add(BulkOperationType type, Object id) {
+        types.add(type);
+        ids.add(id);
+    }
+
+    private BulkWriteRequestBuilder find(DBObject query) {
+        Assert.notNull(query, "query can not be null");
+        checkNotExecuted();
+        return bulkWriteOperation.find(query);
+    }
+
+    private void checkNotExecuted() {
+        Assert.state(!executed, "Bulk operations have already been executed");
+    }
+
+    private static boolean hasUpdateOperators(DBObject update) {
+        final Iterator<String> keys = update.keySet().iterator();
+        return keys.hasNext() && keys.next().startsWith("$");
+    }
+
+    private BulkResult toBulkResult(BulkWriteResult result, List<BulkWriteError> errors) {
+        final Map<Integer, BulkWriteError> errorsByIndex = new HashMap<Integer, BulkWriteError>();
+        int lastExecutedIndex = types.size() - 1;
+        for (final BulkWriteError error : errors) {
+            errorsByIndex.put(error.getIndex(), error);
+            if (ordered) {
+                // ordered bulk write stops on the first error
+                lastExecutedIndex = Math.min(lastExecutedIndex, error.getIndex());
+            }
+        }
+
+        final Map<Integer, Object> upsertedIds = new HashMap<Integer, Object>();
+        if (result.isAcknowledged()) {
+            for (final BulkWriteUpsert upsert : result.getUpserts()) {
+                upsertedIds.put(upsert.getIndex(), upsert.getId());
+            }
+        }
+
+        final List<BulkOperationResult> operationResults = new ArrayList<BulkOperationResult>(types.size());
+        for (int i = 0; i < types.size(); ++i) {
+            final Object upsertedId = upsertedIds.get(i);
+            operationResults.add(new BulkOperationResult(i, types.get(i), upsertedId != null ? upsertedId : ids.get(i),
+                    upsertedId != null, i <= lastExecutedIndex, errorsByIndex.get(i)));
+        }
+
+        if (!result.isAcknowledged()) {
+            return new BulkResult(false, 0, 0, 0, 0, insertedIds, upsertedIds, operationResults);
+        }
+        return new BulkResult(true, result.getInsertedCount(), result.getMatchedCount(),
+                result.isModifiedCountAvailable() ? result.getModifiedCount() : -1, result.getRemovedCount(),
+                insertedIds, upsertedIds, operationResults);
+    }
+}
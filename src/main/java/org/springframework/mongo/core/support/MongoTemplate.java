@@ -1,20 +1,40 @@
 package org.springframework.mongo.core.support;
 
 import com.mongodb.*;
+import org.bson.types.ObjectId;
 import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.mongo.core.AggregateOptions;
+import org.springframework.mongo.core.BulkOperations;
+import org.springframework.mongo.core.CloseableIterator;
+import org.springframework.mongo.core.Column;
+import org.springframework.mongo.core.CursorCallbackHandler;
 import org.springframework.mongo.core.CursorMapper;
+import org.springframework.mongo.core.IndexDefinition;
 import org.springframework.mongo.core.MongoOperations;
+import org.springframework.mongo.core.ParallelQueryOptions;
+import org.springframework.mongo.core.PartitionCallbackHandler;
+import org.springframework.mongo.core.QueryOptions;
+import org.springframework.mongo.metrics.MetricsListener;
+import org.springframework.mongo.metrics.OperationType;
 import org.springframework.mongo.support.MongoWriteOperation;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.NumberUtils;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.springframework.mongo.core.support.BuiltinMappers.getMapperFor;
-import static org.springframework.mongo.support.MongoUtil.executeWriteOperation;
-import static org.springframework.mongo.support.MongoUtil.extractId;
+import static org.springframework.mongo.support.MongoUtil.*;
 
 /**
  * <b>This is the central class in the mongo core package.</b>
@@ -29,8 +49,41 @@ import static org.springframework.mongo.support.MongoUtil.extractId;
  * @author Alexander Shabanov
  */
 public final class MongoTemplate implements MongoOperations {
+    /**
+     * Default maximum number of documents sent in one insert message.
+     */
+    public static final int DEFAULT_INSERT_BATCH_SIZE = 1000;
+
+    /**
+     * Default maximum estimated size of documents sent in one insert message, well below the server's
+     * 48 megabytes message size limit.
+     */
+    public static final int DEFAULT_INSERT_BATCH_MAX_BYTES = 16 * 1024 * 1024;
+
     private DB db;
 
+    private int insertBatchSize = DEFAULT_INSERT_BATCH_SIZE;
+
+    private int insertBatchMaxBytes = DEFAULT_INSERT_BATCH_MAX_BYTES;
+
+    private WriteConcern writeConcern;
+
+    private MetricsListener metricsListener;
+
+    private ReadPreference readPreference;
+
+    private final ReadYourWritesTracker readYourWritesTracker = new ReadYourWritesTracker();
+
+    /**
+     * Default maximum number of the partition cursors, scanned concurrently by the parallel queries
+     * without explicit pool.
+     */
+    public static final int DEFAULT_PARALLEL_QUERY_THREADS = 16;
+
+    private int parallelQueryThreads = DEFAULT_PARALLEL_QUERY_THREADS;
+
+    private volatile ForkJoinPool parallelQueryPool;
+
     public DB getDb() {
         return db;
     }
@@ -39,6 +92,106 @@ public final class MongoTemplate implements MongoOperations {
         this.db = db;
     }
 
+    public int getInsertBatchSize() {
+        return insertBatchSize;
+    }
+
+    public void setInsertBatchSize(int insertBatchSize) {
+        Assert.isTrue(insertBatchSize > 0, "insertBatchSize should be positive");
+        this.insertBatchSize = insertBatchSize;
+    }
+
+    public int getInsertBatchMaxBytes() {
+        return insertBatchMaxBytes;
+    }
+
+    public void setInsertBatchMaxBytes(int insertBatchMaxBytes) {
+        Assert.isTrue(insertBatchMaxBytes > 0, "insertBatchMaxBytes should be positive");
+        this.insertBatchMaxBytes = insertBatchMaxBytes;
+    }
+
+    public WriteConcern getWriteConcern() {
+        return writeConcern;
+    }
+
+    /**
+     * Sets write concern, used by the write operations, invoked without explicit write concern.
+     * If not set, the default write concern of the target collection is used.
+     * Operations with {@link WriteConcern#UNACKNOWLEDGED} write concern do not wait for the server response,
+     * so the write errors, such as duplicate key violations, are not reported to the caller.
+     *
+     * @param writeConcern Default write concern or null
+     */
+    public void setWriteConcern(WriteConcern writeConcern) {
+        this.writeConcern = writeConcern;
+    }
+
+    public MetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    /**
+     * Sets listener, that is notified about the time spent in each operation.
+     * Operations are not timed if the listener is not set.
+     *
+     * @param metricsListener Metrics listener or null
+     */
+    public void setMetricsListener(MetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+
+    public ReadPreference getReadPreference() {
+        return readPreference;
+    }
+
+    /**
+     * Sets read preference, used by the read operations, invoked without explicit read preference.
+     * If not set, the default read preference of the target collection is used.
+     *
+     * @param readPreference Default read preference or null
+     * @see QueryOptions#readPreference(ReadPreference)
+     */
+    public void setReadPreference(ReadPreference readPreference) {
+        this.readPreference = readPreference;
+    }
+
+    public long getReadYourWritesWindowMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(readYourWritesTracker.getWindowNanos());
+    }
+
+    /**
+     * Enables read-your-writes session mode: all the reads of the thread, that has performed a write through this
+     * template, are sent to the primary within the given window after the write, regardless of the configured
+     * read preferences. The window should exceed the typical replication lag.
+     * Writes are tracked per thread, so the writes, submitted through
+     * {@link AsyncMongoTemplate} or {@link org.springframework.mongo.mappable.support.AsyncMappableMongoTemplate},
+     * pin the executor thread rather than the caller; reads, that should see such writes, should request
+     * the primary explicitly.
+     *
+     * @param window Window duration, zero disables session mode
+     * @param unit Time unit of the window argument
+     */
+    public void setReadYourWritesWindow(long window, TimeUnit unit) {
+        Assert.isTrue(window >= 0, "window can not be negative");
+        readYourWritesTracker.setWindow(window, unit);
+    }
+
+    public int getParallelQueryThreads() {
+        return parallelQueryThreads;
+    }
+
+    /**
+     * Sets size of the pool, created on the first parallel query without explicit pool. Partition cursors block
+     * in the driver calls, so they are not run on the common fork/join pool.
+     *
+     * @param parallelQueryThreads Maximum number of the concurrently scanned partitions
+     */
+    public void setParallelQueryThreads(int parallelQueryThreads) {
+        Assert.isTrue(parallelQueryThreads > 0, "parallelQueryThreads should be positive");
+        Assert.state(parallelQueryPool == null, "Parallel query pool is already created");
+        this.parallelQueryThreads = parallelQueryThreads;
+    }
+
     public MongoTemplate() {
     }
 
@@ -54,42 +207,125 @@ public final class MongoTemplate implements MongoOperations {
         }
     }
 
+    @PreDestroy
+    public void destroy() {
+        final ForkJoinPool pool = parallelQueryPool;
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
     @Override
-    public String insert(final String collectionName, final DBObject dbObject) {
+    public String insert(String collectionName, DBObject dbObject) {
+        return insert(collectionName, dbObject, null);
+    }
+
+    @Override
+    public String insert(final String collectionName, final DBObject dbObject, WriteConcern writeConcern) {
         Assert.notNull(collectionName, "collectionName can not be null");
         Assert.notNull(dbObject, "dbObject can not be null");
-        executeWriteOperation(new MongoWriteOperation() {
+        final DBCollection collection = getDb().getCollection(collectionName);
+        final WriteConcern concern = resolveWriteConcern(collection, writeConcern);
+        executeWrite(collection, OperationType.INSERT, 1, new MongoWriteOperation() {
             @Override
             public WriteResult execute() {
-                return getDb().getCollection(collectionName).insert(dbObject);
+                return collection.insert(dbObject, concern);
             }
         });
         return extractId(dbObject);
     }
 
     @Override
-    public WriteResult update(final String collectionName, final DBObject query, final DBObject dbObject) {
+    public List<String> insert(String collectionName, List<DBObject> dbObjects) {
+        return insert(collectionName, dbObjects, null);
+    }
+
+    @Override
+    public List<String> insert(String collectionName, List<DBObject> dbObjects, WriteConcern writeConcern) {
+        Assert.notNull(collectionName, "collectionName can not be null");
+        Assert.notNull(dbObjects, "dbObjects can not be null");
+        final List<String> ids = new ArrayList<String>(dbObjects.size());
+        // generate ids on the client side, so they can be returned in the input order
+        for (final DBObject dbObject : dbObjects) {
+            Assert.notNull(dbObject, "dbObject can not be null");
+            if (dbObject.get(ID) == null) {
+                dbObject.put(ID, new ObjectId());
+            }
+            ids.add(extractId(dbObject));
+        }
+
+        final DBCollection collection = getDb().getCollection(collectionName);
+        final WriteConcern concern = resolveWriteConcern(collection, writeConcern);
+        int batchStart = 0;
+        int batchBytes = 0;
+        for (int i = 0; i < dbObjects.size(); ++i) {
+            final int bytes = estimateBsonSize(dbObjects.get(i));
+            if (i > batchStart && (i - batchStart >= insertBatchSize || batchBytes + bytes > insertBatchMaxBytes)) {
+                insertBatch(collection, dbObjects.subList(batchStart, i), concern);
+                batchStart = i;
+                batchBytes = 0;
+            }
+            batchBytes += bytes;
+        }
+
+        if (batchStart < dbObjects.size()) {
+            insertBatch(collection, dbObjects.subList(batchStart, dbObjects.size()), concern);
+        }
+
+        return Collections.unmodifiableList(ids);
+    }
+
+    @Override
+    public WriteResult update(String collectionName, DBObject query, DBObject dbObject) {
+        return update(collectionName, query, dbObject, null);
+    }
+
+    @Override
+    public WriteResult update(String collectionName, final DBObject query, final DBObject dbObject,
+                              WriteConcern writeConcern) {
         Assert.notNull(query, "query can not be null");
         Assert.notNull(dbObject, "dbObject can not be null");
-        return executeWriteOperation(new MongoWriteOperation() {
+        final DBCollection collection = getDb().getCollection(collectionName);
+        final WriteConcern concern = resolveWriteConcern(collection, writeConcern);
+        return executeWrite(collection, OperationType.UPDATE, 0, new MongoWriteOperation() {
             @Override
             public WriteResult execute() {
-                return getDb().getCollection(collectionName).update(query, dbObject);
+                return collection.update(query, dbObject, false, false, concern);
             }
         });
     }
 
     @Override
-    public WriteResult remove(final String collectionName, final DBObject query) {
+    public WriteResult remove(String collectionName, DBObject query) {
+        return remove(collectionName, query, null);
+    }
+
+    @Override
+    public WriteResult remove(String collectionName, final DBObject query, WriteConcern writeConcern) {
         Assert.notNull(query, "query can not be null");
-        return executeWriteOperation(new MongoWriteOperation() {
+        final DBCollection collection = getDb().getCollection(collectionName);
+        final WriteConcern concern = resolveWriteConcern(collection, writeConcern);
+        return executeWrite(collection, OperationType.REMOVE, 0, new MongoWriteOperation() {
             @Override
             public WriteResult execute() {
-                return getDb().getCollection(collectionName).remove(query);
+                return collection.remove(query, concern);
             }
         });
     }
 
+    @Override
+    public BulkOperations bulkOps(String collectionName, boolean ordered) {
+        return bulkOps(collectionName, ordered, null);
+    }
+
+    @Override
+    public BulkOperations bulkOps(String collectionName, boolean ordered, WriteConcern writeConcern) {
+        Assert.notNull(collectionName, "collectionName can not be null");
+        final DBCollection collection = getDb().getCollection(collectionName);
+        return new DefaultBulkOperations(collection, ordered, resolveWriteConcern(collection, writeConcern),
+                readYourWritesTracker, metricsListener);
+    }
+
     @Override
     public <T> List<T> query(String collectionName, CursorMapper<T> mapper, String key, Object value) {
         return query(collectionName, mapper, new BasicDBObject().append(key, value));
@@ -102,20 +338,310 @@ public final class MongoTemplate implements MongoOperations {
 
     @Override
     public <T> List<T> query(String collectionName, CursorMapper<T> mapper, DBObject query, DBObject orderBy) {
-        Assert.notNull(query, "query can not be null");
-        final DBCursor cursor = getDb().getCollection(collectionName).find(query);
-        if (orderBy != null) {
-            cursor.sort(orderBy);
+        return query(collectionName, mapper, query, null, orderBy);
+    }
+
+    @Override
+    public <T> List<T> query(String collectionName, CursorMapper<T> mapper, DBObject query, DBObject fields,
+                             DBObject orderBy) {
+        return query(collectionName, mapper, query, fields, orderBy, null);
+    }
+
+    @Override
+    public <T> List<T> query(String collectionName, final CursorMapper<T> mapper, DBObject query, DBObject fields,
+                             DBObject orderBy, QueryOptions options) {
+        Assert.notNull(mapper, "mapper can not be null");
+        if (options != null && options.getMappingPool() != null) {
+            final ParallelMapper<T> parallelMapper = new ParallelMapper<T>(mapper, options.getMappingPool());
+            try {
+                query(collectionName, parallelMapper, query, fields, orderBy, options);
+            } catch (RuntimeException e) {
+                parallelMapper.cancel();
+                throw e;
+            }
+            return Collections.unmodifiableList(parallelMapper.getResult());
         }
+
         final List<T> result = new ArrayList<T>();
+        query(collectionName, new CursorCallbackHandler() {
+            @Override
+            public void processCursor(DBObject cursor, int rowNum) {
+                result.add(mapper.mapCursor(cursor, rowNum));
+            }
+        }, query, fields, orderBy, options);
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public void query(String collectionName, CursorCallbackHandler callbackHandler, DBObject query) {
+        query(collectionName, callbackHandler, query, null);
+    }
+
+    @Override
+    public void query(String collectionName, CursorCallbackHandler callbackHandler, DBObject query,
+                      DBObject orderBy) {
+        query(collectionName, callbackHandler, query, null, orderBy);
+    }
+
+    @Override
+    public void query(String collectionName, CursorCallbackHandler callbackHandler, DBObject query,
+                      DBObject fields, DBObject orderBy) {
+        query(collectionName, callbackHandler, query, fields, orderBy, null);
+    }
+
+    @Override
+    public void query(String collectionName, CursorCallbackHandler callbackHandler, DBObject query,
+                      DBObject fields, DBObject orderBy, QueryOptions options) {
+        Assert.notNull(callbackHandler, "callbackHandler can not be null");
+        final DBCursor cursor = openCursor(collectionName, query, fields, orderBy, options);
+        final MetricsListener listener = metricsListener;
+        final boolean timed = listener != null;
+        long driverNanos = 0L;
+        long mappingNanos = 0L;
         int rowNum = 0;
-        while (cursor.hasNext()) {
-            cursor.next();
-            result.add(mapper.mapCursor(cursor.curr(), rowNum++));
+        try {
+            final AdaptiveBatchSizer batchSizer = createBatchSizer(cursor, options);
+            for (;;) {
+                final long startNanos = batchSizer != null || timed ? System.nanoTime() : 0L;
+                if (!cursor.hasNext()) {
+                    if (timed) {
+                        driverNanos += System.nanoTime() - startNanos;
+                    }
+                    break;
+                }
+
+                final DBObject document = cursor.next();
+                if (batchSizer != null) {
+                    batchSizer.onDocument(document, startNanos);
+                }
+
+                if (timed) {
+                    final long mappingStartNanos = System.nanoTime();
+                    driverNanos += mappingStartNanos - startNanos;
+                    callbackHandler.processCursor(document, rowNum++);
+                    mappingNanos += System.nanoTime() - mappingStartNanos;
+                } else {
+                    callbackHandler.processCursor(document, rowNum++);
+                }
+            }
+        } finally {
+            cursor.close();
+            if (timed) {
+                listener.onQuery(collectionName, driverNanos, mappingNanos, rowNum);
+            }
+        }
+    }
+
+    @Override
+    public <T> List<T> parallelQuery(String collectionName, CursorMapper<T> mapper, DBObject query, DBObject fields,
+                                     ParallelQueryOptions options) {
+        final List<List<T>> partitionResults = new ArrayList<List<T>>();
+        parallelQuery(collectionName, mapper, query, fields, options, new PartitionCallbackHandler<T>() {
+            @Override
+            public void processObject(int partition, T object) {
+                partitionResults.get(partition).add(object);
+            }
+        }, partitionResults);
+
+        final List<T> result = new ArrayList<T>();
+        for (final List<T> partitionResult : partitionResults) {
+            result.addAll(partitionResult);
         }
         return Collections.unmodifiableList(result);
     }
 
+    @Override
+    public <T> void parallelQuery(String collectionName, CursorMapper<T> mapper, DBObject query, DBObject fields,
+                                  ParallelQueryOptions options, PartitionCallbackHandler<T> callbackHandler) {
+        parallelQuery(collectionName, mapper, query, fields, options, callbackHandler, null);
+    }
+
+    @Override
+    public <T> List<T> aggregate(String collectionName, final CursorMapper<T> mapper, List<DBObject> pipeline,
+                                 AggregateOptions options) {
+        final List<T> result = new ArrayList<T>();
+        aggregate(collectionName, new CursorCallbackHandler() {
+            @Override
+            public void processCursor(DBObject cursor, int rowNum) {
+                result.add(mapper.mapCursor(cursor, rowNum));
+            }
+        }, pipeline, options);
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public void aggregate(String collectionName, CursorCallbackHandler callbackHandler, List<DBObject> pipeline,
+                          AggregateOptions options) {
+        Assert.notEmpty(pipeline, "pipeline can not be empty");
+        final AggregationOptions.Builder builder = AggregationOptions.builder()
+                .outputMode(AggregationOptions.OutputMode.CURSOR);
+        if (options != null) {
+            builder.allowDiskUse(options.isAllowDiskUse());
+            if (options.getBatchSize() > 0) {
+                builder.batchSize(options.getBatchSize());
+            }
+            if (options.getMaxTimeMillis() > 0) {
+                builder.maxTime(options.getMaxTimeMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        final MetricsListener listener = metricsListener;
+        final boolean timed = listener != null;
+        long driverNanos = 0L;
+        long mappingNanos = 0L;
+        int rowNum = 0;
+        long startNanos = timed ? System.nanoTime() : 0L;
+        final DBCollection collection = getDb().getCollection(collectionName);
+        final ReadPreference readPreference = resolveReadPreference(options != null ? options.getReadPreference() :
+                null);
+        final Cursor cursor = collection.aggregate(pipeline, builder.build(),
+                readPreference != null ? readPreference : collection.getReadPreference());
+        try {
+            while (cursor.hasNext()) {
+                final DBObject document = cursor.next();
+                if (timed) {
+                    final long mappingStartNanos = System.nanoTime();
+                    driverNanos += mappingStartNanos - startNanos;
+                    callbackHandler.processCursor(document, rowNum++);
+                    startNanos = System.nanoTime();
+                    mappingNanos += startNanos - mappingStartNanos;
+                } else {
+                    callbackHandler.processCursor(document, rowNum++);
+                }
+            }
+        } finally {
+            cursor.close();
+            if (timed) {
+                listener.onQuery(collectionName, driverNanos + System.nanoTime() - startNanos, mappingNanos, rowNum);
+            }
+        }
+    }
+
+    @Override
+    public <T> CloseableIterator<T> iterate(String collectionName, CursorMapper<T> mapper, DBObject query,
+                                            DBObject orderBy) {
+        return iterate(collectionName, mapper, query, null, orderBy);
+    }
+
+    @Override
+    public <T> CloseableIterator<T> iterate(String collectionName, CursorMapper<T> mapper, DBObject query,
+                                            DBObject fields, DBObject orderBy) {
+        return iterate(collectionName, mapper, query, fields, orderBy, null);
+    }
+
+    @Override
+    public <T> CloseableIterator<T> iterate(String collectionName, CursorMapper<T> mapper, DBObject query,
+                                            DBObject fields, DBObject orderBy, QueryOptions options) {
+        Assert.notNull(mapper, "mapper can not be null");
+        final DBCursor cursor = openCursor(collectionName, query, fields, orderBy, options);
+        return new CursorIterator<T>(cursor, mapper, createBatchSizer(cursor, options), collectionName,
+                metricsListener);
+    }
+
+    @Override
+    public long count(String collectionName, DBObject query) {
+        return count(collectionName, query, null);
+    }
+
+    @Override
+    public long count(String collectionName, DBObject query, QueryOptions options) {
+        Assert.notNull(query, "query can not be null");
+        final long startNanos = System.nanoTime();
+        final DBCollection collection = getDb().getCollection(collectionName);
+        final ReadPreference readPreference = resolveReadPreference(options != null ?
+                options.getReadPreference() : null);
+        final long count = collection.count(query,
+                readPreference != null ? readPreference : collection.getReadPreference());
+        reportQuery(collectionName, startNanos, 0);
+        return count;
+    }
+
+    @Override
+    public boolean exists(String collectionName, DBObject query) {
+        return exists(collectionName, query, null);
+    }
+
+    @Override
+    public boolean exists(String collectionName, DBObject query, QueryOptions options) {
+        final long startNanos = System.nanoTime();
+        final QueryOptions existsOptions = options != null ?
+                options.copy().batchSize(0).decoderFactory(null) : new QueryOptions();
+        final DBCursor cursor = openCursor(collectionName, query, new BasicDBObject(ID, 1), null,
+                existsOptions.limit(1));
+        try {
+            final boolean exists = cursor.hasNext();
+            reportQuery(collectionName, startNanos, exists ? 1 : 0);
+            return exists;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Override
+    public <T> List<T> distinct(String collectionName, String fieldName, Class<T> resultClass, DBObject query) {
+        return distinct(collectionName, fieldName, resultClass, query, null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> List<T> distinct(String collectionName, String fieldName, Class<T> resultClass, DBObject query,
+                                QueryOptions options) {
+        Assert.hasText(fieldName, "fieldName can not be empty");
+        Assert.notNull(resultClass, "resultClass can not be null");
+        final long startNanos = System.nanoTime();
+        final DBCollection collection = getDb().getCollection(collectionName);
+        final ReadPreference readPreference = resolveReadPreference(options != null ?
+                options.getReadPreference() : null);
+        final List<?> values = collection.distinct(fieldName, query != null ? query : new BasicDBObject(),
+                readPreference != null ? readPreference : collection.getReadPreference());
+        reportQuery(collectionName, startNanos, values.size());
+
+        final Class<T> valueClass = (Class<T>) ClassUtils.resolvePrimitiveIfNecessary(resultClass);
+        final boolean numeric = Number.class.isAssignableFrom(valueClass);
+        final List<T> result = new ArrayList<T>(values.size());
+        for (final Object value : values) {
+            if (numeric && value instanceof Number && !valueClass.isInstance(value)) {
+                // the same field may be stored as int32, int64 or double
+                result.add((T) NumberUtils.convertNumberToTargetClass((Number) value, (Class<Number>) valueClass));
+            } else {
+                result.add(valueClass.cast(value));
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public void ensureIndex(String collectionName, IndexDefinition index) {
+        Assert.notNull(index, "index can not be null");
+        getDb().getCollection(collectionName).createIndex(index.getKeys(), index.toOptions());
+    }
+
+    @Override
+    public List<DBObject> getIndexInfo(String collectionName) {
+        return Collections.unmodifiableList(getDb().getCollection(collectionName).getIndexInfo());
+    }
+
+    @Override
+    public int queryColumns(String collectionName, DBObject query, DBObject orderBy, QueryOptions options,
+                            final Column... columns) {
+        Assert.notEmpty(columns, "columns can not be empty");
+        final BasicDBObject fields = new BasicDBObject(ID, 0); // _id is returned by default
+        for (final Column column : columns) {
+            fields.put(column.getFieldName(), 1);
+        }
+
+        final int initialSize = columns[0].size();
+        query(collectionName, new CursorCallbackHandler() {
+            @Override
+            public void processCursor(DBObject cursor, int rowNum) {
+                for (final Column column : columns) {
+                    column.addFrom(cursor);
+                }
+            }
+        }, query, fields, orderBy, options);
+        return columns[0].size() - initialSize;
+    }
+
     @Override
     public <T> T queryForObject(String collectionName, CursorMapper<T> mapper, String key, Object value) {
         return queryForObject(collectionName, mapper, new BasicDBObject().append(key, value));
@@ -123,17 +649,248 @@ public final class MongoTemplate implements MongoOperations {
 
     @Override
     public <T> T queryForObject(String collectionName, String resultFieldName, Class<T> resultClass, DBObject query) {
-        return queryForObject(collectionName, getMapperFor(resultFieldName, resultClass), query);
+        return queryForObject(collectionName, getMapperFor(resultFieldName, resultClass), query,
+                fieldsFor(resultFieldName));
     }
 
     @Override
     public <T> T queryForObject(String collectionName, CursorMapper<T> mapper, DBObject queryObject) {
-        return DataAccessUtils.requiredSingleResult(query(collectionName, mapper, queryObject));
+        return queryForObject(collectionName, mapper, queryObject, null);
+    }
+
+    @Override
+    public <T> T queryForObject(String collectionName, CursorMapper<T> mapper, DBObject queryObject,
+                                DBObject fields) {
+        // two rows are enough to find out that the result is not unique
+        return DataAccessUtils.requiredSingleResult(query(collectionName, mapper, queryObject, fields, null,
+                new QueryOptions().limit(2)));
     }
 
     @Override
     public <T> List<T> query(String collectionName, String resultFieldName, Class<T> resultClass,
                              DBObject query, DBObject orderBy) {
-        return query(collectionName, getMapperFor(resultFieldName, resultClass), query, orderBy);
+        return query(collectionName, getMapperFor(resultFieldName, resultClass), query, fieldsFor(resultFieldName),
+                orderBy);
+    }
+
+    //
+    // Private
+    //
+
+    private void insertBatch(final DBCollection collection, final List<DBObject> batch, final WriteConcern concern) {
+        executeWrite(collection, OperationType.INSERT, batch.size(), new MongoWriteOperation() {
+            @Override
+            public WriteResult execute() {
+                return collection.insert(batch, concern);
+            }
+        });
+    }
+
+    /**
+     * Runs one cursor per partition on the pool of the given options.
+     *
+     * @param partitionResults List, that should be filled with one empty list per partition, or null
+     */
+    private <T> void parallelQuery(final String collectionName, final CursorMapper<T> mapper, DBObject query,
+                                   final DBObject fields, ParallelQueryOptions options,
+                                   final PartitionCallbackHandler<T> callbackHandler, List<List<T>> partitionResults) {
+        Assert.notNull(mapper, "mapper can not be null");
+        Assert.notNull(query, "query can not be null");
+        Assert.notNull(options, "options can not be null");
+        Assert.notNull(callbackHandler, "callbackHandler can not be null");
+        QueryOptions queryOptions = options.getQueryOptions();
+        if (readYourWritesTracker.isPinned()) {
+            // partitions are queried by the other threads
+            queryOptions = (queryOptions != null ? queryOptions.copy() : new QueryOptions())
+                    .readPreference(ReadPreference.primary());
+        }
+
+        final DBCollection collection = getDb().getCollection(collectionName);
+        final ReadPreference readPreference = resolveReadPreference(queryOptions != null ?
+                queryOptions.getReadPreference() : null);
+        final List<DBObject> rangeQueries = RangePartitioner.partition(collection, query, options.getSplitKey(),
+                options.getPartitions(), options.getSamplesPerPartition(),
+                readPreference != null ? readPreference : collection.getReadPreference());
+        if (partitionResults != null) {
+            for (int i = 0; i < rangeQueries.size(); ++i) {
+                partitionResults.add(new ArrayList<T>());
+            }
+        }
+
+        final DBObject orderBy = new BasicDBObject(options.getSplitKey(), 1);
+        final QueryOptions partitionQueryOptions = queryOptions;
+        final ForkJoinPool pool = options.getPool() != null ? options.getPool() : getParallelQueryPool();
+        // running partitions stop on the next document, once any partition fails
+        final AtomicBoolean aborted = new AtomicBoolean();
+        final AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+        final List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>(rangeQueries.size());
+        try {
+            for (int i = 0; i < rangeQueries.size(); ++i) {
+                final int partition = i;
+                final DBObject rangeQuery = rangeQueries.get(i);
+                tasks.add(pool.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (aborted.get()) {
+                            return;
+                        }
+                        try {
+                            query(collectionName, new CursorCallbackHandler() {
+                                @Override
+                                public void processCursor(DBObject cursor, int rowNum) {
+                                    if (aborted.get()) {
+                                        throw new CancellationException("Parallel query is aborted");
+                                    }
+                                    callbackHandler.processObject(partition, mapper.mapCursor(cursor, rowNum));
+                                }
+                            }, rangeQuery, fields, orderBy, partitionQueryOptions);
+                        } catch (RuntimeException e) {
+                            if (!aborted.getAndSet(true)) {
+                                failure.set(e);
+                            }
+                            throw e;
+                        }
+                    }
+                }));
+            }
+
+            for (final ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        } catch (RuntimeException e) {
+            aborted.set(true);
+            for (final ForkJoinTask<?> task : tasks) {
+                task.cancel(false);
+            }
+            // callback handler should not be called after return
+            for (final ForkJoinTask<?> task : tasks) {
+                task.quietlyJoin();
+            }
+            final RuntimeException cause = failure.get();
+            throw cause != null ? cause : e;
+        }
+    }
+
+    private ForkJoinPool getParallelQueryPool() {
+        ForkJoinPool pool = parallelQueryPool;
+        if (pool == null) {
+            synchronized (this) {
+                pool = parallelQueryPool;
+                if (pool == null) {
+                    pool = new ForkJoinPool(parallelQueryThreads);
+                    parallelQueryPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Executes the write operation and reports it to the metrics listener, if any.
+     *
+     * @param insertedDocuments Number of documents for inserts, ignored for the other operations
+     */
+    private WriteResult executeWrite(DBCollection collection, OperationType operationType, int insertedDocuments,
+                                     MongoWriteOperation writeOperation) {
+        final MetricsListener listener = metricsListener;
+        if (listener == null) {
+            try {
+                return executeWriteOperation(writeOperation);
+            } finally {
+                readYourWritesTracker.onWrite(); // failed write might have been applied
+            }
+        }
+
+        final long startNanos = System.nanoTime();
+        final WriteResult result;
+        try {
+            result = executeWriteOperation(writeOperation);
+        } finally {
+            readYourWritesTracker.onWrite();
+        }
+        final long driverNanos = System.nanoTime() - startNanos;
+        int documents = 0;
+        if (isAcknowledged(result)) {
+            documents = operationType == OperationType.INSERT ? insertedDocuments : result.getN();
+        }
+        listener.onWrite(collection.getName(), operationType, driverNanos, documents);
+        return result;
+    }
+
+    /**
+     * @param readPreference Read preference of the operation or null
+     * @return Primary read preference, if the current thread is pinned to the primary, the given read preference
+     * or the default one otherwise, null means collection's read preference
+     */
+    ReadPreference resolveReadPreference(ReadPreference readPreference) {
+        if (readYourWritesTracker.isPinned()) {
+            return ReadPreference.primary();
+        }
+        return readPreference != null ? readPreference : this.readPreference;
+    }
+
+    private WriteConcern resolveWriteConcern(DBCollection collection, WriteConcern writeConcern) {
+        if (writeConcern != null) {
+            return writeConcern;
+        }
+        return this.writeConcern != null ? this.writeConcern : collection.getWriteConcern();
+    }
+
+    private void reportQuery(String collectionName, long startNanos, int rows) {
+        final MetricsListener listener = metricsListener;
+        if (listener != null) {
+            listener.onQuery(collectionName, System.nanoTime() - startNanos, 0L, rows);
+        }
+    }
+
+    private static DBObject fieldsFor(String resultFieldName) {
+        final BasicDBObject fields = new BasicDBObject(resultFieldName, 1);
+        if (!ID.equals(resultFieldName)) {
+            fields.append(ID, 0); // _id is returned by default
+        }
+        return fields;
+    }
+
+    private DBCursor openCursor(String collectionName, DBObject query, DBObject fields, DBObject orderBy,
+                                QueryOptions options) {
+        Assert.notNull(query, "query can not be null");
+        final DBCursor cursor = getDb().getCollection(collectionName).find(query, fields);
+        if (orderBy != null) {
+            cursor.sort(orderBy);
+        }
+
+        final ReadPreference readPreference = resolveReadPreference(options != null ?
+                options.getReadPreference() : null);
+        if (readPreference != null) {
+            cursor.setReadPreference(readPreference);
+        }
+
+        if (options != null) {
+            if (options.getLimit() > 0) {
+                cursor.limit(options.getLimit());
+            }
+            if (options.getSkip() > 0) {
+                cursor.skip(options.getSkip());
+            }
+            if (options.getBatchSize() > 0) {
+                cursor.batchSize(options.getBatchSize());
+            }
+            if (options.getHint() != null) {
+                cursor.hint(options.getHint());
+            } else if (options.getHintIndexName() != null) {
+                cursor.hint(options.getHintIndexName());
+            }
+            if (options.getDecoderFactory() != null) {
+                cursor.setDecoderFactory(options.getDecoderFactory());
+            }
+        }
+        return cursor;
+    }
+
+    private static AdaptiveBatchSizer createBatchSizer(DBCursor cursor, QueryOptions options) {
+        if (options == null || !options.isAdaptiveBatchSize()) {
+            return null;
+        }
+        return new AdaptiveBatchSizer(cursor, options.getBatchSize());
     }
 }
@@ -0,0 +1,94 @@
+package org.springframework.mongo.core.support;
+
+import com.mongodb.DBObject;
+import org.springframework.mongo.core.CursorCallbackHandler;
+import org.springframework.mongo.core.CursorMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Callback handler, that collects fetched documents into chunks and maps each chunk on the pool,
+ * while the cursor fetches the next documents. Mapped objects are returned in the original row order,
+ * each document is mapped with its original row number.
+ *
+ * @author Alexander Shabanov
+ */
+final class ParallelMapper<T> implements CursorCallbackHandler {
+    /**
+     * Number of documents, mapped by one task.
+     */
+    static final int CHUNK_SIZE = 128;
+
+    private final CursorMapper<T> mapper;
+    private final ForkJoinPool pool;
+    private final List<ForkJoinTask<List<T>>> tasks = new ArrayList<ForkJoinTask<List<T>>>();
+    private List<DBObject> chunk = new ArrayList<DBObject>(CHUNK_SIZE);
+    private int chunkRowNum;
+
+    ParallelMapper(CursorMapper<T> mapper, ForkJoinPool pool) {
+        this.mapper = mapper;
+        this.pool = pool;
+    }
+
+    @Override
+    public void processCursor(DBObject cursor, int rowNum) {
+        if (chunk.isEmpty()) {
+            chunkRowNum = rowNum;
+        }
+        chunk.add(cursor);
+        if (chunk.size() == CHUNK_SIZE) {
+            submitChunk();
+        }
+    }
+
+    /**
+     * Waits for mapping of all the submitted documents.
+     *
+     * @return Mapped objects in the row order
+     */
+    List<T> getResult() {
+        if (!chunk.isEmpty()) {
+            submitChunk();
+        }
+
+        final List<T> result = new ArrayList<T>(tasks.size() * CHUNK_SIZE);
+        try {
+            for (final ForkJoinTask<List<T>> task : tasks) {
+                result.addAll(task.join());
+            }
+        } catch (RuntimeException e) {
+            cancel();
+            throw e;
+        }
+        return result;
+    }
+
+    /**
+     * Cancels mapping of the submitted documents, that has not been started yet.
+     */
+    void cancel() {
+        for (final ForkJoinTask<List<T>> task : tasks) {
+            task.cancel(false);
+        }
+    }
+
+    private void submitChunk() {
+        final List<DBObject> documents = chunk;
+        final int firstRowNum = chunkRowNum;
+        tasks.add(pool.submit(new Callable<List<T>>() {
+            @Override
+            public List<T> call() {
+                final List<T> objects = new ArrayList<T>(documents.size());
+                for (int i = 0; i < documents.size(); ++i) {
+                    objects.add(mapper.mapCursor(documents.get(i), firstRowNum + i));
+                }
+                return objects;
+            }
+        }));
+        chunk = new ArrayList<DBObject>(CHUNK_SIZE);
+    }
+}
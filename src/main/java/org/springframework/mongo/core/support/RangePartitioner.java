@@ -0,0 +1,239 @@
+package org.springframework.mongo.core.support;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+import com.mongodb.ReadPreference;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.mongo.support.MongoUtil.ID;
+
+/**
+ * Splits the query into the ranges of the split key values, so that each range contains approximately
+ * the same number of documents. Split points are chosen from the random sample of the matching documents.
+ * Range operators match the values of the same type only, so the documents, which split key is missing or
+ * is of the other type than the split points, are included into the first partition.
+ *
+ * @author Alexander Shabanov
+ */
+final class RangePartitioner {
+    static final Comparator<Object> VALUE_COMPARATOR = new Comparator<Object>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public int compare(Object left, Object right) {
+            if (left instanceof Number && right instanceof Number) {
+                // mongo compares numbers of different types by value
+                if (isIntegral(left) && isIntegral(right)) {
+                    return Long.compare(((Number) left).longValue(), ((Number) right).longValue());
+                }
+                return Double.compare(((Number) left).doubleValue(), ((Number) right).doubleValue());
+            }
+            return ((Comparable<Object>) left).compareTo(right);
+        }
+    };
+
+    private RangePartitioner() {
+    }
+
+    /**
+     * @param readPreference Read preference of the sampling queries
+     * @return Range queries, ordered by the split key values
+     */
+    static List<DBObject> partition(DBCollection collection, DBObject query, String splitKey, int partitions,
+                                    int samplesPerPartition, ReadPreference readPreference) {
+        if (partitions == 1) {
+            return Collections.singletonList(query);
+        }
+        return rangeQueries(query, splitKey,
+                sampleSplitPoints(collection, query, splitKey, partitions, samplesPerPartition, readPreference));
+    }
+
+    static List<Object> sampleSplitPoints(DBCollection collection, DBObject query, String splitKey, int partitions,
+                                          int samplesPerPartition, ReadPreference readPreference) {
+        final List<Object> samples = new ArrayList<Object>();
+        try {
+            final List<DBObject> pipeline = Arrays.<DBObject>asList(
+                    new BasicDBObject("$match", query),
+                    new BasicDBObject("$sample", new BasicDBObject("size", partitions * samplesPerPartition)),
+                    new BasicDBObject("$project", new BasicDBObject(splitKey, 1)));
+            for (final DBObject document : collection.aggregate(pipeline, readPreference).results()) {
+                samples.add(getValue(document, splitKey));
+            }
+        } catch (MongoException e) {
+            // $sample is supported since mongo 3.2, probe evenly spaced positions in the index instead
+            return probeSplitPoints(collection, query, splitKey, partitions, readPreference);
+        }
+        return selectSplitPoints(samples, partitions);
+    }
+
+    static List<Object> selectSplitPoints(List<Object> samples, int partitions) {
+        final List<Object> values = new ArrayList<Object>(samples.size());
+        for (final Object sample : samples) {
+            if (sample != null) {
+                values.add(sample);
+            }
+        }
+
+        try {
+            Collections.sort(values, VALUE_COMPARATOR);
+        } catch (ClassCastException e) {
+            throw new IllegalArgumentException("Split key values should be of the same comparable type", e);
+        }
+
+        final List<Object> splitPoints = new ArrayList<Object>(partitions - 1);
+        for (int i = 1; i < partitions && !values.isEmpty(); ++i) {
+            final Object splitPoint = values.get((int) ((long) values.size() * i / partitions));
+            if (splitPoints.isEmpty() ||
+                    VALUE_COMPARATOR.compare(splitPoints.get(splitPoints.size() - 1), splitPoint) != 0) {
+                splitPoints.add(splitPoint);
+            }
+        }
+        return splitPoints;
+    }
+
+    static List<DBObject> rangeQueries(DBObject query, String splitKey, List<Object> splitPoints) {
+        if (splitPoints.isEmpty()) {
+            return Collections.singletonList(query);
+        }
+        final List<Integer> types = getBsonTypes(splitPoints.get(0));
+        if (types == null) {
+            // documents of the other types can't be matched, so the query is not split
+            return Collections.singletonList(query);
+        }
+
+        final List<DBObject> result = new ArrayList<DBObject>(splitPoints.size() + 1);
+        for (int i = 0; i <= splitPoints.size(); ++i) {
+            final BasicDBObject range = new BasicDBObject();
+            if (i > 0) {
+                range.append("$gte", splitPoints.get(i - 1));
+            }
+            if (i < splitPoints.size()) {
+                range.append("$lt", splitPoints.get(i));
+            }
+
+            DBObject rangeQuery = new BasicDBObject(splitKey, range);
+            if (i == 0) {
+                final BasicDBList alternatives = new BasicDBList();
+                alternatives.add(rangeQuery);
+                alternatives.add(otherTypesQuery(splitKey, types));
+                rangeQuery = new BasicDBObject("$or", alternatives);
+            }
+
+            result.add(query.keySet().isEmpty() ? rangeQuery : and(query, rangeQuery));
+        }
+        return result;
+    }
+
+    //
+    // Private
+    //
+
+    /**
+     * Probes split points by skipping the equal number of index entries from the previous split point,
+     * so that the whole index range is scanned once.
+     */
+    private static List<Object> probeSplitPoints(DBCollection collection, DBObject query, String splitKey,
+                                                 int partitions, ReadPreference readPreference) {
+        final DBObject presentQuery = and(query, new BasicDBObject(splitKey, new BasicDBObject("$ne", null)));
+        final long step = collection.count(presentQuery, readPreference) / partitions;
+        final List<Object> splitPoints = new ArrayList<Object>(partitions - 1);
+        if (step == 0) {
+            return splitPoints;
+        }
+
+        final BasicDBObject fields = new BasicDBObject(splitKey, 1);
+        if (!ID.equals(splitKey)) {
+            fields.put(ID, 0); // allows covered index scan
+        }
+        Object splitPoint = null;
+        for (int i = 1; i < partitions; ++i) {
+            final DBObject probeQuery = splitPoint == null ? presentQuery :
+                    and(presentQuery, new BasicDBObject(splitKey, new BasicDBObject("$gt", splitPoint)));
+
+            final DBCursor cursor = collection.find(probeQuery, fields)
+                    .sort(new BasicDBObject(splitKey, 1))
+                    .skip((int) (splitPoint != null ? step - 1 : step))
+                    .limit(1)
+                    .setReadPreference(readPreference);
+            try {
+                if (!cursor.hasNext()) {
+                    break;
+                }
+                splitPoint = getValue(cursor.next(), splitKey);
+                if (splitPoint == null) {
+                    break; // split key is not a field of the embedded document
+                }
+                splitPoints.add(splitPoint);
+            } finally {
+                cursor.close();
+            }
+        }
+        return splitPoints;
+    }
+
+    private static DBObject and(DBObject left, DBObject right) {
+        final BasicDBList conditions = new BasicDBList();
+        conditions.add(left);
+        conditions.add(right);
+        return new BasicDBObject("$and", conditions);
+    }
+
+    private static DBObject otherTypesQuery(String splitKey, List<Integer> types) {
+        if (types.size() == 1) {
+            return new BasicDBObject(splitKey, new BasicDBObject("$not", new BasicDBObject("$type", types.get(0))));
+        }
+
+        final BasicDBList conditions = new BasicDBList();
+        for (final Integer type : types) {
+            conditions.add(new BasicDBObject(splitKey, new BasicDBObject("$not", new BasicDBObject("$type", type))));
+        }
+        return new BasicDBObject("$and", conditions);
+    }
+
+    /**
+     * @return BSON types, which values are compared with the given value by the range operators, or null if unknown
+     */
+    private static List<Integer> getBsonTypes(Object value) {
+        if (value instanceof Number) {
+            return Arrays.asList(1, 16, 18); // double, int32, int64
+        } else if (value instanceof String) {
+            return Collections.singletonList(2);
+        } else if (value instanceof UUID || value instanceof Binary || value instanceof byte[]) {
+            return Collections.singletonList(5);
+        } else if (value instanceof ObjectId) {
+            return Collections.singletonList(7);
+        } else if (value instanceof Boolean) {
+            return Collections.singletonList(8);
+        } else if (value instanceof Date) {
+            return Collections.singletonList(9);
+        }
+        return null;
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+    }
+
+    private static Object getValue(DBObject document, String path) {
+        Object value = document;
+        for (final String key : path.split("\\.")) {
+            if (!(value instanceof DBObject)) {
+                return null;
+            }
+            value = ((DBObject) value).get(key);
+        }
+        return value;
+    }
+}
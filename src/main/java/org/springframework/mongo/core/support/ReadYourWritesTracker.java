@@ -0,0 +1,48 @@
+package org.springframework.mongo.core.support;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the time of the last write, performed by each thread, so that the reads of this thread could be
+ * routed to the primary for a while and see the written data regardless of the replication lag.
+ *
+ * @author Alexander Shabanov
+ */
+final class ReadYourWritesTracker {
+    private final ThreadLocal<Long> lastWriteNanos = new ThreadLocal<Long>();
+    private volatile long windowNanos;
+
+    long getWindowNanos() {
+        return windowNanos;
+    }
+
+    void setWindow(long window, TimeUnit unit) {
+        this.windowNanos = unit.toNanos(window);
+    }
+
+    void onWrite() {
+        if (windowNanos > 0) {
+            lastWriteNanos.set(System.nanoTime());
+        }
+    }
+
+    /**
+     * @return True, if the current thread has performed write within the window
+     */
+    boolean isPinned() {
+        final long window = windowNanos;
+        if (window <= 0) {
+            return false;
+        }
+
+        final Long writeNanos = lastWriteNanos.get();
+        if (writeNanos == null) {
+            return false;
+        }
+        if (System.nanoTime() - writeNanos < window) {
+            return true;
+        }
+        lastWriteNanos.remove(); // window has passed
+        return false;
+    }
+}
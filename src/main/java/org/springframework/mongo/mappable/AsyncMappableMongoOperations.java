@@ -0,0 +1,45 @@
+package org.springframework.mongo.mappable;
+
+import com.mongodb.DBObject;
+import org.springframework.mongo.core.QueryOptions;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Asynchronous counterpart of the {@link MappableMongoOperations}.
+ *
+ * @author Alexander Shabanov
+ * @see org.springframework.mongo.core.AsyncMongoOperations
+ * @see org.springframework.mongo.mappable.support.AsyncMappableMongoTemplate
+ */
+public interface AsyncMappableMongoOperations {
+
+    <T> CompletableFuture<T> execute(Function<MappableMongoOperations, T> callback);
+
+    CompletableFuture<String> insert(Object object);
+
+    CompletableFuture<Void> update(Object object);
+
+    CompletableFuture<Integer> remove(Class<?> clazz, String id);
+
+    /**
+     * @see MappableMongoOperations#remove(Class, Object)
+     */
+    CompletableFuture<Integer> remove(Class<?> clazz, Object id);
+
+    <T> CompletableFuture<T> queryById(Class<T> resultClass, String id);
+
+    /**
+     * @see MappableMongoOperations#queryById(Class, Object)
+     */
+    <T> CompletableFuture<T> queryById(Class<T> resultClass, Object id);
+
+    <T> CompletableFuture<List<T>> query(Class<T> resultClass, DBObject query);
+
+    <T> CompletableFuture<List<T>> query(Class<T> resultClass, DBObject query, DBObject orderBy,
+                                         QueryOptions options);
+
+    <T> CompletableFuture<T> queryForObject(Class<T> resultClass, DBObject query);
+}
@@ -0,0 +1,58 @@
+package org.springframework.mongo.mappable;
+
+import com.mongodb.DBObject;
+import org.springframework.mongo.core.BulkResult;
+
+/**
+ * Queue of write operations on the mappable objects of one class, that are sent to the server in batches
+ * on {@link #execute()}. Instances are not thread safe and are not reusable after execution.
+ *
+ * @author Alexander Shabanov
+ * @see org.springframework.mongo.core.BulkOperations
+ */
+public interface MappableBulkOperations<T> {
+
+    MappableBulkOperations<T> insert(T object);
+
+    /**
+     * Queues replacement of the stored object with the given one, matched by its id.
+     *
+     * @param object Object to be updated
+     * @return This instance
+     */
+    MappableBulkOperations<T> update(T object);
+
+    /**
+     * Queues replacement of the stored object with the given one, that inserts the object if it is not stored yet.
+     *
+     * @param object Object with id to be upserted
+     * @return This instance
+     */
+    MappableBulkOperations<T> upsert(T object);
+
+    MappableBulkOperations<T> updateOne(DBObject query, DBObject update);
+
+    MappableBulkOperations<T> updateMulti(DBObject query, DBObject update);
+
+    MappableBulkOperations<T> upsert(DBObject query, DBObject update);
+
+    /**
+     * @param id String representation of the id, e.g. hex string of the {@link org.bson.types.ObjectId}
+     * @return This instance
+     */
+    MappableBulkOperations<T> remove(String id);
+
+    /**
+     * @param id Value of the id field, e.g. long or {@link java.util.UUID}
+     * @return This instance
+     */
+    MappableBulkOperations<T> remove(Object id);
+
+    MappableBulkOperations<T> removeOne(DBObject query);
+
+    MappableBulkOperations<T> remove(DBObject query);
+
+    int size();
+
+    BulkResult execute();
+}
@@ -0,0 +1,18 @@
+package org.springframework.mongo.mappable;
+
+/**
+ * An interface used by {@link MappableMongoOperations} for processing mapped query results one by one,
+ * without collecting them into the list.
+ *
+ * @param <T> Type of the mappable object.
+ * @author Alexander Shabanov
+ */
+public interface MappableCallbackHandler<T> {
+
+    /**
+     * Processes the mapped object for the current row.
+     *
+     * @param object Mapped object
+     */
+    void processObject(T object);
+}
@@ -1,9 +1,16 @@
 package org.springframework.mongo.mappable;
 
 import com.mongodb.DBObject;
+import com.mongodb.WriteConcern;
 import org.springframework.core.convert.converter.Converter;
+import org.springframework.mongo.core.AggregateOptions;
+import org.springframework.mongo.core.CloseableIterator;
+import org.springframework.mongo.core.ParallelQueryOptions;
+import org.springframework.mongo.core.PartitionCallbackHandler;
+import org.springframework.mongo.core.QueryOptions;
 import org.springframework.mongo.mappable.object.MappableClassLayout;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -28,22 +35,148 @@ public interface MappableMongoOperations {
 
     String insert(Object object);
 
+    String insert(Object object, WriteConcern writeConcern);
+
+    /**
+     * Inserts the given mappable objects in batches, see {@link org.springframework.mongo.core.MongoOperations#insert(String, List)}.
+     *
+     * @param objects Objects to be inserted, may belong to the different mappable classes
+     * @return Identifiers of the inserted objects in the input order
+     */
+    List<String> insertAll(Collection<?> objects);
+
+    List<String> insertAll(Collection<?> objects, WriteConcern writeConcern);
+
     void update(Object object);
 
+    void update(Object object, WriteConcern writeConcern);
+
+    /**
+     * Updates only the fields of the given object, changed since it was loaded by this instance,
+     * using {@code $set} and {@code $unset} operators. Falls back to {@link #update(Object)} if the object
+     * was not loaded or its class is not tracked.
+     *
+     * @param object Object to be updated
+     * @return False if the object has not been changed and no update was sent, true otherwise
+     */
+    boolean updateChanged(Object object);
+
+    /**
+     * Updates only the fields of the given object that differ from the original one.
+     *
+     * @param object Object to be updated
+     * @param original Object in the state, persisted in the database
+     * @return False if the objects are equal and no update was sent, true otherwise
+     */
+    boolean updateChanged(Object object, Object original);
+
+    /**
+     * Creates queue of the write operations on the objects of the given class.
+     *
+     * @param clazz Mappable class
+     * @param ordered True, if operations should be applied in the queue order and stop on the first error
+     * @param <T> Type of the mappable objects
+     * @return Bulk operations
+     * @see org.springframework.mongo.core.MongoOperations#bulkOps(String, boolean)
+     */
+    <T> MappableBulkOperations<T> bulkOps(Class<T> clazz, boolean ordered);
+
+    <T> MappableBulkOperations<T> bulkOps(Class<T> clazz, boolean ordered, WriteConcern writeConcern);
+
     int remove(Class<?> clazz, String id);
 
+    /**
+     * Removes the object with the given id, converted just like the id field of the mappable class,
+     * e.g. {@link org.bson.types.ObjectId}, long or {@link java.util.UUID}.
+     *
+     * @param clazz Mappable class
+     * @param id Id of the object
+     * @return Number of the removed objects
+     */
+    int remove(Class<?> clazz, Object id);
+
     int remove(Class<?> clazz, String fieldName, Object value);
 
     int remove(Class<?> clazz, DBObject object);
 
+    int remove(Class<?> clazz, DBObject object, WriteConcern writeConcern);
+
+    long count(Class<?> clazz, DBObject query);
+
+    boolean exists(Class<?> clazz, DBObject query);
+
+    /**
+     * @param clazz Mappable class
+     * @param fieldName Name of the java field, elements are returned for the collection fields
+     * @param valueClass Class of the field values or the collection elements
+     * @param query Query object or null
+     * @param <V> Type of the values
+     * @return Unmodifiable list of the distinct values, converted just like the fields of the mapped objects
+     * @see org.springframework.mongo.core.MongoOperations#distinct(String, String, Class, DBObject)
+     */
+    <V> List<V> distinct(Class<?> clazz, String fieldName, Class<V> valueClass, DBObject query);
+
     <T> T queryById(Class<T> resultClass, String id);
 
+    /**
+     * @param resultClass Mappable class
+     * @param id Id of the object, converted just like the id field of the mappable class, e.g.
+     *           {@link org.bson.types.ObjectId}, long or {@link java.util.UUID}
+     * @param <T> Type of the mappable object
+     * @return Object with the given id
+     */
+    <T> T queryById(Class<T> resultClass, Object id);
+
     <T> List<T> query(Class<T> resultClass, DBObject query);
 
     <T> List<T> query(Class<T> resultClass, DBObject query, DBObject orderBy);
 
+    <T> List<T> query(Class<T> resultClass, DBObject query, DBObject orderBy, QueryOptions options);
+
     <T> List<T> query(Class<T> resultClass, String key, Object value);
 
+    <T> void query(Class<T> resultClass, DBObject query, DBObject orderBy, MappableCallbackHandler<T> callbackHandler);
+
+    <T> void query(Class<T> resultClass, DBObject query, DBObject orderBy, QueryOptions options,
+                   MappableCallbackHandler<T> callbackHandler);
+
+    /**
+     * Queries the objects, scanning ranges of the split key values concurrently, see
+     * {@link org.springframework.mongo.core.MongoOperations#parallelQuery(String, org.springframework.mongo.core.CursorMapper, DBObject, DBObject, ParallelQueryOptions)}.
+     *
+     * @param resultClass Mappable class
+     * @param query Query object
+     * @param options Parallel query options
+     * @param <T> Type of the mappable objects
+     * @return Unmodifiable list of the objects, ordered by the split key
+     */
+    <T> List<T> parallelQuery(Class<T> resultClass, DBObject query, ParallelQueryOptions options);
+
+    <T> void parallelQuery(Class<T> resultClass, DBObject query, ParallelQueryOptions options,
+                           PartitionCallbackHandler<T> callbackHandler);
+
+    /**
+     * Runs the aggregation pipeline on the collection of the input class and maps the result documents
+     * to the result class, see
+     * {@link org.springframework.mongo.core.MongoOperations#aggregate(String, org.springframework.mongo.core.CursorMapper, List, AggregateOptions)}.
+     *
+     * @param inputClass Mappable class of the aggregated objects
+     * @param resultClass Mappable class of the results, e.g. a rollup class with the grouped fields
+     * @param pipeline Pipeline stages
+     * @param options Aggregation options or null
+     * @param <T> Type of the results
+     * @return Unmodifiable list of the results
+     */
+    <T> List<T> aggregate(Class<?> inputClass, Class<T> resultClass, List<DBObject> pipeline,
+                          AggregateOptions options);
+
+    <T> void aggregate(Class<?> inputClass, Class<T> resultClass, List<DBObject> pipeline, AggregateOptions options,
+                       MappableCallbackHandler<T> callbackHandler);
+
+    <T> CloseableIterator<T> iterate(Class<T> resultClass, DBObject query, DBObject orderBy);
+
+    <T> CloseableIterator<T> iterate(Class<T> resultClass, DBObject query, DBObject orderBy, QueryOptions options);
+
     <T> T queryForObject(Class<T> resultClass, String key, Object value);
 
     <T> T queryForObject(Class<T> resultClass, DBObject queryObject);
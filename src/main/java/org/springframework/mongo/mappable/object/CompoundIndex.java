@@ -0,0 +1,42 @@
+package org.springframework.mongo.mappable.object;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares compound index on the collection of the mappable class. Declared indexes are created
+ * by {@link org.springframework.mongo.mappable.support.MappableMongoTemplate#init()}.
+ *
+ * <p>Sample usage:
+ * <pre>
+ * &#64;CompoundIndex(fields = {"lastName", "-created"}, unique = true)
+ * public final class Profile extends DomainModel { ... }
+ * </pre>
+ *
+ * @author Alexander Shabanov
+ * @see Indexed
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Repeatable(CompoundIndexes.class)
+public @interface CompoundIndex {
+
+    /**
+     * @return Names of the java fields in the index order, names prefixed with '-' denote descending keys
+     */
+    String[] fields();
+
+    /**
+     * @return Name of the index, empty name means the name generated from the keys
+     */
+    String name() default "";
+
+    boolean unique() default false;
+
+    boolean sparse() default false;
+}
@@ -0,0 +1,19 @@
+package org.springframework.mongo.mappable.object;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Container of the repeated {@link CompoundIndex} annotations.
+ *
+ * @author Alexander Shabanov
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface CompoundIndexes {
+    CompoundIndex[] value();
+}
@@ -0,0 +1,40 @@
+package org.springframework.mongo.mappable.object;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares single field index on the field of the mappable objects. Declared indexes are created
+ * by {@link org.springframework.mongo.mappable.support.MappableMongoTemplate#init()}.
+ *
+ * @author Alexander Shabanov
+ * @see CompoundIndex
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Indexed {
+
+    /**
+     * @return Name of the index, empty name means the name generated from the key
+     */
+    String name() default "";
+
+    /**
+     * @return True for the descending index
+     */
+    boolean descending() default false;
+
+    boolean unique() default false;
+
+    boolean sparse() default false;
+
+    /**
+     * @return Time to live of the documents in seconds, relative to the date value of the field,
+     * negative value means no expiration
+     */
+    long expireAfterSeconds() default -1L;
+}
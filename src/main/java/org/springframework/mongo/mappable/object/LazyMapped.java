@@ -0,0 +1,20 @@
+package org.springframework.mongo.mappable.object;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the collection field of the mappable objects, which elements are mapped on the first access to the
+ * collection rather than when the enclosing object is mapped. The field should be declared as
+ * {@link java.util.List} or {@link java.util.Collection}.
+ *
+ * @author Alexander Shabanov
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface LazyMapped {
+}
@@ -1,7 +1,13 @@
 package org.springframework.mongo.mappable.object;
 
+import com.mongodb.DBDecoderFactory;
 import com.mongodb.DBObject;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
 import org.springframework.mongo.core.CursorMapper;
+import org.springframework.mongo.core.IndexDefinition;
+
+import java.util.List;
 
 /**
  * Internal representation of the class layout
@@ -13,9 +19,64 @@ public interface MappableClassLayout<T> {
 
     DBObject toDBObject(T object);
 
+    /**
+     * @return Projection that includes the mapped fields of this class only, shall not be modified
+     */
+    DBObject getFields();
+
     CursorMapper<T> getCursorMapper();
 
+    /**
+     * @return Factory of the decoders, that read documents straight into the instances of this class, returned
+     * by the cursor mapper, or null if the cursor mapper can't map such documents
+     */
+    DBDecoderFactory getDecoderFactory();
+
+    /**
+     * @param fieldName Name of the java field
+     * @return Name of the document field
+     */
+    String getMongoName(String fieldName);
+
+    /**
+     * Converts the value of the document field, the values of the collection fields are converted as the elements
+     * of the collection, just as they are returned by distinct.
+     *
+     * @param fieldName Name of the java field
+     * @param mongoValue Value of the document field
+     * @return Java value
+     */
+    Object toJavaValue(String fieldName, Object mongoValue);
+
+    /**
+     * @return Unmodifiable list of the indexes, declared by the {@link Indexed} and {@link CompoundIndex} annotations
+     * on this class and its mappable superclasses
+     */
+    List<IndexDefinition> getIndexes();
+
+    /**
+     * @return Write concern, registered for this class or null, if the default one should be used
+     */
+    WriteConcern getWriteConcern();
+
+    /**
+     * @return Read preference, registered for this class or null, if the default one should be used
+     */
+    ReadPreference getReadPreference();
+
     Object getMongoId(T object);
 
+    /**
+     * @param id Value of the java id field, e.g. string representation of the {@link org.bson.types.ObjectId},
+     *           {@link org.bson.types.ObjectId}, long or {@link java.util.UUID}
+     * @return Value of the {@code _id} field
+     */
+    Object toMongoId(Object id);
+
     boolean hasMongoId();
+
+    /**
+     * @return Type of the java id field or null if the class has no id field
+     */
+    Class<?> getMongoIdType();
 }
@@ -0,0 +1,202 @@
+package org.springframework.mongo.mappable.support;
+
+import com.mongodb.DBObject;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.mongo.core.QueryOptions;
+import org.springframework.mongo.core.support.AsyncMongoTemplate;
+import org.springframework.mongo.mappable.AsyncMappableMongoOperations;
+import org.springframework.mongo.mappable.MappableMongoOperations;
+import org.springframework.mongo.support.AsyncUtil.ExecutorHolder;
+import org.springframework.util.Assert;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Default implementation of the {@link AsyncMappableMongoOperations}, that delegates to the synchronous
+ * mappable mongo operations. Executor settings are the same as in {@link AsyncMongoTemplate}.
+ *
+ * @author Alexander Shabanov
+ */
+public final class AsyncMappableMongoTemplate implements AsyncMappableMongoOperations {
+
+    private MappableMongoOperations mappableMongoOperations;
+
+    private final ExecutorHolder executorHolder = new ExecutorHolder();
+
+    public MappableMongoOperations getMappableMongoOperations() {
+        return mappableMongoOperations;
+    }
+
+    public void setMappableMongoOperations(MappableMongoOperations mappableMongoOperations) {
+        this.mappableMongoOperations = mappableMongoOperations;
+    }
+
+    public Executor getExecutor() {
+        return executorHolder.getExecutor();
+    }
+
+    /**
+     * @param executor Executor for the mongo operations, that is not shut down by this instance
+     */
+    public void setExecutor(Executor executor) {
+        executorHolder.setExecutor(executor);
+    }
+
+    public int getPoolSize() {
+        return executorHolder.getPoolSize();
+    }
+
+    /**
+     * @param poolSize Maximum number of the concurrently running operations
+     */
+    public void setPoolSize(int poolSize) {
+        executorHolder.setPoolSize(poolSize);
+    }
+
+    public int getQueueCapacity() {
+        return executorHolder.getQueueCapacity();
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        executorHolder.setQueueCapacity(queueCapacity);
+    }
+
+    public boolean isVirtualThreadsEnabled() {
+        return executorHolder.isVirtualThreadsEnabled();
+    }
+
+    public void setVirtualThreadsEnabled(boolean virtualThreadsEnabled) {
+        executorHolder.setVirtualThreadsEnabled(virtualThreadsEnabled);
+    }
+
+    public AsyncMappableMongoTemplate() {
+    }
+
+    public AsyncMappableMongoTemplate(MappableMongoOperations mappableMongoOperations) {
+        this();
+        setMappableMongoOperations(mappableMongoOperations);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (mappableMongoOperations == null) {
+            throw new BeanInitializationException("mappableMongoOperations property was not set");
+        }
+
+        executorHolder.start();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executorHolder.shutdown();
+    }
+
+    @Override
+    public <T> CompletableFuture<T> execute(final Function<MappableMongoOperations, T> callback) {
+        Assert.notNull(callback, "callback can not be null");
+        return executorHolder.submit(new Callable<T>() {
+            @Override
+            public T call() {
+                return callback.apply(mappableMongoOperations);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<String> insert(final Object object) {
+        return execute(new Function<MappableMongoOperations, String>() {
+            @Override
+            public String apply(MappableMongoOperations mmo) {
+                return mmo.insert(object);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> update(final Object object) {
+        return execute(new Function<MappableMongoOperations, Void>() {
+            @Override
+            public Void apply(MappableMongoOperations mmo) {
+                mmo.update(object);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> remove(final Class<?> clazz, final String id) {
+        return execute(new Function<MappableMongoOperations, Integer>() {
+            @Override
+            public Integer apply(MappableMongoOperations mmo) {
+                return mmo.remove(clazz, id);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> remove(final Class<?> clazz, final Object id) {
+        return execute(new Function<MappableMongoOperations, Integer>() {
+            @Override
+            public Integer apply(MappableMongoOperations mmo) {
+                return mmo.remove(clazz, id);
+            }
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<T> queryById(final Class<T> resultClass, final String id) {
+        return execute(new Function<MappableMongoOperations, T>() {
+            @Override
+            public T apply(MappableMongoOperations mmo) {
+                return mmo.queryById(resultClass, id);
+            }
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<T> queryById(final Class<T> resultClass, final Object id) {
+        return execute(new Function<MappableMongoOperations, T>() {
+            @Override
+            public T apply(MappableMongoOperations mmo) {
+                return mmo.queryById(resultClass, id);
+            }
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> query(final Class<T> resultClass, final DBObject query) {
+        return execute(new Function<MappableMongoOperations, List<T>>() {
+            @Override
+            public List<T> apply(MappableMongoOperations mmo) {
+                return mmo.query(resultClass, query);
+            }
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> query(final Class<T> resultClass, final DBObject query,
+                                                final DBObject orderBy, final QueryOptions options) {
+        return execute(new Function<MappableMongoOperations, List<T>>() {
+            @Override
+            public List<T> apply(MappableMongoOperations mmo) {
+                return mmo.query(resultClass, query, orderBy, options);
+            }
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<T> queryForObject(final Class<T> resultClass, final DBObject query) {
+        return execute(new Function<MappableMongoOperations, T>() {
+            @Override
+            public T apply(MappableMongoOperations mmo) {
+                return mmo.queryForObject(resultClass, query);
+            }
+        });
+    }
+}
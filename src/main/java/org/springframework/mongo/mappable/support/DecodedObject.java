@@ -0,0 +1,90 @@
+package org.springframework.mongo.mappable.support;
+
+import com.mongodb.DBObject;
+import org.bson.BSONObject;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Document, returned by the {@link MappableObjectDecoder}: holds the mappable object, decoded straight from BSON,
+ * and has no fields of its own.
+ *
+ * @author Alexander Shabanov
+ */
+final class DecodedObject implements DBObject {
+    private final Object object;
+    private boolean partialObject;
+
+    DecodedObject(Object object) {
+        this.object = object;
+    }
+
+    Object getObject() {
+        return object;
+    }
+
+    @Override
+    public void markAsPartialObject() {
+        partialObject = true;
+    }
+
+    @Override
+    public boolean isPartialObject() {
+        return partialObject;
+    }
+
+    @Override
+    public Object put(String key, Object v) {
+        throw new UnsupportedOperationException("Decoded object is read only");
+    }
+
+    @Override
+    public void putAll(BSONObject o) {
+        throw new UnsupportedOperationException("Decoded object is read only");
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void putAll(Map m) {
+        throw new UnsupportedOperationException("Decoded object is read only");
+    }
+
+    @Override
+    public Object get(String key) {
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Map toMap() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Object removeField(String key) {
+        throw new UnsupportedOperationException("Decoded object is read only");
+    }
+
+    @Override
+    @Deprecated
+    public boolean containsKey(String s) {
+        return false;
+    }
+
+    @Override
+    public boolean containsField(String s) {
+        return false;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public String toString() {
+        return "DecodedObject{" + object + '}';
+    }
+}
@@ -0,0 +1,118 @@
+package org.springframework.mongo.mappable.support;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.mongo.core.BulkOperations;
+import org.springframework.mongo.core.BulkResult;
+import org.springframework.mongo.mappable.MappableBulkOperations;
+import org.springframework.mongo.mappable.object.MappableClassLayout;
+import org.springframework.util.Assert;
+
+import static org.springframework.mongo.support.MongoUtil.ID;
+
+/**
+ * Mappable bulk operations, that serialize objects and delegate to the core bulk operations.
+ * Entity cache of the class, if any, is cleared after execution.
+ *
+ * @author Alexander Shabanov
+ */
+final class DefaultMappableBulkOperations<T> implements MappableBulkOperations<T> {
+    private final MappableClassLayout<T> classLayout;
+    private final BulkOperations bulkOperations;
+    private final EntityCache entityCache;
+
+    DefaultMappableBulkOperations(MappableClassLayout<T> classLayout, BulkOperations bulkOperations,
+                                  EntityCache entityCache) {
+        this.classLayout = classLayout;
+        this.bulkOperations = bulkOperations;
+        this.entityCache = entityCache;
+    }
+
+    @Override
+    public MappableBulkOperations<T> insert(T object) {
+        Assert.notNull(object, "object can not be null");
+        bulkOperations.insert(MappableMongoTemplate.toInsertedDBObject(classLayout, object));
+        return this;
+    }
+
+    @Override
+    public MappableBulkOperations<T> update(T object) {
+        bulkOperations.updateOne(idQuery(object), classLayout.toDBObject(object));
+        return this;
+    }
+
+    @Override
+    public MappableBulkOperations<T> upsert(T object) {
+        bulkOperations.upsert(idQuery(object), classLayout.toDBObject(object));
+        return this;
+    }
+
+    @Override
+    public MappableBulkOperations<T> updateOne(DBObject query, DBObject update) {
+        bulkOperations.updateOne(query, update);
+        return this;
+    }
+
+    @Override
+    public MappableBulkOperations<T> updateMulti(DBObject query, DBObject update) {
+        bulkOperations.updateMulti(query, update);
+        return this;
+    }
+
+    @Override
+    public MappableBulkOperations<T> upsert(DBObject query, DBObject update) {
+        bulkOperations.upsert(query, update);
+        return this;
+    }
+
+    @Override
+    public MappableBulkOperations<T> remove(String id) {
+        return remove((Object) id);
+    }
+
+    @Override
+    public MappableBulkOperations<T> remove(Object id) {
+        Assert.notNull(id, "id can not be null");
+        bulkOperations.removeOne(new BasicDBObject(ID, classLayout.toMongoId(id)));
+        return this;
+    }
+
+    @Override
+    public MappableBulkOperations<T> removeOne(DBObject query) {
+        bulkOperations.removeOne(query);
+        return this;
+    }
+
+    @Override
+    public MappableBulkOperations<T> remove(DBObject query) {
+        bulkOperations.remove(query);
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return bulkOperations.size();
+    }
+
+    @Override
+    public BulkResult execute() {
+        try {
+            return bulkOperations.execute();
+        } finally {
+            if (entityCache != null) {
+                entityCache.invalidateAll();
+            }
+        }
+    }
+
+    private DBObject idQuery(T object) {
+        Assert.notNull(object, "object can not be null");
+        if (!classLayout.hasMongoId()) {
+            throw new IncorrectUpdateSemanticsDataAccessException("It is not possible to update object without inner ID");
+        }
+        final Object id = classLayout.getMongoId(object);
+        Assert.notNull(id, "object id can not be null");
+        return new BasicDBObject(ID, id);
+    }
+}
@@ -0,0 +1,75 @@
+package org.springframework.mongo.mappable.support;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+import java.util.List;
+
+/**
+ * Builds update operators, that turn the original document into the current one.
+ * Embedded documents are compared field by field, so that only the changed paths are set,
+ * lists and other values are replaced as a whole. Null and absent fields are considered equal,
+ * fields that became null are unset.
+ *
+ * @author Alexander Shabanov
+ */
+final class DocumentDiff {
+    private static final String SET = "$set";
+    private static final String UNSET = "$unset";
+
+    private DocumentDiff() {
+    }
+
+    /**
+     * @param original Original document
+     * @param current Current document
+     * @return Update object with {@code $set} and {@code $unset} operators or null if documents are equal
+     */
+    static DBObject diff(DBObject original, DBObject current) {
+        final BasicDBObject set = new BasicDBObject();
+        final BasicDBObject unset = new BasicDBObject();
+        diff("", original, current, set, unset);
+
+        if (set.isEmpty() && unset.isEmpty()) {
+            return null;
+        }
+
+        final BasicDBObject update = new BasicDBObject();
+        if (!set.isEmpty()) {
+            update.append(SET, set);
+        }
+        if (!unset.isEmpty()) {
+            update.append(UNSET, unset);
+        }
+        return update;
+    }
+
+    private static void diff(String prefix, DBObject original, DBObject current, BasicDBObject set,
+                             BasicDBObject unset) {
+        for (final String key : current.keySet()) {
+            final Object currentValue = current.get(key);
+            final Object originalValue = original.get(key);
+            final String path = prefix + key;
+
+            if (currentValue == null) {
+                if (originalValue != null) {
+                    unset.append(path, 1);
+                }
+            } else if (isEmbeddedDocument(currentValue) && isEmbeddedDocument(originalValue)) {
+                diff(path + ".", (DBObject) originalValue, (DBObject) currentValue, set, unset);
+            } else if (!currentValue.equals(originalValue)) {
+                set.append(path, currentValue);
+            }
+        }
+
+        for (final String key : original.keySet()) {
+            if (!current.containsField(key) && original.get(key) != null) {
+                unset.append(prefix + key, 1);
+            }
+        }
+    }
+
+    private static boolean isEmbeddedDocument(Object value) {
+        return value instanceof DBObject && !(value instanceof List);
+    }
+}
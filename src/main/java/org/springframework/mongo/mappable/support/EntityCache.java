@@ -0,0 +1,101 @@
+package org.springframework.mongo.mappable.support;
+
+import com.mongodb.DBObject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size bounded LRU cache of the documents, found by their ids, with per entry time to live.
+ * Documents rather than mapped objects are cached, so each hit is mapped to the new object that the caller
+ * is free to modify. Mapped objects share mutable values with their documents, so the cached documents
+ * should be copied by the caller.
+ * Invalidation increments the cache generation, documents read from the database are put to the cache only
+ * if no invalidation happened since the lookup, which prevents caching of the document that is being updated
+ * concurrently.
+ *
+ * @author Alexander Shabanov
+ */
+final class EntityCache {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+    private long generation;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    EntityCache(final int maxSize, long ttlNanos) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlNanos;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > EntityCache.this.maxSize) {
+                    ++evictionCount;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param id Document id
+     * @return Cached document or null if there is no such document or it is expired
+     */
+    synchronized DBObject get(String id) {
+        final Entry entry = entries.get(id);
+        if (entry == null) {
+            ++missCount;
+            return null;
+        }
+
+        if (System.nanoTime() - entry.createdNanos > ttlNanos) {
+            entries.remove(id);
+            ++evictionCount;
+            ++missCount;
+            return null;
+        }
+
+        ++hitCount;
+        return entry.document;
+    }
+
+    /**
+     * @return Current generation, that should be obtained before reading the document from the database
+     */
+    synchronized long getGeneration() {
+        return generation;
+    }
+
+    synchronized void put(String id, DBObject document, long lookupGeneration) {
+        if (lookupGeneration == generation) {
+            entries.put(id, new Entry(document, System.nanoTime()));
+        }
+    }
+
+    synchronized void invalidate(String id) {
+        ++generation;
+        entries.remove(id);
+    }
+
+    synchronized void invalidateAll() {
+        ++generation;
+        entries.clear();
+    }
+
+    synchronized EntityCacheStats getStats() {
+        return new EntityCacheStats(hitCount, missCount, evictionCount, entries.size());
+    }
+
+    private static final class Entry {
+        final DBObject document;
+        final long createdNanos;
+
+        Entry(DBObject document, long createdNanos) {
+            this.document = document;
+            this.createdNanos = createdNanos;
+        }
+    }
+}
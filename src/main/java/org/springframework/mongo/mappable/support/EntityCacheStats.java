@@ -0,0 +1,49 @@
+package org.springframework.mongo.mappable.support;
+
+/**
+ * Snapshot of the entity cache statistics of one mappable class.
+ *
+ * @author Alexander Shabanov
+ * @see MappableMongoTemplate#setEntityCache(Class, int, long, java.util.concurrent.TimeUnit)
+ */
+public final class EntityCacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int size;
+
+    public EntityCacheStats(long hitCount, long missCount, long evictionCount, int size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return Number of entries, removed because of the size limit or expiration
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return Number of cached entries
+     */
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityCacheStats{hitCount=" + hitCount + ", missCount=" + missCount +
+                ", evictionCount=" + evictionCount + ", size=" + size + '}';
+    }
+}
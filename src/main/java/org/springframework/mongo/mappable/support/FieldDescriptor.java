@@ -15,6 +15,7 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * @author Alexander Shabanov
@@ -29,6 +30,8 @@ final class FieldDescriptor {
     private Field field;
     private Converter<Object, Object> mongoToJavaConverter;
     private Converter<Object, Object> javaToMongoConverter;
+    private Converter<Object, Object> elementConverter;
+    private Class<?> primitiveType;
 
     public FieldDescriptor(Field field, MappableObjectsConfig config) {
         this.field = field;
@@ -43,6 +46,15 @@ final class FieldDescriptor {
             if (fieldType.equals(String.class)) {
                 mongoToJavaConverter = OBJECT_ID_STRING;
                 javaToMongoConverter = STRING_TO_OBJECT_ID;
+            } else if (fieldType.equals(ObjectId.class) || fieldType.equals(UUID.class)) {
+                // stored as is, driver writes UUIDs as binary
+                mongoToJavaConverter = AS_IS;
+                javaToMongoConverter = AS_IS;
+            } else if (fieldType.equals(Long.class)) {
+                mongoToJavaConverter = NUMBER_TO_LONG;
+                javaToMongoConverter = AS_IS;
+            } else if (fieldType.equals(long.class)) {
+                initConvertersForPrimitiveType(fieldType);
             } else {
                 throw new IllegalStateException("Field " + field + " is considered as an id field, " +
                         "but it isn't of any known id type");
@@ -51,6 +63,9 @@ final class FieldDescriptor {
             initConvertersForCollectionType(config);
         } else if (config.getMappableBase().isAssignableFrom(fieldType)) {
             initConvertersForMappableType(config);
+        } else if (fieldType == int.class || fieldType == long.class || fieldType == double.class ||
+                fieldType == boolean.class) {
+            initConvertersForPrimitiveType(fieldType);
         } else if (fieldType.isEnum()) {
             mongoToJavaConverter = new MongoEnumConverter(fieldType);
             javaToMongoConverter = JAVA_ENUM_CONVERTER;
@@ -88,6 +103,48 @@ final class FieldDescriptor {
         return javaToMongoConverter;
     }
 
+    /**
+     * @return One of int, long, double or boolean classes, if the field has this primitive type, null otherwise
+     */
+    public Class<?> getPrimitiveType() {
+        return primitiveType;
+    }
+
+    /**
+     * @return Converter of the single value, that is of the collection element for the collection fields
+     */
+    public Converter<Object, Object> getElementConverter() {
+        return elementConverter != null ? elementConverter : mongoToJavaConverter;
+    }
+
+    /**
+     * @return False, if mongo value is assigned to the java field as is, true otherwise
+     */
+    public boolean hasMongoToJavaConversion() {
+        return mongoToJavaConverter != AS_IS;
+    }
+
+    /**
+     * @return False, if java value is written to the mongo object as is, true otherwise
+     */
+    public boolean hasJavaToMongoConversion() {
+        return javaToMongoConverter != AS_IS;
+    }
+
+    private void initConvertersForPrimitiveType(Class<?> fieldType) {
+        primitiveType = fieldType;
+        if (fieldType == int.class) {
+            mongoToJavaConverter = MONGO_INT;
+        } else if (fieldType == long.class) {
+            mongoToJavaConverter = MONGO_LONG;
+        } else if (fieldType == double.class) {
+            mongoToJavaConverter = MONGO_DOUBLE;
+        } else {
+            mongoToJavaConverter = MONGO_BOOLEAN;
+        }
+        javaToMongoConverter = AS_IS;
+    }
+
     private void initConvertersForMappableType(MappableObjectsConfig config) {
         final Class<?> mappableClass = field.getType();
         mongoToJavaConverter = new MongoMappableObjectConverter(mappableClass, config);
@@ -117,13 +174,28 @@ final class FieldDescriptor {
                 // TODO: test
                 mongoToJavaConverter = AS_IS;
                 javaToMongoConverter = AS_IS;
+                elementConverter = AS_IS;
             } else {
                 throw new IllegalStateException("Unrecognized collection type for field=" + field);
             }
+
+            if (config.isLazyField(field)) {
+                throw new IllegalStateException("Only collections of mappable objects can be lazy, field=" + field);
+            }
+        } else if (config.isLazyField(field)) {
+            if (!field.getType().isAssignableFrom(List.class)) {
+                throw new IllegalStateException("Lazy field should be declared as List or Collection, field=" + field);
+            }
+            mongoToJavaConverter = new MongoLazyCollectionConverter(argClass, config);
+            javaToMongoConverter = new JavaMappableCollectionConverter(argClass, config);
         } else {
             mongoToJavaConverter = new MongoMappableCollectionConverter(argClass, config);
             javaToMongoConverter = new JavaMappableCollectionConverter(argClass, config);
         }
+
+        if (elementConverter == null) {
+            elementConverter = new MongoMappableObjectConverter(argClass, config);
+        }
     }
 
     private static final class MongoMappableObjectConverter implements Converter<Object, Object> {
@@ -194,6 +266,27 @@ final class FieldDescriptor {
         }
     }
 
+    private static final class MongoLazyCollectionConverter implements Converter<Object, Object> {
+        private final Class<?> clazz;
+        private final MappableObjectsConfig config;
+
+        public MongoLazyCollectionConverter(Class<?> clazz, MappableObjectsConfig config) {
+            this.clazz = clazz;
+            this.config = config;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object convert(Object source) {
+            if (source == null) {
+                return null;
+            }
+
+            final MappableClassLayout layout = config.getLayout(clazz);
+            return new LazyMappableList<Object>(layout.getCursorMapper(), (Collection<DBObject>) source);
+        }
+    }
+
     private final class JavaMappableCollectionConverter implements Converter<Object, Object> {
         private final Class<?> clazz;
         private final MappableObjectsConfig config;
@@ -206,6 +299,10 @@ final class FieldDescriptor {
         @Override
         @SuppressWarnings("unchecked")
         public Object convert(Object source) {
+            if (source instanceof LazyMappableList && !((LazyMappableList) source).isMapped()) {
+                return ((LazyMappableList) source).toDBList(); // documents have not been mapped, so not changed
+            }
+
             final MappableClassLayout layout = config.getLayout(clazz);
 
             final Collection javaObjects = (Collection) source;
@@ -252,6 +349,44 @@ final class FieldDescriptor {
         }
     };
 
+    // numbers are stored as the closest bson type, e.g. int32 for small long values written by other clients,
+    // null and missing values are mapped to the default values
+
+    private static final Converter<Object, Object> MONGO_INT = new Converter<Object, Object>() {
+        @Override
+        public Object convert(Object source) {
+            return source != null ? ((Number) source).intValue() : 0;
+        }
+    };
+
+    private static final Converter<Object, Object> MONGO_LONG = new Converter<Object, Object>() {
+        @Override
+        public Object convert(Object source) {
+            return source != null ? ((Number) source).longValue() : 0L;
+        }
+    };
+
+    private static final Converter<Object, Object> MONGO_DOUBLE = new Converter<Object, Object>() {
+        @Override
+        public Object convert(Object source) {
+            return source != null ? ((Number) source).doubleValue() : 0.0;
+        }
+    };
+
+    private static final Converter<Object, Object> MONGO_BOOLEAN = new Converter<Object, Object>() {
+        @Override
+        public Object convert(Object source) {
+            return source != null ? (Boolean) source : Boolean.FALSE;
+        }
+    };
+
+    private static final Converter<Object, Object> NUMBER_TO_LONG = new Converter<Object, Object>() {
+        @Override
+        public Object convert(Object source) {
+            return source != null ? ((Number) source).longValue() : null;
+        }
+    };
+
     private static final Converter<Object, Object> AS_IS = new Converter<Object, Object>() {
         @Override
         public Object convert(Object source) {
@@ -0,0 +1,88 @@
+package org.springframework.mongo.mappable.support;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.DBObject;
+import org.springframework.mongo.core.CursorMapper;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * List of the mappable objects, that retains the embedded documents and maps them on the first access.
+ * Unless accessed, documents are written back as is. Not thread safe, just like the mappable objects.
+ *
+ * @author Alexander Shabanov
+ */
+final class LazyMappableList<T> extends AbstractList<T> {
+    private final CursorMapper<T> mapper;
+    private Collection<DBObject> documents;
+    private List<T> objects;
+
+    LazyMappableList(CursorMapper<T> mapper, Collection<DBObject> documents) {
+        this.mapper = mapper;
+        this.documents = documents;
+    }
+
+    /**
+     * @return True, if the documents have been mapped
+     */
+    boolean isMapped() {
+        return objects != null;
+    }
+
+    /**
+     * @return Copy of the retained documents, should be called only if the documents have not been mapped
+     */
+    BasicDBList toDBList() {
+        final BasicDBList list = new BasicDBList();
+        list.addAll(documents);
+        return list;
+    }
+
+    @Override
+    public T get(int index) {
+        return getObjects().get(index);
+    }
+
+    @Override
+    public int size() {
+        return objects != null ? objects.size() : documents.size();
+    }
+
+    @Override
+    public T set(int index, T element) {
+        return getObjects().set(index, element);
+    }
+
+    @Override
+    public void add(int index, T element) {
+        getObjects().add(index, element);
+        ++modCount;
+    }
+
+    @Override
+    public T remove(int index) {
+        final T removed = getObjects().remove(index);
+        ++modCount;
+        return removed;
+    }
+
+    //
+    // Private
+    //
+
+    private List<T> getObjects() {
+        if (objects == null) {
+            final List<T> result = new ArrayList<T>(documents.size());
+            int row = 0;
+            for (final DBObject document : documents) {
+                result.add(mapper.mapCursor(document, row++));
+            }
+            objects = result;
+            documents = null; // no longer needed
+        }
+        return objects;
+    }
+}
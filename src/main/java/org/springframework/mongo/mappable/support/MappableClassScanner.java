@@ -0,0 +1,111 @@
+package org.springframework.mongo.mappable.support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.type.ClassMetadata;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds concrete descendants of the mappable base class in the given packages.
+ * Class hierarchies are walked through the class file metadata, so only the descendants are loaded.
+ *
+ * @author Alexander Shabanov
+ */
+final class MappableClassScanner {
+    private static final Logger LOG = LoggerFactory.getLogger(MappableClassScanner.class);
+
+    private final ResourcePatternResolver resourceResolver;
+    private final MetadataReaderFactory metadataReaderFactory;
+
+    MappableClassScanner(ClassLoader classLoader) {
+        this.resourceResolver = new PathMatchingResourcePatternResolver(classLoader);
+        this.metadataReaderFactory = new CachingMetadataReaderFactory(resourceResolver);
+    }
+
+    List<Class<?>> scan(Class<?> mappableBase, String... basePackages) {
+        final List<Class<?>> result = new ArrayList<Class<?>>();
+        final Map<String, Boolean> descendants = new HashMap<String, Boolean>();
+        descendants.put(mappableBase.getName(), Boolean.TRUE);
+        for (final String basePackage : basePackages) {
+            final String pattern = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
+                    ClassUtils.convertClassNameToResourcePath(basePackage) + "/**/*.class";
+            try {
+                for (final Resource resource : resourceResolver.getResources(pattern)) {
+                    final ClassMetadata metadata = metadataReaderFactory.getMetadataReader(resource)
+                            .getClassMetadata();
+                    if (!metadata.isConcrete() || metadata.getClassName().equals(mappableBase.getName()) ||
+                            !isDescendant(metadata, descendants)) {
+                        continue;
+                    }
+
+                    final Class<?> clazz = ClassUtils.forName(metadata.getClassName(),
+                            resourceResolver.getClassLoader());
+                    if (mappableBase.isAssignableFrom(clazz)) {
+                        result.add(clazz);
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to scan package " + basePackage, e);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Unable to load mappable class in package " + basePackage, e);
+            } catch (LinkageError e) {
+                throw new IllegalStateException("Unable to load mappable class in package " + basePackage, e);
+            }
+        }
+        return result;
+    }
+
+    //
+    // Private
+    //
+
+    /**
+     * Checks whether the superclass or one of the interfaces leads to the mappable base, results are cached by name.
+     */
+    private boolean isDescendant(ClassMetadata metadata, Map<String, Boolean> descendants) {
+        final List<String> parentNames = new ArrayList<String>();
+        if (metadata.hasSuperClass()) {
+            parentNames.add(metadata.getSuperClassName());
+        }
+        parentNames.addAll(Arrays.asList(metadata.getInterfaceNames()));
+
+        for (final String parentName : parentNames) {
+            if (isDescendant(parentName, descendants)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isDescendant(String className, Map<String, Boolean> descendants) {
+        final Boolean cached = descendants.get(className);
+        if (cached != null) {
+            return cached;
+        }
+
+        boolean result = false;
+        // platform classes can not extend the application classes
+        if (!className.startsWith("java.") && !className.startsWith("javax.")) {
+            try {
+                result = isDescendant(metadataReaderFactory.getMetadataReader(className).getClassMetadata(),
+                        descendants);
+            } catch (IOException e) {
+                LOG.debug("Class file of {} is not readable, treating it as unrelated", className);
+            }
+        }
+        descendants.put(className, result);
+        return result;
+    }
+}
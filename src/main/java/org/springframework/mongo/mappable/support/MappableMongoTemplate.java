@@ -2,22 +2,52 @@ package org.springframework.mongo.mappable.support;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.DB;
+import com.mongodb.DBDecoderFactory;
 import com.mongodb.DBObject;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.BeanInitializationException;
 import org.springframework.core.convert.converter.Converter;
+import org.springframework.dao.support.DataAccessUtils;
 import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.mongo.core.AggregateOptions;
+import org.springframework.mongo.core.CloseableIterator;
+import org.springframework.mongo.core.CursorCallbackHandler;
 import org.springframework.mongo.core.CursorMapper;
+import org.springframework.mongo.core.IndexDefinition;
 import org.springframework.mongo.core.MongoOperations;
+import org.springframework.mongo.core.ParallelQueryOptions;
+import org.springframework.mongo.core.PartitionCallbackHandler;
+import org.springframework.mongo.core.QueryOptions;
 import org.springframework.mongo.core.support.MongoTemplate;
+import org.springframework.mongo.mappable.MappableBulkOperations;
+import org.springframework.mongo.mappable.MappableCallbackHandler;
 import org.springframework.mongo.mappable.MappableMongoOperations;
 import org.springframework.mongo.mappable.object.MappableClassLayout;
+import org.springframework.mongo.metrics.MetricsListener;
 import org.springframework.util.Assert;
 
 import javax.annotation.PostConstruct;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import static org.springframework.mongo.support.MongoUtil.*;
 
@@ -27,6 +57,19 @@ import static org.springframework.mongo.support.MongoUtil.*;
  * @author Alexander Shabanov
  */
 public final class MappableMongoTemplate implements MappableMongoOperations {
+    private static final Logger LOG = LoggerFactory.getLogger(MappableMongoTemplate.class);
+
+    /**
+     * Name of the index, the server creates on the {@code _id} field of each collection
+     */
+    private static final String ID_INDEX_NAME = "_id_";
+
+    private static final CursorMapper<DBObject> DOCUMENT_MAPPER = new CursorMapper<DBObject>() {
+        @Override
+        public DBObject mapCursor(DBObject cursor, int rowNum) {
+            return cursor;
+        }
+    };
 
     private DB db;
 
@@ -48,8 +91,50 @@ public final class MappableMongoTemplate implements MappableMongoOperations {
         this.mo = mongoOperations;
     }
 
+    private MetricsListener metricsListener;
+
+    public MetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    /**
+     * Sets metrics listener for the mongo template, created by this instance if mongo operations are not given.
+     * Mapping time, reported to the listener, includes conversion of the documents to the mappable objects.
+     *
+     * @param metricsListener Metrics listener or null
+     */
+    public void setMetricsListener(MetricsListener metricsListener) {
+        Assert.state(!constructed, "Metrics listener can not be set after construction of this instance");
+        this.metricsListener = metricsListener;
+    }
+
     private MappableObjectsConfig mappableObjectsConfig = new MappableObjectsConfig();
 
+    private final Map<Class<?>, EntityCache> entityCaches = new HashMap<Class<?>, EntityCache>();
+
+    private final List<Class<?>> mappableClasses = new ArrayList<Class<?>>();
+
+    private String[] basePackages = new String[0];
+
+    private final Set<Class<?>> trackedClasses = new HashSet<Class<?>>();
+
+    private final SnapshotRegistry snapshots = new SnapshotRegistry();
+
+    private boolean directDecodingEnabled = false;
+
+    private ReadPreference readPreference;
+
+    private long readYourWritesWindowMillis;
+
+    private boolean indexesEnsured = true;
+
+    private final Set<Class<?>> indexedClasses =
+            Collections.newSetFromMap(new ConcurrentHashMap<Class<?>, Boolean>());
+
+    private boolean backgroundIndexBuild = false;
+
+    private List<String> undeclaredIndexes = Collections.emptyList();
+
     private boolean initialized = false;
     private boolean constructed = false;
 
@@ -98,19 +183,74 @@ public final class MappableMongoTemplate implements MappableMongoOperations {
         setDb(db);
     }
 
+    /**
+     * Sets mappable classes, which layouts and mappers should be built on construction of this instance
+     * rather than on the first use.
+     *
+     * @param mappableClasses Mappable classes
+     */
+    public void setMappableClasses(Collection<Class<?>> mappableClasses) {
+        Assert.state(!constructed, "Mappable classes can not be set after construction of this instance");
+        Assert.notNull(mappableClasses, "mappableClasses can not be null");
+        this.mappableClasses.clear();
+        this.mappableClasses.addAll(mappableClasses);
+    }
+
+    /**
+     * Sets packages, that are scanned on construction of this instance for the descendants of the mappable base.
+     * Layouts and mappers of the found classes are built eagerly, as if they were set as mappable classes.
+     *
+     * @param basePackages Packages to be scanned, including their subpackages
+     */
+    public void setBasePackages(String... basePackages) {
+        Assert.state(!constructed, "Base packages can not be set after construction of this instance");
+        Assert.notNull(basePackages, "basePackages can not be null");
+        this.basePackages = basePackages.clone();
+    }
+
     @PostConstruct
     public void init() {
         Assert.state(initialized, "Mappable base class should be initialized prior to construction");
         constructed = true;
 
+        final List<Class<?>> precompiledClasses = new ArrayList<Class<?>>(mappableClasses);
+        if (basePackages.length > 0) {
+            final Class<?> mappableBase = mappableObjectsConfig.getMappableBase();
+            precompiledClasses.addAll(new MappableClassScanner(mappableBase.getClassLoader())
+                    .scan(mappableBase, basePackages));
+        }
+        try {
+            mappableObjectsConfig.precompile(precompiledClasses);
+        } catch (RuntimeException e) {
+            throw new BeanInitializationException("Unable to build layouts of the mappable classes", e);
+        }
+
+        if (getMongoOperations() != null && (readPreference != null || readYourWritesWindowMillis > 0)) {
+            throw new BeanInitializationException("readPreference and readYourWritesWindow apply to the mongo " +
+                    "template, created by this instance, they should be set on the given mongoOperations instead");
+        }
+
         if (getMongoOperations() == null) {
             // no mongo operations
             if (getDb() != null) {
-                setMongoOperations(new MongoTemplate(getDb()));
+                final MongoTemplate mongoTemplate = new MongoTemplate(getDb());
+                mongoTemplate.setMetricsListener(getMetricsListener());
+                mongoTemplate.setReadPreference(readPreference);
+                mongoTemplate.setReadYourWritesWindow(readYourWritesWindowMillis, TimeUnit.MILLISECONDS);
+                setMongoOperations(mongoTemplate);
             } else {
                 throw new BeanInitializationException("Neither mongOperations nor db property was set");
             }
         }
+
+        if (indexesEnsured) {
+            indexedClasses.addAll(precompiledClasses);
+            try {
+                ensureIndexes(precompiledClasses);
+            } catch (RuntimeException e) {
+                throw new BeanInitializationException("Unable to ensure indexes of the mappable classes", e);
+            }
+        }
     }
 
     @Override
@@ -121,6 +261,198 @@ public final class MappableMongoTemplate implements MappableMongoOperations {
         initialized = true;
     }
 
+    public boolean isCompiledMappersEnabled() {
+        return mappableObjectsConfig.isCompiledMappersEnabled();
+    }
+
+    /**
+     * Chooses between cursor mappers, compiled to method handles once per mappable class (default)
+     * and reflective ones, that set each field through {@link java.lang.reflect.Field#set(Object, Object)}.
+     *
+     * @param compiledMappersEnabled True, if compiled mappers should be used, false otherwise
+     */
+    public void setCompiledMappersEnabled(boolean compiledMappersEnabled) {
+        Assert.state(!constructed, "Mapper mode can not be changed after construction of this instance");
+        mappableObjectsConfig.setCompiledMappersEnabled(compiledMappersEnabled);
+    }
+
+    public boolean isDirectDecodingEnabled() {
+        return directDecodingEnabled;
+    }
+
+    /**
+     * Enables decoding of the queried documents straight into the mappable objects, without building
+     * the intermediate {@link DBObject}s. Unmapped fields of the documents are skipped, embedded documents are still
+     * decoded to the {@link DBObject}s for the field converters. Applies to the compiled mappers only and
+     * to the queries without adaptive batch sizing.
+     *
+     * @param directDecodingEnabled True, if documents should be decoded directly, false otherwise
+     */
+    public void setDirectDecodingEnabled(boolean directDecodingEnabled) {
+        Assert.state(!constructed, "Decoding mode can not be changed after construction of this instance");
+        this.directDecodingEnabled = directDecodingEnabled;
+    }
+
+    public boolean isIndexesEnsured() {
+        return indexesEnsured;
+    }
+
+    /**
+     * Enables creation of the indexes, declared by the {@link org.springframework.mongo.mappable.object.Indexed}
+     * and {@link org.springframework.mongo.mappable.object.CompoundIndex} annotations on the registered and scanned
+     * mappable classes, on construction of this instance (default). Indexes of the other classes are created
+     * on the first use of the class, differences from the existing indexes are logged for them.
+     * Construction fails if an existing index with the same name or keys differs from the declared one.
+     *
+     * @param indexesEnsured True, if the declared indexes should be created, false otherwise
+     */
+    public void setIndexesEnsured(boolean indexesEnsured) {
+        Assert.state(!constructed, "Index mode can not be changed after construction of this instance");
+        this.indexesEnsured = indexesEnsured;
+    }
+
+    public boolean isBackgroundIndexBuild() {
+        return backgroundIndexBuild;
+    }
+
+    /**
+     * @param backgroundIndexBuild True, if the missing indexes should be built in background, so that the
+     *                             collections remain available while the indexes are built
+     */
+    public void setBackgroundIndexBuild(boolean backgroundIndexBuild) {
+        Assert.state(!constructed, "Index mode can not be changed after construction of this instance");
+        this.backgroundIndexBuild = backgroundIndexBuild;
+    }
+
+    /**
+     * @return Unmodifiable list of the indexes, found on the collections of the mappable classes on construction
+     * of this instance, but not declared by these classes, in the form of {@code Collection.indexName}
+     */
+    public List<String> getUndeclaredIndexes() {
+        return undeclaredIndexes;
+    }
+
+    /**
+     * Sets write concern for all the write operations on the given mappable class, invoked without explicit
+     * write concern. The template's mongo operations default write concern is used for the classes
+     * without write concern.
+     *
+     * @param clazz Mappable class
+     * @param writeConcern Write concern or null to reset it to the default one
+     */
+    public void setWriteConcern(Class<?> clazz, WriteConcern writeConcern) {
+        Assert.notNull(clazz, "clazz can not be null");
+        mappableObjectsConfig.setWriteConcern(clazz, writeConcern);
+    }
+
+    public ReadPreference getReadPreference() {
+        return readPreference;
+    }
+
+    /**
+     * Sets read preference of the mongo operations, created by this template, for the classes without
+     * read preference. Should be set on the mongo operations directly, if they are provided, otherwise
+     * {@link #init()} fails.
+     *
+     * @param readPreference Default read preference or null
+     * @see MongoTemplate#setReadPreference(ReadPreference)
+     */
+    public void setReadPreference(ReadPreference readPreference) {
+        Assert.state(!constructed, "Read preference can not be set after construction of this instance");
+        this.readPreference = readPreference;
+    }
+
+    /**
+     * Sets read preference of the queries and aggregations on the given mappable class, invoked without
+     * explicit read preference.
+     *
+     * @param clazz Mappable class
+     * @param readPreference Read preference or null to reset it to the default one
+     */
+    public void setReadPreference(Class<?> clazz, ReadPreference readPreference) {
+        Assert.notNull(clazz, "clazz can not be null");
+        mappableObjectsConfig.setReadPreference(clazz, readPreference);
+    }
+
+    public long getReadYourWritesWindowMillis() {
+        return readYourWritesWindowMillis;
+    }
+
+    /**
+     * Enables read-your-writes session mode of the mongo operations, created by this template: a thread, that has
+     * written any object, reads from the primary within the given window. Should be set on the mongo operations
+     * directly, if they are provided, otherwise {@link #init()} fails.
+     *
+     * @param window Window duration, zero disables session mode
+     * @param unit Time unit of the window argument
+     * @see MongoTemplate#setReadYourWritesWindow(long, TimeUnit)
+     */
+    public void setReadYourWritesWindow(long window, TimeUnit unit) {
+        Assert.state(!constructed, "Session mode can not be changed after construction of this instance");
+        Assert.isTrue(window >= 0, "window can not be negative");
+        this.readYourWritesWindowMillis = unit.toMillis(window);
+    }
+
+    /**
+     * Makes the given collection fields of the mappable class lazy, as if they were annotated with
+     * {@link org.springframework.mongo.mappable.object.LazyMapped}: embedded documents are retained as is
+     * and mapped on the first access to the collection.
+     *
+     * @param clazz Mappable class, that declares the fields
+     * @param fieldNames Names of the java fields
+     */
+    public void setLazyFields(Class<?> clazz, String... fieldNames) {
+        Assert.state(!constructed, "Lazy fields can not be set after construction of this instance");
+        Assert.notNull(clazz, "clazz can not be null");
+        mappableObjectsConfig.setLazyFields(clazz, Arrays.asList(fieldNames));
+    }
+
+    /**
+     * Enables read-through cache of the objects, returned by {@link #queryById(Class, String)} for the given
+     * mappable class. Cached entries are invalidated by the write operations on this class, performed through
+     * this template, modifications made by other means become visible after expiration of the entry.
+     * Cache misses are always read from the primary, regardless of the read preference.
+     *
+     * @param clazz Mappable class
+     * @param maxSize Maximum number of cached objects, least recently used objects are evicted first
+     * @param ttl Time to live of the cached object
+     * @param unit Time unit of the ttl argument
+     */
+    public void setEntityCache(Class<?> clazz, int maxSize, long ttl, TimeUnit unit) {
+        Assert.state(!constructed, "Entity cache can not be enabled after construction of this instance");
+        Assert.notNull(clazz, "clazz can not be null");
+        Assert.isTrue(maxSize > 0, "maxSize should be positive");
+        Assert.isTrue(ttl > 0, "ttl should be positive");
+        entityCaches.put(clazz, new EntityCache(maxSize, unit.toNanos(ttl)));
+    }
+
+    /**
+     * Enables tracking of the objects of the given mappable class, loaded by the query methods of this template.
+     * The serialized state of each loaded object is retained while the object is reachable, so that
+     * {@link #updateChanged(Object)} can send only the changed fields.
+     *
+     * @param clazz Mappable class
+     * @param enabled True, if the loaded objects should be tracked
+     */
+    public void setDirtyTracking(Class<?> clazz, boolean enabled) {
+        Assert.state(!constructed, "Dirty tracking can not be changed after construction of this instance");
+        Assert.notNull(clazz, "clazz can not be null");
+        if (enabled) {
+            trackedClasses.add(clazz);
+        } else {
+            trackedClasses.remove(clazz);
+        }
+    }
+
+    /**
+     * @param clazz Mappable class
+     * @return Entity cache statistics of the given class or null if cache is not enabled for it
+     */
+    public EntityCacheStats getEntityCacheStats(Class<?> clazz) {
+        final EntityCache cache = entityCaches.get(clazz);
+        return cache != null ? cache.getStats() : null;
+    }
+
     @Override
     public <T> void registerConverters(Class<T> clazz, Converter<T, Object> javaToMongo, Converter<Object, T> mongoToJava) {
         Assert.state(!constructed, "Mappable base can not be initialized after construction of this instance");
@@ -128,23 +460,122 @@ public final class MappableMongoTemplate implements MappableMongoOperations {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public String insert(Object object) {
+        return insert(object, null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public String insert(Object object, WriteConcern writeConcern) {
         Assert.notNull(object, "object can not be null");
         final MappableClassLayout classLayout = getLayout(object);
-        return mo.insert(classLayout.getCollectionName(), classLayout.toDBObject(object));
+        final String id = mo.insert(classLayout.getCollectionName(), toInsertedDBObject(classLayout, object),
+                resolveWriteConcern(classLayout, writeConcern));
+        invalidateCachedEntity(object.getClass(), id);
+        return id;
+    }
+
+    @Override
+    public List<String> insertAll(Collection<?> objects) {
+        return insertAll(objects, null);
     }
 
     @Override
     @SuppressWarnings("unchecked")
+    public List<String> insertAll(Collection<?> objects, WriteConcern writeConcern) {
+        Assert.notNull(objects, "objects can not be null");
+        // group objects by collections preserving the input order of the objects within each collection
+        final Map<String, List<DBObject>> collectionObjects = new LinkedHashMap<String, List<DBObject>>();
+        final Map<String, WriteConcern> collectionWriteConcerns = new HashMap<String, WriteConcern>();
+        final List<DBObject> dbObjects = new ArrayList<DBObject>(objects.size());
+        for (final Object object : objects) {
+            Assert.notNull(object, "object can not be null");
+            final MappableClassLayout classLayout = getLayout(object);
+            final DBObject dbObject = toInsertedDBObject(classLayout, object);
+            if (dbObject.get(ID) == null) {
+                dbObject.put(ID, new ObjectId());
+            }
+            dbObjects.add(dbObject);
+
+            List<DBObject> batch = collectionObjects.get(classLayout.getCollectionName());
+            if (batch == null) {
+                batch = new ArrayList<DBObject>();
+                collectionObjects.put(classLayout.getCollectionName(), batch);
+                collectionWriteConcerns.put(classLayout.getCollectionName(),
+                        resolveWriteConcern(classLayout, writeConcern));
+            }
+            batch.add(dbObject);
+        }
+
+        for (final Map.Entry<String, List<DBObject>> entry : collectionObjects.entrySet()) {
+            mo.insert(entry.getKey(), entry.getValue(), collectionWriteConcerns.get(entry.getKey()));
+        }
+
+        final List<String> ids = new ArrayList<String>(dbObjects.size());
+        final Iterator<?> objectIterator = objects.iterator();
+        for (final DBObject dbObject : dbObjects) {
+            final String id = extractId(dbObject);
+            invalidateCachedEntity(objectIterator.next().getClass(), id);
+            ids.add(id);
+        }
+        return Collections.unmodifiableList(ids);
+    }
+
+    @Override
     public void update(Object object) {
+        update(object, null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void update(Object object, WriteConcern writeConcern) {
         Assert.notNull(object, "object can not be null");
         final MappableClassLayout classLayout = getLayout(object);
         if (!classLayout.hasMongoId()) {
             throw new IncorrectUpdateSemanticsDataAccessException("It is not possible to update object without inner ID");
         }
         final DBObject query = new BasicDBObject(ID, classLayout.getMongoId(object));
-        expectOneUpdate(mo.update(classLayout.getCollectionName(), query, classLayout.toDBObject(object)));
+        final DBObject dbObject = classLayout.toDBObject(object);
+        try {
+            expectOneUpdate(mo.update(classLayout.getCollectionName(), query, dbObject,
+                    resolveWriteConcern(classLayout, writeConcern)));
+        } finally {
+            invalidateCachedEntity(object.getClass(), extractId(query));
+        }
+        trackSnapshot(object, dbObject);
+    }
+
+    @Override
+    public boolean updateChanged(Object object) {
+        Assert.notNull(object, "object can not be null");
+        final DBObject snapshot = snapshots.get(object);
+        if (snapshot == null) {
+            // object was not loaded by this template or its class is not tracked
+            update(object);
+            return true;
+        }
+        return updateDifference(object, snapshot);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean updateChanged(Object object, Object original) {
+        Assert.notNull(object, "object can not be null");
+        Assert.notNull(original, "original can not be null");
+        Assert.isTrue(object.getClass() == original.getClass(), "object and original should be of the same class");
+        return updateDifference(object, getLayout(original).toDBObject(original));
+    }
+
+    @Override
+    public <T> MappableBulkOperations<T> bulkOps(Class<T> clazz, boolean ordered) {
+        return bulkOps(clazz, ordered, null);
+    }
+
+    @Override
+    public <T> MappableBulkOperations<T> bulkOps(Class<T> clazz, boolean ordered, WriteConcern writeConcern) {
+        final MappableClassLayout<T> classLayout = getLayout(clazz);
+        return new DefaultMappableBulkOperations<T>(classLayout, mo.bulkOps(classLayout.getCollectionName(), ordered,
+                resolveWriteConcern(classLayout, writeConcern)), entityCaches.get(clazz));
     }
 
     @Override
@@ -152,6 +583,12 @@ public final class MappableMongoTemplate implements MappableMongoOperations {
         return remove(clazz, withId(id));
     }
 
+    @Override
+    public int remove(Class<?> clazz, Object id) {
+        Assert.notNull(id, "id can not be null");
+        return remove(clazz, new BasicDBObject(ID, getLayout(clazz).toMongoId(id)));
+    }
+
     @Override
     public int remove(Class<?> clazz, String fieldName, Object value) {
         return remove(clazz, new BasicDBObject(fieldName, value));
@@ -159,17 +596,62 @@ public final class MappableMongoTemplate implements MappableMongoOperations {
 
     @Override
     public int remove(Class<?> clazz, DBObject query) {
+        return remove(clazz, query, null);
+    }
+
+    @Override
+    public int remove(Class<?> clazz, DBObject query, WriteConcern writeConcern) {
         final MappableClassLayout classLayout = getLayout(clazz);
-        return mo.remove(classLayout.getCollectionName(), query).getN();
+        try {
+            return mo.remove(classLayout.getCollectionName(), query,
+                    resolveWriteConcern(classLayout, writeConcern)).getN();
+        } finally {
+            final EntityCache cache = entityCaches.get(clazz);
+            if (cache != null) {
+                if (query.keySet().size() == 1 && query.get(ID) != null && !(query.get(ID) instanceof DBObject)) {
+                    cache.invalidate(extractId(query));
+                } else {
+                    cache.invalidateAll();
+                }
+            }
+        }
     }
 
+    @Override
+    public long count(Class<?> clazz, DBObject query) {
+        final MappableClassLayout classLayout = getLayout(clazz);
+        return mo.count(classLayout.getCollectionName(), query, resolveOptions(classLayout, (QueryOptions) null));
+    }
 
     @Override
-    public <T> T queryById(final Class<T> resultClass, String id) {
-        final MappableClassLayout classLayout = getLayout(resultClass);
-        @SuppressWarnings("unchecked")
-        final CursorMapper<T> cursorMapper = (CursorMapper<T>) classLayout.getCursorMapper();
-        return mo.queryForObject(classLayout.getCollectionName(), cursorMapper, withId(id));
+    public boolean exists(Class<?> clazz, DBObject query) {
+        final MappableClassLayout classLayout = getLayout(clazz);
+        return mo.exists(classLayout.getCollectionName(), query, resolveOptions(classLayout, (QueryOptions) null));
+    }
+
+    @Override
+    public <V> List<V> distinct(Class<?> clazz, String fieldName, Class<V> valueClass, DBObject query) {
+        Assert.notNull(valueClass, "valueClass can not be null");
+        final MappableClassLayout<?> classLayout = getLayout(clazz);
+        final List<Object> values = mo.distinct(classLayout.getCollectionName(), classLayout.getMongoName(fieldName),
+                Object.class, query, resolveOptions(classLayout, (QueryOptions) null));
+
+        final List<V> result = new ArrayList<V>(values.size());
+        for (final Object value : values) {
+            result.add(valueClass.cast(classLayout.toJavaValue(fieldName, value)));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public <T> T queryById(Class<T> resultClass, String id) {
+        return queryById(resultClass, withId(id));
+    }
+
+    @Override
+    public <T> T queryById(Class<T> resultClass, Object id) {
+        Assert.notNull(id, "id can not be null");
+        return queryById(resultClass, new BasicDBObject(ID, getLayout(resultClass).toMongoId(id)));
     }
 
     @Override
@@ -179,10 +661,86 @@ public final class MappableMongoTemplate implements MappableMongoOperations {
 
     @Override
     public <T> List<T> query(Class<T> resultClass, DBObject query, DBObject orderBy) {
+        return query(resultClass, query, orderBy, (QueryOptions) null);
+    }
+
+    @Override
+    public <T> List<T> query(Class<T> resultClass, DBObject query, DBObject orderBy, QueryOptions options) {
+        final MappableClassLayout classLayout = getLayout(resultClass);
+        final CursorMapper<T> cursorMapper = getCursorMapper(resultClass);
+        return mo.query(classLayout.getCollectionName(), cursorMapper, query, classLayout.getFields(), orderBy,
+                resolveOptions(classLayout, options));
+    }
+
+    @Override
+    public <T> void query(Class<T> resultClass, DBObject query, DBObject orderBy,
+                          MappableCallbackHandler<T> callbackHandler) {
+        query(resultClass, query, orderBy, null, callbackHandler);
+    }
+
+    @Override
+    public <T> void query(Class<T> resultClass, DBObject query, DBObject orderBy, QueryOptions options,
+                          final MappableCallbackHandler<T> callbackHandler) {
+        Assert.notNull(callbackHandler, "callbackHandler can not be null");
+        final MappableClassLayout classLayout = getLayout(resultClass);
+        final CursorMapper<T> cursorMapper = getCursorMapper(resultClass);
+        mo.query(classLayout.getCollectionName(), new CursorCallbackHandler() {
+            @Override
+            public void processCursor(DBObject cursor, int rowNum) {
+                callbackHandler.processObject(cursorMapper.mapCursor(cursor, rowNum));
+            }
+        }, query, classLayout.getFields(), orderBy, resolveOptions(classLayout, options));
+    }
+
+    @Override
+    public <T> List<T> parallelQuery(Class<T> resultClass, DBObject query, ParallelQueryOptions options) {
+        final MappableClassLayout classLayout = getLayout(resultClass);
+        return mo.parallelQuery(classLayout.getCollectionName(), getCursorMapper(resultClass), query,
+                classLayout.getFields(), resolveOptions(classLayout, options));
+    }
+
+    @Override
+    public <T> void parallelQuery(Class<T> resultClass, DBObject query, ParallelQueryOptions options,
+                                  PartitionCallbackHandler<T> callbackHandler) {
         final MappableClassLayout classLayout = getLayout(resultClass);
-        @SuppressWarnings("unchecked")
-        final CursorMapper<T> cursorMapper = (CursorMapper<T>) classLayout.getCursorMapper();
-        return mo.query(classLayout.getCollectionName(), cursorMapper, query, orderBy);
+        mo.parallelQuery(classLayout.getCollectionName(), getCursorMapper(resultClass), query,
+                classLayout.getFields(), resolveOptions(classLayout, options), callbackHandler);
+    }
+
+    @Override
+    public <T> List<T> aggregate(Class<?> inputClass, Class<T> resultClass, List<DBObject> pipeline,
+                                 AggregateOptions options) {
+        final MappableClassLayout<?> classLayout = getLayout(inputClass);
+        return mo.aggregate(classLayout.getCollectionName(), getLayout(resultClass).getCursorMapper(), pipeline,
+                resolveOptions(classLayout, options));
+    }
+
+    @Override
+    public <T> void aggregate(Class<?> inputClass, Class<T> resultClass, List<DBObject> pipeline,
+                              AggregateOptions options, final MappableCallbackHandler<T> callbackHandler) {
+        Assert.notNull(callbackHandler, "callbackHandler can not be null");
+        final MappableClassLayout<?> classLayout = getLayout(inputClass);
+        final CursorMapper<T> cursorMapper = getLayout(resultClass).getCursorMapper();
+        mo.aggregate(classLayout.getCollectionName(), new CursorCallbackHandler() {
+            @Override
+            public void processCursor(DBObject cursor, int rowNum) {
+                callbackHandler.processObject(cursorMapper.mapCursor(cursor, rowNum));
+            }
+        }, pipeline, resolveOptions(classLayout, options));
+    }
+
+    @Override
+    public <T> CloseableIterator<T> iterate(Class<T> resultClass, DBObject query, DBObject orderBy) {
+        return iterate(resultClass, query, orderBy, null);
+    }
+
+    @Override
+    public <T> CloseableIterator<T> iterate(Class<T> resultClass, DBObject query, DBObject orderBy,
+                                            QueryOptions options) {
+        final MappableClassLayout classLayout = getLayout(resultClass);
+        final CursorMapper<T> cursorMapper = getCursorMapper(resultClass);
+        return mo.iterate(classLayout.getCollectionName(), cursorMapper, query, classLayout.getFields(), orderBy,
+                resolveOptions(classLayout, options));
     }
 
     @Override
@@ -198,21 +756,281 @@ public final class MappableMongoTemplate implements MappableMongoOperations {
     @Override
     public <T> T queryForObject(Class<T> resultClass, DBObject query) {
         final MappableClassLayout classLayout = getLayout(resultClass);
-        @SuppressWarnings("unchecked")
-        final CursorMapper<T> cursorMapper = (CursorMapper<T>) classLayout.getCursorMapper();
-        return mo.queryForObject(classLayout.getCollectionName(), cursorMapper, query);
+        return queryForObject(classLayout, getCursorMapper(resultClass), query);
     }
 
     @Override
     public <T> MappableClassLayout<T> getLayout(Class<T> mappableClass) {
         Assert.notNull(mappableClass, "Mappable class shall not be null");
-        return mappableObjectsConfig.getLayout(mappableClass);
+        final MappableClassLayout<T> classLayout = mappableObjectsConfig.getLayout(mappableClass);
+        if (indexesEnsured && constructed && indexedClasses.add(mappableClass)) {
+            ensureIndexes(mappableClass, classLayout);
+        }
+        return classLayout;
     }
 
     //
     // Private
     //
 
+    private void ensureIndexes(Collection<Class<?>> classes) {
+        // indexes are read prior to the creation, so that the declared ones can be compared with them
+        final Map<String, List<DBObject>> existingIndexes = new LinkedHashMap<String, List<DBObject>>();
+        final Map<String, Set<String>> declaredIndexes = new LinkedHashMap<String, Set<String>>();
+        final List<String> mismatches = new ArrayList<String>();
+        for (final Class<?> clazz : classes) {
+            final MappableClassLayout<?> classLayout = getLayout(clazz);
+            final String collectionName = classLayout.getCollectionName();
+            Set<String> indexNames = declaredIndexes.get(collectionName);
+            if (indexNames == null) {
+                indexNames = new HashSet<String>();
+                indexNames.add(ID_INDEX_NAME);
+                declaredIndexes.put(collectionName, indexNames);
+                final List<DBObject> indexInfo = mo.getIndexInfo(collectionName);
+                existingIndexes.put(collectionName, indexInfo != null ? indexInfo : Collections.<DBObject>emptyList());
+            }
+
+            for (final IndexDefinition index : classLayout.getIndexes()) {
+                indexNames.add(index.getName());
+                final List<String> differences = ensureIndex(collectionName, index,
+                        existingIndexes.get(collectionName));
+                if (!differences.isEmpty()) {
+                    mismatches.add(collectionName + "." + index.getName() + " declared by " + clazz.getName() +
+                            " exists with " + differences);
+                }
+            }
+        }
+
+        if (!mismatches.isEmpty()) {
+            throw new IllegalStateException("Existing indexes differ from the declared ones and should be dropped " +
+                    "or changed manually: " + mismatches);
+        }
+
+        final List<String> undeclaredIndexes = new ArrayList<String>();
+        for (final Map.Entry<String, Set<String>> entry : declaredIndexes.entrySet()) {
+            for (final DBObject index : existingIndexes.get(entry.getKey())) {
+                final String name = (String) index.get("name");
+                if (!entry.getValue().contains(name)) {
+                    LOG.warn("Index {} on the collection {} is not declared by the mappable classes, key={}",
+                            new Object[] {name, entry.getKey(), index.get("key")});
+                    undeclaredIndexes.add(entry.getKey() + "." + name);
+                }
+            }
+        }
+        this.undeclaredIndexes = Collections.unmodifiableList(undeclaredIndexes);
+    }
+
+    /**
+     * Ensures indexes of the class, that was not registered or scanned, on its first use.
+     * Failures are logged, so that the operation on the class is not failed.
+     */
+    private void ensureIndexes(Class<?> clazz, MappableClassLayout<?> classLayout) {
+        if (classLayout.getIndexes().isEmpty()) {
+            return;
+        }
+
+        final String collectionName = classLayout.getCollectionName();
+        try {
+            final List<DBObject> indexInfo = mo.getIndexInfo(collectionName);
+            for (final IndexDefinition index : classLayout.getIndexes()) {
+                final List<String> differences = ensureIndex(collectionName, index,
+                        indexInfo != null ? indexInfo : Collections.<DBObject>emptyList());
+                if (!differences.isEmpty()) {
+                    LOG.warn("Index {}.{} declared by {} exists with {} and should be dropped or changed manually",
+                            new Object[] {collectionName, index.getName(), clazz.getName(), differences});
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Unable to ensure indexes of the mappable class " + clazz.getName(), e);
+        }
+    }
+
+    /**
+     * Creates the given index, unless it exists.
+     *
+     * @return Differences of the existing index from the given one, empty if it was created or matches
+     */
+    private List<String> ensureIndex(String collectionName, IndexDefinition index, List<DBObject> indexInfo) {
+        final DBObject existingIndex = findIndex(indexInfo, index);
+        if (existingIndex == null) {
+            mo.ensureIndex(collectionName, index.copy().background(backgroundIndexBuild));
+            return Collections.emptyList();
+        }
+        return index.getDifferences(existingIndex);
+    }
+
+    /**
+     * @return Existing index with the same name as the given one, or with the same keys if there is no such index,
+     * or null
+     */
+    private static DBObject findIndex(List<DBObject> indexInfo, IndexDefinition index) {
+        DBObject sameKeysIndex = null;
+        for (final DBObject existingIndex : indexInfo) {
+            if (index.getName().equals(existingIndex.get("name"))) {
+                return existingIndex;
+            }
+            final Object key = existingIndex.get("key");
+            if (sameKeysIndex == null && key instanceof DBObject && index.isSameKeys((DBObject) key)) {
+                sameKeysIndex = existingIndex;
+            }
+        }
+        return sameKeysIndex;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean updateDifference(Object object, DBObject original) {
+        final MappableClassLayout classLayout = getLayout(object);
+        if (!classLayout.hasMongoId()) {
+            throw new IncorrectUpdateSemanticsDataAccessException("It is not possible to update object without inner ID");
+        }
+
+        final DBObject current = classLayout.toDBObject(object);
+        final DBObject update = DocumentDiff.diff(original, current);
+        if (update == null) {
+            return false;
+        }
+
+        final DBObject query = new BasicDBObject(ID, classLayout.getMongoId(object));
+        try {
+            expectOneUpdate(mo.update(classLayout.getCollectionName(), query, update,
+                    resolveWriteConcern(classLayout, null)));
+        } finally {
+            invalidateCachedEntity(object.getClass(), extractId(query));
+        }
+        trackSnapshot(object, current);
+        return true;
+    }
+
+    private <T> CursorMapper<T> getCursorMapper(Class<T> resultClass) {
+        final MappableClassLayout<T> classLayout = getLayout(resultClass);
+        final CursorMapper<T> cursorMapper = classLayout.getCursorMapper();
+        if (!trackedClasses.contains(resultClass)) {
+            return cursorMapper;
+        }
+
+        return new CursorMapper<T>() {
+            @Override
+            public T mapCursor(DBObject cursor, int rowNum) {
+                final T object = cursorMapper.mapCursor(cursor, rowNum);
+                snapshots.put(object, classLayout.toDBObject(object));
+                return object;
+            }
+        };
+    }
+
+    /**
+     * Serializes the inserted object along with its id, if it is assigned. String ids are always generated,
+     * so that the loaded object is inserted as the new one. Ids of the other objects without assigned id
+     * are generated as {@link ObjectId}s, so long and UUID ids should be assigned by the application;
+     * zero value of the primitive long id is considered as unassigned.
+     */
+    @SuppressWarnings("unchecked")
+    static DBObject toInsertedDBObject(MappableClassLayout classLayout, Object object) {
+        final DBObject dbObject = classLayout.toDBObject(object);
+        final Class<?> idType = classLayout.getMongoIdType();
+        if (idType == null || idType == String.class) {
+            return dbObject;
+        }
+
+        final Object id = classLayout.getMongoId(object);
+        if (id == null || (idType == long.class && ((Number) id).longValue() == 0L)) {
+            if (idType != ObjectId.class) {
+                throw new InvalidDataAccessApiUsageException("Id of " + object.getClass().getName() +
+                        " should be assigned prior to insertion");
+            }
+        } else {
+            dbObject.put(ID, id);
+        }
+        return dbObject;
+    }
+
+    private <T> T queryById(Class<T> resultClass, DBObject idQuery) {
+        final MappableClassLayout classLayout = getLayout(resultClass);
+        final CursorMapper<T> cursorMapper = getCursorMapper(resultClass);
+        final EntityCache cache = entityCaches.get(resultClass);
+        if (cache == null) {
+            return queryForObject(classLayout, cursorMapper, idQuery);
+        }
+
+        final String id = extractId(idQuery);
+        DBObject document = cache.get(id);
+        if (document == null) {
+            final long generation = cache.getGeneration();
+            // secondary might return the document, invalidated prior to the lookup, that would be cached then
+            document = DataAccessUtils.requiredSingleResult(mo.query(classLayout.getCollectionName(),
+                    DOCUMENT_MAPPER, idQuery, classLayout.getFields(), null,
+                    new QueryOptions().limit(2).readPreference(ReadPreference.primary())));
+            cache.put(id, deepCopy(document), generation);
+        } else {
+            // mapped object shares the lists and dates of the document, that should not modify the cached one
+            document = deepCopy(document);
+        }
+        return cursorMapper.mapCursor(document, 0);
+    }
+
+    private <T> T queryForObject(MappableClassLayout classLayout, CursorMapper<T> cursorMapper, DBObject query) {
+        final QueryOptions options = resolveOptions(classLayout, (QueryOptions) null);
+        if (options == null) {
+            return mo.queryForObject(classLayout.getCollectionName(), cursorMapper, query, classLayout.getFields());
+        }
+        // two rows are enough to find out that the result is not unique
+        return DataAccessUtils.requiredSingleResult(mo.query(classLayout.getCollectionName(), cursorMapper, query,
+                classLayout.getFields(), null, options.limit(2)));
+    }
+
+    /**
+     * Adds the direct decoder and the read preference of the mappable class to the given options, if needed.
+     */
+    private QueryOptions resolveOptions(MappableClassLayout classLayout, QueryOptions options) {
+        QueryOptions result = options;
+        final DBDecoderFactory decoderFactory = classLayout.getDecoderFactory();
+        // adaptive batch sizer needs the documents to estimate their size
+        if (directDecodingEnabled && decoderFactory != null &&
+                (options == null || (!options.isAdaptiveBatchSize() && options.getDecoderFactory() == null))) {
+            result = (options != null ? options.copy() : new QueryOptions()).decoderFactory(decoderFactory);
+        }
+
+        final ReadPreference readPreference = classLayout.getReadPreference();
+        if (readPreference != null && (options == null || options.getReadPreference() == null)) {
+            if (result == options) {
+                result = options != null ? options.copy() : new QueryOptions();
+            }
+            result.readPreference(readPreference);
+        }
+        return result;
+    }
+
+    private ParallelQueryOptions resolveOptions(MappableClassLayout classLayout, ParallelQueryOptions options) {
+        Assert.notNull(options, "options can not be null");
+        final QueryOptions queryOptions = resolveOptions(classLayout, options.getQueryOptions());
+        return queryOptions == options.getQueryOptions() ? options : options.copy().queryOptions(queryOptions);
+    }
+
+    private AggregateOptions resolveOptions(MappableClassLayout classLayout, AggregateOptions options) {
+        final ReadPreference readPreference = classLayout.getReadPreference();
+        if (readPreference == null || (options != null && options.getReadPreference() != null)) {
+            return options;
+        }
+        return (options != null ? options.copy() : new AggregateOptions()).readPreference(readPreference);
+    }
+
+    private void trackSnapshot(Object object, DBObject dbObject) {
+        if (trackedClasses.contains(object.getClass())) {
+            snapshots.put(object, dbObject);
+        }
+    }
+
+    private void invalidateCachedEntity(Class<?> clazz, String id) {
+        final EntityCache cache = entityCaches.get(clazz);
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    private static WriteConcern resolveWriteConcern(MappableClassLayout classLayout, WriteConcern writeConcern) {
+        return writeConcern != null ? writeConcern : classLayout.getWriteConcern();
+    }
+
     private MappableClassLayout getLayout(Object mappableObject) {
         Assert.notNull(mappableObject, "Mappable object shall not be null");
         return getLayout(mappableObject.getClass());
@@ -0,0 +1,305 @@
+package org.springframework.mongo.mappable.support;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCallback;
+import com.mongodb.DBCollection;
+import com.mongodb.DBDecoder;
+import com.mongodb.DBDecoderFactory;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBDecoder;
+import org.bson.BSONCallback;
+import org.bson.BSONObject;
+import org.bson.types.BSONTimestamp;
+import org.bson.types.ObjectId;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Decoder, that reads BSON documents straight into the fields of the mappable objects, bypassing the top level
+ * {@link BasicDBObject}. Fields, that are not mapped, are skipped without being decoded, embedded documents
+ * and lists are decoded to {@link BasicDBObject}s and {@link BasicDBList}s and passed to the field converters
+ * as usual, numbers and booleans are set to the primitive fields without boxing. Documents with the values
+ * of the rarely used BSON types as well as the server error documents are decoded by the default decoder.
+ *
+ * @author Alexander Shabanov
+ */
+final class MappableObjectDecoder implements DBDecoder {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final MethodHandleCursorMapper<?> mapper;
+    private final DefaultDBDecoder defaultDecoder = new DefaultDBDecoder();
+
+    MappableObjectDecoder(MethodHandleCursorMapper<?> mapper) {
+        this.mapper = mapper;
+    }
+
+    static DBDecoderFactory factory(final MethodHandleCursorMapper<?> mapper) {
+        return new DBDecoderFactory() {
+            @Override
+            public DBDecoder create() {
+                return new MappableObjectDecoder(mapper);
+            }
+        };
+    }
+
+    @Override
+    public DBObject decode(byte[] bytes, DBCollection collection) {
+        try {
+            return new DecodedObject(decodeObject(bytes));
+        } catch (UnsupportedDocumentException ignored) {
+            return defaultDecoder.decode(bytes, collection);
+        }
+    }
+
+    @Override
+    public DBObject decode(InputStream in, DBCollection collection) throws IOException {
+        final byte[] lengthBytes = new byte[4];
+        readFully(in, lengthBytes, 0, 4);
+        final int length = readInt(lengthBytes, 0);
+        final byte[] bytes = Arrays.copyOf(lengthBytes, length);
+        readFully(in, bytes, 4, length - 4);
+        return decode(bytes, collection);
+    }
+
+    @Override
+    public DBCallback getDBCallback(DBCollection collection) {
+        return defaultDecoder.getDBCallback(collection);
+    }
+
+    @Override
+    public BSONObject readObject(byte[] bytes) {
+        return defaultDecoder.readObject(bytes);
+    }
+
+    @Override
+    public BSONObject readObject(InputStream in) throws IOException {
+        return defaultDecoder.readObject(in);
+    }
+
+    @Override
+    public int decode(byte[] bytes, BSONCallback callback) {
+        return defaultDecoder.decode(bytes, callback);
+    }
+
+    @Override
+    public int decode(InputStream in, BSONCallback callback) throws IOException {
+        return defaultDecoder.decode(in, callback);
+    }
+
+    //
+    // Private
+    //
+
+    private Object decodeObject(byte[] bytes) {
+        final Reader reader = new Reader(bytes);
+        final Object instance = mapper.newInstance();
+        final boolean[] assigned = new boolean[mapper.getFieldCount()];
+        reader.pos = 4;
+        for (byte type = reader.readByte(); type != 0; type = reader.readByte()) {
+            final String name = reader.readCString();
+            if (name.startsWith("$")) {
+                throw new UnsupportedDocumentException(); // e.g. $err
+            }
+
+            final int index = mapper.indexOf(name);
+            if (index < 0) {
+                reader.skipValue(type);
+                continue;
+            }
+
+            if (mapper.isNumber(index) && type == 1) {
+                mapper.setNumber(instance, index, Double.longBitsToDouble(reader.readLong()));
+            } else if (mapper.isNumber(index) && (type == 16 || type == 18)) {
+                mapper.setNumber(instance, index, type == 16 ? reader.readInt() : reader.readLong());
+            } else if (mapper.isBoolean(index) && type == 8) {
+                mapper.setBoolean(instance, index, reader.readByte() != 0);
+            } else {
+                mapper.setField(instance, index, reader.readValue(type));
+            }
+            assigned[index] = true;
+        }
+
+        // absent fields are mapped the same way as by the cursor mapper
+        for (int i = 0; i < assigned.length; ++i) {
+            if (!assigned[i]) {
+                mapper.setField(instance, i, null);
+            }
+        }
+        return instance;
+    }
+
+    private static void readFully(InputStream in, byte[] bytes, int offset, int length) throws IOException {
+        for (int read = 0; read < length;) {
+            final int count = in.read(bytes, offset + read, length - read);
+            if (count < 0) {
+                throw new IOException("Unexpected end of BSON document");
+            }
+            read += count;
+        }
+    }
+
+    private static int readInt(byte[] bytes, int pos) {
+        return (bytes[pos] & 0xff) | ((bytes[pos + 1] & 0xff) << 8) | ((bytes[pos + 2] & 0xff) << 16) |
+                ((bytes[pos + 3] & 0xff) << 24);
+    }
+
+    private static final class Reader {
+        final byte[] bytes;
+        int pos;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        byte readByte() {
+            return bytes[pos++];
+        }
+
+        int readInt() {
+            final int value = MappableObjectDecoder.readInt(bytes, pos);
+            pos += 4;
+            return value;
+        }
+
+        long readLong() {
+            final long low = readInt() & 0xffffffffL;
+            final long high = readInt() & 0xffffffffL;
+            return low | (high << 32);
+        }
+
+        String readCString() {
+            int end = pos;
+            while (bytes[end] != 0) {
+                ++end;
+            }
+            final String value = new String(bytes, pos, end - pos, UTF8);
+            pos = end + 1;
+            return value;
+        }
+
+        String readString() {
+            final int length = readInt();
+            final String value = new String(bytes, pos, length - 1, UTF8);
+            pos += length;
+            return value;
+        }
+
+        Object readValue(byte type) {
+            switch (type) {
+                case 1:
+                    return Double.longBitsToDouble(readLong());
+                case 2:
+                    return readString();
+                case 3:
+                    return readDocument(new BasicDBObject(), false);
+                case 4:
+                    return readDocument(new BasicDBList(), true);
+                case 5:
+                    final int length = readInt();
+                    final byte subtype = readByte();
+                    if (subtype == 3 && length == 16) {
+                        // legacy java UUID, as it is written by the driver
+                        final long mostSignificantBits = readLong();
+                        return new UUID(mostSignificantBits, readLong());
+                    } else if (subtype != 0) {
+                        throw new UnsupportedDocumentException();
+                    }
+                    final byte[] data = Arrays.copyOfRange(bytes, pos, pos + length);
+                    pos += length;
+                    return data;
+                case 7:
+                    final ObjectId objectId = new ObjectId(Arrays.copyOfRange(bytes, pos, pos + 12));
+                    pos += 12;
+                    return objectId;
+                case 8:
+                    return readByte() != 0;
+                case 9:
+                    return new Date(readLong());
+                case 10:
+                    return null;
+                case 16:
+                    return readInt();
+                case 17:
+                    final int increment = readInt();
+                    return new BSONTimestamp(readInt(), increment);
+                case 18:
+                    return readLong();
+                default:
+                    throw new UnsupportedDocumentException();
+            }
+        }
+
+        DBObject readDocument(DBObject document, boolean list) {
+            final int end = pos + readInt();
+            for (byte type = readByte(); type != 0; type = readByte()) {
+                final String name = readCString();
+                if (!list && name.startsWith("$")) {
+                    throw new UnsupportedDocumentException(); // e.g. DBRef
+                }
+                final Object value = readValue(type);
+                if (list) {
+                    ((BasicDBList) document).add(value);
+                } else {
+                    document.put(name, value);
+                }
+            }
+            pos = end;
+            return document;
+        }
+
+        void skipValue(byte type) {
+            switch (type) {
+                case 1: case 9: case 17: case 18:
+                    pos += 8;
+                    break;
+                case 2: case 13: case 14:
+                    pos += 4 + MappableObjectDecoder.readInt(bytes, pos);
+                    break;
+                case 3: case 4: case 15:
+                    pos += MappableObjectDecoder.readInt(bytes, pos);
+                    break;
+                case 5:
+                    pos += 5 + MappableObjectDecoder.readInt(bytes, pos);
+                    break;
+                case 6: case 10: case 127: case -1:
+                    break;
+                case 7:
+                    pos += 12;
+                    break;
+                case 8:
+                    pos += 1;
+                    break;
+                case 11:
+                    readCString();
+                    readCString();
+                    break;
+                case 12:
+                    pos += 4 + MappableObjectDecoder.readInt(bytes, pos) + 12;
+                    break;
+                case 16:
+                    pos += 4;
+                    break;
+                case 19:
+                    pos += 16;
+                    break;
+                default:
+                    throw new UnsupportedDocumentException();
+            }
+        }
+    }
+
+    /**
+     * Thrown if the document should be decoded by the default decoder.
+     */
+    private static final class UnsupportedDocumentException extends RuntimeException {
+        UnsupportedDocumentException() {
+            super(null, null, false, false);
+        }
+    }
+}
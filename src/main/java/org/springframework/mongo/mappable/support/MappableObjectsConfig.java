@@ -1,24 +1,38 @@
 package org.springframework.mongo.mappable.support;
 
 import com.mongodb.BasicDBObject;
+import com.mongodb.DBDecoderFactory;
 import com.mongodb.DBObject;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.mongo.core.CursorMapper;
+import org.springframework.mongo.core.IndexDefinition;
+import org.springframework.mongo.mappable.object.CompoundIndex;
+import org.springframework.mongo.mappable.object.Indexed;
+import org.springframework.mongo.mappable.object.LazyMapped;
 import org.springframework.mongo.mappable.object.MappableClassLayout;
 import org.springframework.util.Assert;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Alexander Shabanov
  */
 final class MappableObjectsConfig {
-    private final Map<Class<?>, DefaultMappableClassLayout<?>> classLayoutMap =
+    private final ConcurrentMap<Class<?>, DefaultMappableClassLayout<?>> classLayoutMap =
             new ConcurrentHashMap<Class<?>, DefaultMappableClassLayout<?>>();
 
     static final class ConverterPair {
@@ -33,8 +47,25 @@ final class MappableObjectsConfig {
 
     private final Map<Class<?>, ConverterPair> classConverters = new ConcurrentHashMap<Class<?>, ConverterPair>();
 
+    private final Map<Class<?>, WriteConcern> classWriteConcerns = new ConcurrentHashMap<Class<?>, WriteConcern>();
+
+    private final Map<Class<?>, ReadPreference> classReadPreferences =
+            new ConcurrentHashMap<Class<?>, ReadPreference>();
+
+    private final Map<Class<?>, Set<String>> classLazyFields = new ConcurrentHashMap<Class<?>, Set<String>>();
+
     private Class<?> mappableBase;
 
+    private boolean compiledMappersEnabled = true;
+
+    public boolean isCompiledMappersEnabled() {
+        return compiledMappersEnabled;
+    }
+
+    public void setCompiledMappersEnabled(boolean compiledMappersEnabled) {
+        this.compiledMappersEnabled = compiledMappersEnabled;
+    }
+
     public Class<?> getMappableBase() {
         Assert.state(mappableBase != null,
                 "Mappable class base should be initialized prior to using mappable functionality");
@@ -50,6 +81,17 @@ final class MappableObjectsConfig {
         return innerGetLayout(mappableClass);
     }
 
+    /**
+     * Builds layouts and mappers of the given classes, so that they are not built on the first use.
+     *
+     * @param mappableClasses Mappable classes
+     */
+    public void precompile(Collection<Class<?>> mappableClasses) {
+        for (final Class<?> mappableClass : mappableClasses) {
+            getLayout(mappableClass);
+        }
+    }
+
     public ConverterPair getConverterPair(Class<?> clazz) {
         return classConverters.get(clazz);
     }
@@ -59,23 +101,75 @@ final class MappableObjectsConfig {
         classConverters.put(clazz, new ConverterPair((Converter) javaToMongo, (Converter) mongoToJava));
     }
 
+    public void setWriteConcern(Class<?> clazz, WriteConcern writeConcern) {
+        if (writeConcern != null) {
+            classWriteConcerns.put(clazz, writeConcern);
+        } else {
+            classWriteConcerns.remove(clazz);
+        }
+    }
+
+    public WriteConcern getWriteConcern(Class<?> clazz) {
+        return classWriteConcerns.get(clazz);
+    }
+
+    public void setReadPreference(Class<?> clazz, ReadPreference readPreference) {
+        if (readPreference != null) {
+            classReadPreferences.put(clazz, readPreference);
+        } else {
+            classReadPreferences.remove(clazz);
+        }
+    }
+
+    public ReadPreference getReadPreference(Class<?> clazz) {
+        return classReadPreferences.get(clazz);
+    }
+
+    public void setLazyFields(Class<?> clazz, Collection<String> fieldNames) {
+        classLazyFields.put(clazz, new HashSet<String>(fieldNames));
+    }
+
+    /**
+     * @param field Field of the mappable class
+     * @return True, if the field is annotated with {@link LazyMapped} or configured as lazy for its declaring class
+     */
+    public boolean isLazyField(Field field) {
+        if (field.isAnnotationPresent(LazyMapped.class)) {
+            return true;
+        }
+        final Set<String> fieldNames = classLazyFields.get(field.getDeclaringClass());
+        return fieldNames != null && fieldNames.contains(field.getName());
+    }
+
+    @SuppressWarnings("unchecked")
     private <T> DefaultMappableClassLayout<T> innerGetLayout(Class<T> mappableClass) {
-        @SuppressWarnings("unchecked")
         DefaultMappableClassLayout<T> layout = (DefaultMappableClassLayout<T>) classLayoutMap.get(mappableClass);
         if (layout != null) {
             return layout;
         }
-        layout = new DefaultMappableClassLayout<T>(mappableClass);
-        classLayoutMap.put(mappableClass, layout);
-        return layout;
+
+        // layouts are built once, lookups of the already built layouts never block
+        synchronized (classLayoutMap) {
+            layout = (DefaultMappableClassLayout<T>) classLayoutMap.get(mappableClass);
+            if (layout == null) {
+                layout = new DefaultMappableClassLayout<T>(mappableClass);
+                classLayoutMap.put(mappableClass, layout);
+            }
+            return layout;
+        }
     }
 
     private final class DefaultMappableClassLayout<T> implements MappableClassLayout<T> {
         private final Class<T> dataObjectClass;
-        private String collectionName;
-        private List<FieldDescriptor> fieldDescriptors;
+        private final String collectionName;
+        private final List<FieldDescriptor> fieldDescriptors;
+        private final Map<String, FieldDescriptor> fieldDescriptorMap = new HashMap<String, FieldDescriptor>();
         private FieldDescriptor idFieldDescriptor;
-        private CursorMapper<?> cursorMapper;
+        private final CursorMapper<T> cursorMapper;
+        private final DBDecoderFactory decoderFactory;
+        private final ObjectSerializer<T> serializer;
+        private final DBObject fields;
+        private final List<IndexDefinition> indexes;
 
         public DefaultMappableClassLayout(final Class<T> dataObjectClass) {
             this.dataObjectClass = dataObjectClass;
@@ -107,6 +201,20 @@ final class MappableObjectsConfig {
                 }
             }
             this.fieldDescriptors = fieldDescriptors;
+            for (final FieldDescriptor fieldDescriptor : fieldDescriptors) {
+                fieldDescriptorMap.put(fieldDescriptor.getField().getName(), fieldDescriptor);
+            }
+            this.serializer = createSerializer();
+            this.cursorMapper = createCursorMapper();
+            this.decoderFactory = cursorMapper instanceof MethodHandleCursorMapper ?
+                    MappableObjectDecoder.factory((MethodHandleCursorMapper<T>) cursorMapper) : null;
+
+            final BasicDBObject fields = new BasicDBObject();
+            for (final FieldDescriptor fieldDescriptor : fieldDescriptors) {
+                fields.append(fieldDescriptor.getMongoName(), 1);
+            }
+            this.fields = fields;
+            this.indexes = createIndexes(parentLayout);
         }
 
         @Override
@@ -116,36 +224,53 @@ final class MappableObjectsConfig {
 
         @Override
         public final DBObject toDBObject(T dataObject) {
-            Assert.state(dataObject.getClass().equals(dataObjectClass), "Class mismatch");
-            final BasicDBObject dbObject = new BasicDBObject();
-            try {
-                for (final FieldDescriptor fieldDescriptor : fieldDescriptors) {
-                    if (fieldDescriptor.isId()) {
-                        continue;
-                    }
+            Assert.state(dataObject.getClass() == dataObjectClass, "Class mismatch");
+            return serializer.toDBObject(dataObject);
+        }
 
-                    final Field field = fieldDescriptor.getField();
-                    field.setAccessible(true);
-                    final Object javaValue = field.get(dataObject);
-                    final Object mongoValue = fieldDescriptor.getJavaToMongoConverter().convert(javaValue);
-                    dbObject.append(fieldDescriptor.getMongoName(), mongoValue);
-                }
-            } catch (IllegalAccessException e) {
-                throw new IllegalStateException(e);
-            }
-            return dbObject;
+        @Override
+        public DBObject getFields() {
+            return fields;
         }
 
         @Override
-        @SuppressWarnings("unchecked")
         public CursorMapper<T> getCursorMapper() {
-            CursorMapper<?> result = cursorMapper;
-            if (result == null) {
-                // TODO: analyze from multithreading prospective - OK with double initialization, Not OK with UB
-                result = createCursorMapper();
-                cursorMapper = result;
-            }
-            return (CursorMapper<T>) result;
+            return cursorMapper;
+        }
+
+        @Override
+        public DBDecoderFactory getDecoderFactory() {
+            return decoderFactory;
+        }
+
+        @Override
+        public Object toMongoId(Object id) {
+            return idFieldDescriptor != null ? idFieldDescriptor.getJavaToMongoConverter().convert(id) : id;
+        }
+
+        @Override
+        public String getMongoName(String fieldName) {
+            return getFieldDescriptor(fieldName).getMongoName();
+        }
+
+        @Override
+        public Object toJavaValue(String fieldName, Object mongoValue) {
+            return getFieldDescriptor(fieldName).getElementConverter().convert(mongoValue);
+        }
+
+        @Override
+        public List<IndexDefinition> getIndexes() {
+            return indexes;
+        }
+
+        @Override
+        public WriteConcern getWriteConcern() {
+            return MappableObjectsConfig.this.getWriteConcern(dataObjectClass);
+        }
+
+        @Override
+        public ReadPreference getReadPreference() {
+            return MappableObjectsConfig.this.getReadPreference(dataObjectClass);
         }
 
         @Override
@@ -153,34 +278,79 @@ final class MappableObjectsConfig {
             return idFieldDescriptor != null;
         }
 
+        @Override
+        public Class<?> getMongoIdType() {
+            return idFieldDescriptor != null ? idFieldDescriptor.getField().getType() : null;
+        }
+
         @Override
         public Object getMongoId(T object) {
-            if (idFieldDescriptor == null) {
-                throw new IllegalStateException("id field does not exist in this object");
+            return serializer.getMongoId(object);
+        }
+
+        private FieldDescriptor getFieldDescriptor(String fieldName) {
+            final FieldDescriptor fieldDescriptor = fieldDescriptorMap.get(fieldName);
+            Assert.notNull(fieldDescriptor, "No field " + fieldName + " in mappable class " + dataObjectClass);
+            return fieldDescriptor;
+        }
+
+        private List<IndexDefinition> createIndexes(DefaultMappableClassLayout<? super T> parentLayout) {
+            final List<IndexDefinition> indexes = new ArrayList<IndexDefinition>();
+            if (parentLayout != null) {
+                indexes.addAll(parentLayout.indexes);
             }
 
-            try {
-                final Field field = idFieldDescriptor.getField();
-                field.setAccessible(true);
-                final Object javaValue = field.get(object);
-                return idFieldDescriptor.getJavaToMongoConverter().convert(javaValue);
-            } catch (IllegalAccessException e) {
-                throw new IllegalStateException(e);
+            for (final Field field : dataObjectClass.getDeclaredFields()) {
+                final Indexed indexed = field.getAnnotation(Indexed.class);
+                if (indexed == null) {
+                    continue;
+                }
+                final String mongoName = getFieldDescriptor(field.getName()).getMongoName();
+                indexes.add(new IndexDefinition(new BasicDBObject(mongoName, indexed.descending() ? -1 : 1))
+                        .name(indexed.name().isEmpty() ? null : indexed.name())
+                        .unique(indexed.unique())
+                        .sparse(indexed.sparse())
+                        .expireAfter(indexed.expireAfterSeconds(), TimeUnit.SECONDS));
             }
+
+            for (final CompoundIndex compoundIndex : dataObjectClass.getDeclaredAnnotationsByType(CompoundIndex.class)) {
+                Assert.notEmpty(compoundIndex.fields(), "Compound index without fields in class " + dataObjectClass);
+                final BasicDBObject keys = new BasicDBObject();
+                for (final String fieldName : compoundIndex.fields()) {
+                    final boolean descending = fieldName.startsWith("-");
+                    final String javaName = descending ? fieldName.substring(1) : fieldName;
+                    keys.put(getFieldDescriptor(javaName).getMongoName(), descending ? -1 : 1);
+                }
+                indexes.add(new IndexDefinition(keys)
+                        .name(compoundIndex.name().isEmpty() ? null : compoundIndex.name())
+                        .unique(compoundIndex.unique())
+                        .sparse(compoundIndex.sparse()));
+            }
+            return Collections.unmodifiableList(indexes);
         }
 
-        private CursorMapper<?> createCursorMapper() {
-            return new CursorMapper<Object>() {
+        private CursorMapper<T> createCursorMapper() {
+            if (isCompiledMappersEnabled()) {
+                try {
+                    return new MethodHandleCursorMapper<T>(dataObjectClass, fieldDescriptors);
+                } catch (IllegalStateException ignored) {
+                    // fallback to the reflective mapper, e.g. if security manager prohibits access to the fields
+                }
+            }
+
+            for (final FieldDescriptor fieldDescriptor : fieldDescriptors) {
+                fieldDescriptor.getField().setAccessible(true);
+            }
+
+            return new CursorMapper<T>() {
                 @Override
-                public Object mapCursor(DBObject cursor, int rowNum) {
+                public T mapCursor(DBObject cursor, int rowNum) {
                     try {
-                        final Object instance = dataObjectClass.newInstance();
+                        final T instance = dataObjectClass.newInstance();
                         for (final FieldDescriptor fieldDescriptor : fieldDescriptors) {
                             final Object mongoValue = cursor.get(fieldDescriptor.getMongoName());
                             final Object javaValue = fieldDescriptor.getMongoToJavaConverter().convert(mongoValue);
-                            final Field field = fieldDescriptor.getField();
-                            field.setAccessible(true);
-                            field.set(instance, javaValue);
+                            fieldDescriptor.getField().set(instance, javaValue);
                         }
                         return instance;
                     } catch (InstantiationException e) {
@@ -191,5 +361,54 @@ final class MappableObjectsConfig {
                 }
             };
         }
+
+        private ObjectSerializer<T> createSerializer() {
+            if (isCompiledMappersEnabled()) {
+                try {
+                    return new MethodHandleObjectSerializer<T>(dataObjectClass, fieldDescriptors, idFieldDescriptor);
+                } catch (IllegalStateException ignored) {
+                    // fallback to the reflective serializer
+                }
+            }
+
+            for (final FieldDescriptor fieldDescriptor : fieldDescriptors) {
+                fieldDescriptor.getField().setAccessible(true);
+            }
+
+            return new ObjectSerializer<T>() {
+                @Override
+                public DBObject toDBObject(T dataObject) {
+                    final BasicDBObject dbObject = new BasicDBObject();
+                    try {
+                        for (final FieldDescriptor fieldDescriptor : fieldDescriptors) {
+                            if (fieldDescriptor.isId()) {
+                                continue;
+                            }
+
+                            final Object javaValue = fieldDescriptor.getField().get(dataObject);
+                            final Object mongoValue = fieldDescriptor.getJavaToMongoConverter().convert(javaValue);
+                            dbObject.append(fieldDescriptor.getMongoName(), mongoValue);
+                        }
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return dbObject;
+                }
+
+                @Override
+                public Object getMongoId(T dataObject) {
+                    if (idFieldDescriptor == null) {
+                        throw new IllegalStateException("id field does not exist in this object");
+                    }
+
+                    try {
+                        final Object javaValue = idFieldDescriptor.getField().get(dataObject);
+                        return idFieldDescriptor.getJavaToMongoConverter().convert(javaValue);
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            };
+        }
     }
 }
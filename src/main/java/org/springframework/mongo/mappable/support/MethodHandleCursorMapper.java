@@ -0,0 +1,242 @@
+package org.springframework.mongo.mappable.support;
+
+import com.mongodb.DBObject;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.mongo.core.CursorMapper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cursor mapper that is compiled once per class layout: the parameterless constructor and the field setters
+ * are resolved to {@link MethodHandle}s at construction time, so that mapping of the each row
+ * does not involve any access checks or reflective lookups. Setters of the int, long, double and boolean fields
+ * take primitive values, so that numbers of any stored type are converted without intermediate boxing.
+ *
+ * @author Alexander Shabanov
+ */
+final class MethodHandleCursorMapper<T> implements CursorMapper<T> {
+    private static final MethodType INSTANTIATOR_TYPE = MethodType.methodType(Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final byte OBJECT = 0;
+    private static final byte INT = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte BOOLEAN = 4;
+
+    private final MethodHandle instantiator;
+    private final String[] mongoNames;
+    private final Converter<Object, Object>[] converters;
+    private final MethodHandle[] setters;
+    private final byte[] kinds;
+    private final Map<String, Integer> fieldIndexes;
+
+    @SuppressWarnings("unchecked")
+    MethodHandleCursorMapper(Class<T> dataObjectClass, List<FieldDescriptor> fieldDescriptors) {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final int size = fieldDescriptors.size();
+        this.mongoNames = new String[size];
+        this.converters = new Converter[size];
+        this.setters = new MethodHandle[size];
+        this.kinds = new byte[size];
+        this.fieldIndexes = new HashMap<String, Integer>(size * 2);
+
+        try {
+            final Constructor<T> constructor = dataObjectClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            this.instantiator = lookup.unreflectConstructor(constructor).asType(INSTANTIATOR_TYPE);
+
+            for (int i = 0; i < size; ++i) {
+                final FieldDescriptor fieldDescriptor = fieldDescriptors.get(i);
+                final Field field = fieldDescriptor.getField();
+                field.setAccessible(true);
+                mongoNames[i] = fieldDescriptor.getMongoName();
+                fieldIndexes.put(mongoNames[i], i);
+                final Class<?> primitiveType = fieldDescriptor.getPrimitiveType();
+                if (primitiveType != null) {
+                    kinds[i] = kindOf(primitiveType);
+                    setters[i] = lookup.unreflectSetter(field)
+                            .asType(MethodType.methodType(void.class, Object.class, primitiveType));
+                    continue;
+                }
+
+                // no need to call converter that returns its argument as is
+                converters[i] = fieldDescriptor.hasMongoToJavaConversion() ?
+                        fieldDescriptor.getMongoToJavaConverter() : null;
+                setters[i] = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+            }
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("No parameterless constructor in " + dataObjectClass, e);
+        } catch (IllegalAccessException | SecurityException e) {
+            throw new IllegalStateException("Unable to compile cursor mapper for " + dataObjectClass, e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T mapCursor(DBObject cursor, int rowNum) {
+        if (cursor instanceof DecodedObject) {
+            // already decoded by the mappable object decoder
+            return (T) ((DecodedObject) cursor).getObject();
+        }
+
+        final Object instance = newInstance();
+        for (int i = 0; i < setters.length; ++i) {
+            setField(instance, i, cursor.get(mongoNames[i]));
+        }
+        return (T) instance;
+    }
+
+    int getFieldCount() {
+        return setters.length;
+    }
+
+    /**
+     * @param mongoName Name of the document field
+     * @return Index of the mapped field or -1 if the document field is not mapped
+     */
+    int indexOf(String mongoName) {
+        final Integer index = fieldIndexes.get(mongoName);
+        return index != null ? index : -1;
+    }
+
+    Object newInstance() {
+        try {
+            return (Object) instantiator.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Converts the given document field value and sets it to the field with the given index.
+     */
+    void setField(Object instance, int index, Object mongoValue) {
+        switch (kinds[index]) {
+            case OBJECT:
+                break;
+            case BOOLEAN:
+                setBoolean(instance, index, mongoValue != null && (Boolean) mongoValue);
+                return;
+            case DOUBLE:
+                setNumber(instance, index, mongoValue != null ? ((Number) mongoValue).doubleValue() : 0.0);
+                return;
+            default:
+                setNumber(instance, index, mongoValue != null ? ((Number) mongoValue).longValue() : 0L);
+                return;
+        }
+
+        Object value = mongoValue;
+        final Converter<Object, Object> converter = converters[index];
+        if (converter != null) {
+            value = converter.convert(value);
+        }
+
+        try {
+            setters[index].invokeExact(instance, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return True, if the field with the given index is of int, long or double type
+     */
+    boolean isNumber(int index) {
+        final byte kind = kinds[index];
+        return kind == INT || kind == LONG || kind == DOUBLE;
+    }
+
+    /**
+     * @return True, if the field with the given index is of boolean type
+     */
+    boolean isBoolean(int index) {
+        return kinds[index] == BOOLEAN;
+    }
+
+    /**
+     * Sets the integral number to the numeric primitive field with the given index.
+     */
+    void setNumber(Object instance, int index, long value) {
+        try {
+            switch (kinds[index]) {
+                case INT:
+                    setters[index].invokeExact(instance, (int) value);
+                    break;
+                case LONG:
+                    setters[index].invokeExact(instance, value);
+                    break;
+                case DOUBLE:
+                    setters[index].invokeExact(instance, (double) value);
+                    break;
+                default:
+                    throw new IllegalStateException("Field " + mongoNames[index] + " is not numeric");
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Sets the floating point number to the numeric primitive field with the given index.
+     */
+    void setNumber(Object instance, int index, double value) {
+        try {
+            switch (kinds[index]) {
+                case INT:
+                    setters[index].invokeExact(instance, (int) value);
+                    break;
+                case LONG:
+                    setters[index].invokeExact(instance, (long) value);
+                    break;
+                case DOUBLE:
+                    setters[index].invokeExact(instance, value);
+                    break;
+                default:
+                    throw new IllegalStateException("Field " + mongoNames[index] + " is not numeric");
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    void setBoolean(Object instance, int index, boolean value) {
+        try {
+            setters[index].invokeExact(instance, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //
+    // Private
+    //
+
+    private static byte kindOf(Class<?> primitiveType) {
+        if (primitiveType == int.class) {
+            return INT;
+        } else if (primitiveType == long.class) {
+            return LONG;
+        } else if (primitiveType == double.class) {
+            return DOUBLE;
+        }
+        return BOOLEAN;
+    }
+}
@@ -0,0 +1,110 @@
+package org.springframework.mongo.mappable.support;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.springframework.core.convert.converter.Converter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Object serializer that is compiled once per class layout: field getters are resolved to {@link MethodHandle}s
+ * at construction time and the resulting mongo object is presized to the known number of fields.
+ *
+ * @author Alexander Shabanov
+ */
+final class MethodHandleObjectSerializer<T> implements ObjectSerializer<T> {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final String[] mongoNames;
+    private final Converter<Object, Object>[] converters;
+    private final MethodHandle[] getters;
+    private final int initialCapacity;
+
+    private final MethodHandle idGetter;
+    private final Converter<Object, Object> idConverter;
+
+    @SuppressWarnings("unchecked")
+    MethodHandleObjectSerializer(Class<T> dataObjectClass, List<FieldDescriptor> fieldDescriptors,
+                                 FieldDescriptor idFieldDescriptor) {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final List<FieldDescriptor> valueDescriptors = new ArrayList<FieldDescriptor>(fieldDescriptors.size());
+        for (final FieldDescriptor fieldDescriptor : fieldDescriptors) {
+            if (!fieldDescriptor.isId()) {
+                valueDescriptors.add(fieldDescriptor);
+            }
+        }
+
+        final int size = valueDescriptors.size();
+        this.mongoNames = new String[size];
+        this.converters = new Converter[size];
+        this.getters = new MethodHandle[size];
+        // avoid rehashing of the underlying linked hash map
+        this.initialCapacity = (int) (size / 0.75f) + 1;
+
+        try {
+            for (int i = 0; i < size; ++i) {
+                final FieldDescriptor fieldDescriptor = valueDescriptors.get(i);
+                mongoNames[i] = fieldDescriptor.getMongoName();
+                converters[i] = fieldDescriptor.hasJavaToMongoConversion() ?
+                        fieldDescriptor.getJavaToMongoConverter() : null;
+                getters[i] = unreflectGetter(lookup, fieldDescriptor.getField());
+            }
+
+            if (idFieldDescriptor != null) {
+                this.idGetter = unreflectGetter(lookup, idFieldDescriptor.getField());
+                this.idConverter = idFieldDescriptor.getJavaToMongoConverter();
+            } else {
+                this.idGetter = null;
+                this.idConverter = null;
+            }
+        } catch (IllegalAccessException | SecurityException e) {
+            throw new IllegalStateException("Unable to compile serializer for " + dataObjectClass, e);
+        }
+    }
+
+    @Override
+    public DBObject toDBObject(T dataObject) {
+        final BasicDBObject dbObject = new BasicDBObject(initialCapacity);
+        try {
+            for (int i = 0; i < getters.length; ++i) {
+                Object value = (Object) getters[i].invokeExact((Object) dataObject);
+                final Converter<Object, Object> converter = converters[i];
+                if (converter != null) {
+                    value = converter.convert(value);
+                }
+                dbObject.put(mongoNames[i], value);
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+        return dbObject;
+    }
+
+    @Override
+    public Object getMongoId(T dataObject) {
+        if (idGetter == null) {
+            throw new IllegalStateException("id field does not exist in this object");
+        }
+
+        try {
+            return idConverter.convert((Object) idGetter.invokeExact((Object) dataObject));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle unreflectGetter(MethodHandles.Lookup lookup, Field field)
+            throws IllegalAccessException {
+        field.setAccessible(true);
+        return lookup.unreflectGetter(field).asType(GETTER_TYPE);
+    }
+}
@@ -0,0 +1,25 @@
+package org.springframework.mongo.mappable.support;
+
+import com.mongodb.DBObject;
+
+/**
+ * Write-side counterpart of the {@link org.springframework.mongo.core.CursorMapper}, created once per mappable class.
+ *
+ * @author Alexander Shabanov
+ */
+interface ObjectSerializer<T> {
+
+    /**
+     * Converts all the fields of the given object except the id field to their mongo representation.
+     *
+     * @param dataObject Object to be serialized, its class is expected to match the serialized class
+     * @return Mongo object
+     */
+    DBObject toDBObject(T dataObject);
+
+    /**
+     * @param dataObject Object, which id should be extracted
+     * @return Mongo representation of the id field
+     */
+    Object getMongoId(T dataObject);
+}
@@ -0,0 +1,68 @@
+package org.springframework.mongo.mappable.support;
+
+import com.mongodb.DBObject;
+import org.springframework.mongo.support.MongoUtil;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds serialized snapshots of the loaded mappable objects until the objects become unreachable.
+ * Objects are compared by identity, as the mappable objects may define equality by their field values.
+ * Snapshots are deep copies, as the serialized objects share lists and dates with the objects themselves.
+ *
+ * @author Alexander Shabanov
+ */
+final class SnapshotRegistry {
+    private final Map<IdentityKey, DBObject> snapshots = new HashMap<IdentityKey, DBObject>();
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+
+    synchronized void put(Object object, DBObject snapshot) {
+        expungeStaleEntries();
+        snapshots.put(new IdentityKey(object, queue), MongoUtil.deepCopy(snapshot));
+    }
+
+    synchronized DBObject get(Object object) {
+        expungeStaleEntries();
+        return snapshots.get(new IdentityKey(object, null));
+    }
+
+    synchronized int size() {
+        expungeStaleEntries();
+        return snapshots.size();
+    }
+
+    private void expungeStaleEntries() {
+        for (Object key = queue.poll(); key != null; key = queue.poll()) {
+            snapshots.remove(key);
+        }
+    }
+
+    private static final class IdentityKey extends WeakReference<Object> {
+        private final int hash;
+
+        IdentityKey(Object referent, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof IdentityKey)) {
+                return false;
+            }
+            final Object referent = get();
+            return referent != null && referent == ((IdentityKey) other).get();
+        }
+    }
+}
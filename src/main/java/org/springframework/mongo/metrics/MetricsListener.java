@@ -0,0 +1,33 @@
+package org.springframework.mongo.metrics;
+
+/**
+ * Listener, that is notified by {@link org.springframework.mongo.core.support.MongoTemplate} about each
+ * completed operation. Implementations are called on the hot path, so they are expected to neither block
+ * nor allocate.
+ *
+ * @author Alexander Shabanov
+ * @see org.springframework.mongo.metrics.support.JmxMetricsListener
+ */
+public interface MetricsListener {
+
+    /**
+     * Called after completion of the write operation.
+     *
+     * @param collectionName Name of the collection
+     * @param operationType Type of the write operation
+     * @param driverNanos Time spent in the mongo driver, in nanoseconds
+     * @param documents Number of inserted documents or number of documents, affected by update or remove;
+     *                  zero if the write was not acknowledged
+     */
+    void onWrite(String collectionName, OperationType operationType, long driverNanos, int documents);
+
+    /**
+     * Called after the query cursor is closed.
+     *
+     * @param collectionName Name of the collection
+     * @param driverNanos Time spent in the mongo driver while fetching rows, in nanoseconds
+     * @param mappingNanos Time spent in mapping or processing of the fetched rows, in nanoseconds
+     * @param rows Number of rows fetched
+     */
+    void onQuery(String collectionName, long driverNanos, long mappingNanos, int rows);
+}
@@ -0,0 +1,18 @@
+package org.springframework.mongo.metrics;
+
+/**
+ * Type of the operation, reported to the {@link MetricsListener}.
+ *
+ * @author Alexander Shabanov
+ */
+public enum OperationType {
+    INSERT,
+    UPDATE,
+    REMOVE,
+    QUERY,
+
+    /**
+     * Bulk write, documents are counted as the sum of inserted, matched, removed and upserted ones.
+     */
+    BULK_WRITE
+}
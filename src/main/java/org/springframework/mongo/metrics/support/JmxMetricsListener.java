@@ -0,0 +1,170 @@
+package org.springframework.mongo.metrics.support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mongo.metrics.MetricsListener;
+import org.springframework.mongo.metrics.OperationType;
+import org.springframework.util.Assert;
+
+import javax.annotation.PreDestroy;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Builtin {@link MetricsListener}, that collects latency histograms and document counts per collection and
+ * operation type and exposes them as {@link OperationStatsMXBean}s.
+ * Statistics objects are created and registered in the MBean server on the first operation on the collection,
+ * subsequent operations only update atomic counters. Registration failures are logged and never fail the operation;
+ * listeners, sharing the MBean server, should be given distinct names, so that their MBeans do not clash.
+ * Operations on the mappable classes are reported per collection of the class.
+ *
+ * <p>Sample usage:
+ * <pre>
+ * final MongoTemplate template = new MongoTemplate(db);
+ * final JmxMetricsListener listener = new JmxMetricsListener();
+ * listener.setName("profiles");
+ * template.setMetricsListener(listener);
+ * </pre>
+ *
+ * @author Alexander Shabanov
+ */
+public final class JmxMetricsListener implements MetricsListener {
+    /**
+     * Default domain of the registered MBeans.
+     */
+    public static final String DEFAULT_DOMAIN = "org.springframework.mongo";
+
+    private static final Logger LOG = LoggerFactory.getLogger(JmxMetricsListener.class);
+
+    private final ConcurrentMap<String, OperationStats[]> collectionStats =
+            new ConcurrentHashMap<String, OperationStats[]>();
+
+    private final List<ObjectName> registeredNames = new ArrayList<ObjectName>();
+
+    private MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    private String domain = DEFAULT_DOMAIN;
+
+    private String name;
+
+    public MBeanServer getMBeanServer() {
+        return mbeanServer;
+    }
+
+    /**
+     * @param mbeanServer MBean server, null if statistics should not be exposed over JMX
+     */
+    public void setMBeanServer(MBeanServer mbeanServer) {
+        this.mbeanServer = mbeanServer;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public void setDomain(String domain) {
+        Assert.hasText(domain, "domain can not be empty");
+        this.domain = domain;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param name Name of this listener, that is added to the names of the registered MBeans, or null
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public void onWrite(String collectionName, OperationType operationType, long driverNanos, int documents) {
+        getStats(collectionName)[operationType.ordinal()].record(driverNanos, 0L, documents);
+    }
+
+    @Override
+    public void onQuery(String collectionName, long driverNanos, long mappingNanos, int rows) {
+        getStats(collectionName)[OperationType.QUERY.ordinal()].record(driverNanos, mappingNanos, rows);
+    }
+
+    /**
+     * @param collectionName Name of the collection
+     * @param operationType Type of the operation
+     * @return Statistics of the given operation on the given collection
+     */
+    public OperationStatsMXBean getOperationStats(String collectionName, OperationType operationType) {
+        return getStats(collectionName)[operationType.ordinal()];
+    }
+
+    /**
+     * Unregisters all the MBeans, registered by this listener.
+     */
+    @PreDestroy
+    public void destroy() {
+        synchronized (registeredNames) {
+            for (final ObjectName name : registeredNames) {
+                try {
+                    mbeanServer.unregisterMBean(name);
+                } catch (JMException ignored) {
+                    // already unregistered
+                }
+            }
+            registeredNames.clear();
+        }
+    }
+
+    //
+    // Private
+    //
+
+    private OperationStats[] getStats(String collectionName) {
+        final OperationStats[] stats = collectionStats.get(collectionName);
+        if (stats != null) {
+            return stats;
+        }
+
+        final OperationType[] operationTypes = OperationType.values();
+        final OperationStats[] newStats = new OperationStats[operationTypes.length];
+        for (final OperationType operationType : operationTypes) {
+            newStats[operationType.ordinal()] = new OperationStats(collectionName, operationType);
+        }
+
+        final OperationStats[] existingStats = collectionStats.putIfAbsent(collectionName, newStats);
+        if (existingStats != null) {
+            return existingStats;
+        }
+
+        register(newStats);
+        return newStats;
+    }
+
+    private void register(OperationStats[] stats) {
+        if (mbeanServer == null) {
+            return;
+        }
+
+        synchronized (registeredNames) {
+            for (final OperationStats operationStats : stats) {
+                try {
+                    final ObjectName objectName = new ObjectName(domain + ":type=OperationStats," +
+                            (name != null ? "listener=" + ObjectName.quote(name) + "," : "") +
+                            "collection=" + ObjectName.quote(operationStats.getCollectionName()) +
+                            ",operation=" + operationStats.getOperationType());
+                    mbeanServer.registerMBean(operationStats, objectName);
+                    registeredNames.add(objectName);
+                } catch (JMException e) {
+                    // statistics are still collected and available from this listener
+                    LOG.warn("Unable to register statistics of the collection " +
+                            operationStats.getCollectionName() + " in the MBean server", e);
+                }
+            }
+        }
+    }
+}
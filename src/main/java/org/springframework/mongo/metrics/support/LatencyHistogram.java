@@ -0,0 +1,75 @@
+package org.springframework.mongo.metrics.support;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies with power of two buckets: the bucket {@code i} holds values
+ * in range {@code [2^(i-1), 2^i)} nanoseconds. Recording does not allocate.
+ *
+ * @author Alexander Shabanov
+ */
+final class LatencyHistogram {
+    private static final int BUCKET_COUNT = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long nanos) {
+        final long value = Math.max(0L, nanos);
+        buckets.incrementAndGet(Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(value)));
+        count.incrementAndGet();
+        total.addAndGet(value);
+
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    long getCount() {
+        return count.get();
+    }
+
+    long getTotal() {
+        return total.get();
+    }
+
+    long getMax() {
+        return max.get();
+    }
+
+    long getMean() {
+        final long n = count.get();
+        return n > 0 ? total.get() / n : 0L;
+    }
+
+    /**
+     * @param quantile Quantile, e.g. 0.99
+     * @return Upper bound of the bucket, that contains the given quantile, in nanoseconds
+     */
+    long getQuantile(double quantile) {
+        final long[] snapshot = new long[BUCKET_COUNT];
+        long n = 0;
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            snapshot[i] = buckets.get(i);
+            n += snapshot[i];
+        }
+
+        if (n == 0) {
+            return 0L;
+        }
+
+        final long rank = (long) Math.ceil(quantile * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(i == 0 ? 0L : (1L << i) - 1L, getMax());
+            }
+        }
+        return getMax();
+    }
+}
@@ -0,0 +1,91 @@
+package org.springframework.mongo.metrics.support;
+
+import org.springframework.mongo.metrics.OperationType;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of one operation type on one collection.
+ *
+ * @author Alexander Shabanov
+ */
+final class OperationStats implements OperationStatsMXBean {
+    private final String collectionName;
+    private final OperationType operationType;
+    private final LatencyHistogram driverTime = new LatencyHistogram();
+    private final LatencyHistogram mappingTime = new LatencyHistogram();
+    private final AtomicLong documents = new AtomicLong();
+
+    OperationStats(String collectionName, OperationType operationType) {
+        this.collectionName = collectionName;
+        this.operationType = operationType;
+    }
+
+    void record(long driverNanos, long mappingNanos, int documentCount) {
+        driverTime.record(driverNanos);
+        if (operationType == OperationType.QUERY) {
+            mappingTime.record(mappingNanos);
+        }
+        documents.addAndGet(documentCount);
+    }
+
+    @Override
+    public String getCollectionName() {
+        return collectionName;
+    }
+
+    @Override
+    public String getOperationType() {
+        return operationType.name();
+    }
+
+    @Override
+    public long getOperationCount() {
+        return driverTime.getCount();
+    }
+
+    @Override
+    public long getDocumentCount() {
+        return documents.get();
+    }
+
+    @Override
+    public long getDriverTimeMeanMicros() {
+        return toMicros(driverTime.getMean());
+    }
+
+    @Override
+    public long getDriverTimeMaxMicros() {
+        return toMicros(driverTime.getMax());
+    }
+
+    @Override
+    public long getDriverTime50thPercentileMicros() {
+        return toMicros(driverTime.getQuantile(0.5));
+    }
+
+    @Override
+    public long getDriverTime99thPercentileMicros() {
+        return toMicros(driverTime.getQuantile(0.99));
+    }
+
+    @Override
+    public long getMappingTimeMeanMicros() {
+        return toMicros(mappingTime.getMean());
+    }
+
+    @Override
+    public long getMappingTimeMaxMicros() {
+        return toMicros(mappingTime.getMax());
+    }
+
+    @Override
+    public long getMappingTime99thPercentileMicros() {
+        return toMicros(mappingTime.getQuantile(0.99));
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,34 @@
+package org.springframework.mongo.metrics.support;
+
+/**
+ * JMX view of the statistics of one operation type on one collection. Times are reported in microseconds,
+ * percentiles are upper bounds of the power of two histogram buckets.
+ *
+ * @author Alexander Shabanov
+ */
+public interface OperationStatsMXBean {
+    String getCollectionName();
+
+    String getOperationType();
+
+    long getOperationCount();
+
+    /**
+     * @return Number of documents, written by the write operations or rows, fetched by the queries
+     */
+    long getDocumentCount();
+
+    long getDriverTimeMeanMicros();
+
+    long getDriverTimeMaxMicros();
+
+    long getDriverTime50thPercentileMicros();
+
+    long getDriverTime99thPercentileMicros();
+
+    long getMappingTimeMeanMicros();
+
+    long getMappingTimeMaxMicros();
+
+    long getMappingTime99thPercentileMicros();
+}
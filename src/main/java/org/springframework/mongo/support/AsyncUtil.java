@@ -0,0 +1,288 @@
+package org.springframework.mongo.support;
+
+import com.mongodb.MongoException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.mongo.UncategorizedMongoException;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Helper class that provides static methods to run mongo operations asynchronously.
+ *
+ * @author Alexander Shabanov
+ */
+public final class AsyncUtil {
+    /**
+     * Default maximum number of threads, blocked in the mongo driver calls.
+     */
+    public static final int DEFAULT_POOL_SIZE = 16;
+
+    /**
+     * Default maximum number of operations, waiting for the free thread.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    private AsyncUtil() {
+    }
+
+    /**
+     * Creates executor for the asynchronous mongo operations: virtual thread per task executor if the JVM
+     * supports virtual threads, bounded pool of the daemon threads otherwise. Both executors run at most
+     * poolSize operations at once, so that the driver connection pool is not exhausted, and reject operations
+     * once queueCapacity operations are waiting.
+     *
+     * @param poolSize Maximum number of the concurrently running operations
+     * @param queueCapacity Maximum number of operations, waiting for the running ones to complete
+     * @param virtualThreadsEnabled True, if virtual threads should be used when available
+     * @return New executor service, that should be shut down by the caller
+     */
+    public static ExecutorService newExecutor(int poolSize, int queueCapacity, boolean virtualThreadsEnabled) {
+        if (virtualThreadsEnabled) {
+            try {
+                final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return new BoundedExecutorService((ExecutorService) factory.invoke(null), poolSize, queueCapacity);
+            } catch (ReflectiveOperationException ignored) {
+                // virtual threads are not supported by this JVM
+            }
+        }
+
+        final AtomicInteger counter = new AtomicInteger();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                final Thread thread = new Thread(runnable, "mongo-async-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Runs the given task on the given executor. Cancellation of the returned future cancels the task,
+     * interrupting it if it is already running. Mongo exceptions are translated to the data access exceptions,
+     * errors complete the future exceptionally as well, rejection of the task by the executor results in
+     * {@link TaskRejectedException}.
+     *
+     * @param executor Executor
+     * @param task Task to be executed
+     * @param <T> Type of the task result
+     * @return Future, completed with the result of the task
+     */
+    public static <T> CompletableFuture<T> submit(Executor executor, final Callable<T> task) {
+        final TaskFuture<T> result = new TaskFuture<T>();
+        final FutureTask<Void> futureTask = new FutureTask<Void>(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    result.complete(task.call());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e instanceof Exception ? translateException((Exception) e) : e);
+                }
+            }
+        }, null);
+        result.setTask(futureTask);
+
+        try {
+            executor.execute(futureTask);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new TaskRejectedException("Mongo operation rejected by " + executor, e));
+        }
+        return result;
+    }
+
+    /**
+     * @param e Exception, thrown by the mongo operation
+     * @return Data access exception or the given exception if it can not be translated
+     */
+    public static Exception translateException(Exception e) {
+        if (e instanceof DataAccessException || !(e instanceof MongoException)) {
+            return e;
+        } else if (e instanceof MongoException.DuplicateKey) {
+            return new DuplicateKeyException("Mongo PK violation", e);
+        }
+        return new UncategorizedMongoException("Mongo operation failed", e);
+    }
+
+    /**
+     * Executor settings of the asynchronous templates: either the given executor, that is not shut down,
+     * or the own one, created by {@link #newExecutor(int, int, boolean)} on {@link #start()}.
+     */
+    public static final class ExecutorHolder {
+        private Executor executor;
+        private ExecutorService ownExecutor;
+        private int poolSize = DEFAULT_POOL_SIZE;
+        private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        private boolean virtualThreadsEnabled = true;
+
+        public Executor getExecutor() {
+            return executor;
+        }
+
+        public void setExecutor(Executor executor) {
+            this.executor = executor;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            Assert.isTrue(poolSize > 0, "poolSize should be positive");
+            this.poolSize = poolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            Assert.isTrue(queueCapacity > 0, "queueCapacity should be positive");
+            this.queueCapacity = queueCapacity;
+        }
+
+        public boolean isVirtualThreadsEnabled() {
+            return virtualThreadsEnabled;
+        }
+
+        public void setVirtualThreadsEnabled(boolean virtualThreadsEnabled) {
+            this.virtualThreadsEnabled = virtualThreadsEnabled;
+        }
+
+        /**
+         * Creates the own executor, if the executor was not given.
+         */
+        public void start() {
+            if (executor == null) {
+                ownExecutor = newExecutor(poolSize, queueCapacity, virtualThreadsEnabled);
+                executor = ownExecutor;
+            }
+        }
+
+        /**
+         * Shuts down the own executor, if any.
+         */
+        public void shutdown() {
+            if (ownExecutor != null) {
+                ownExecutor.shutdown();
+            }
+        }
+
+        public <T> CompletableFuture<T> submit(Callable<T> task) {
+            Assert.state(executor != null, "init() should be called prior to executing operations");
+            return AsyncUtil.submit(executor, task);
+        }
+    }
+
+    /**
+     * Executor, that limits the number of the concurrently running and waiting tasks of the unbounded executor,
+     * e.g. the virtual thread per task one. Waiting tasks hold their threads, that are cheap for virtual threads.
+     */
+    static final class BoundedExecutorService extends AbstractExecutorService {
+        private final ExecutorService delegate;
+        private final Semaphore running;
+        private final Semaphore admitted;
+
+        BoundedExecutorService(ExecutorService delegate, int poolSize, int queueCapacity) {
+            this.delegate = delegate;
+            this.running = new Semaphore(poolSize);
+            this.admitted = new Semaphore(poolSize + queueCapacity);
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            if (!admitted.tryAcquire()) {
+                throw new RejectedExecutionException("Too many pending mongo operations");
+            }
+            try {
+                delegate.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            running.acquire();
+                        } catch (InterruptedException e) {
+                            admitted.release();
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        try {
+                            command.run();
+                        } finally {
+                            running.release();
+                            admitted.release();
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                admitted.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+
+    /**
+     * Future, that cancels the underlying task on cancellation.
+     */
+    private static final class TaskFuture<T> extends CompletableFuture<T> {
+        private volatile FutureTask<?> task;
+
+        void setTask(FutureTask<?> task) {
+            this.task = task;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            final boolean cancelled = super.cancel(mayInterruptIfRunning);
+            final FutureTask<?> currentTask = task;
+            if (cancelled && currentTask != null) {
+                currentTask.cancel(true);
+            }
+            return cancelled;
+        }
+    }
+}
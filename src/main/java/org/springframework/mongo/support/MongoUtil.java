@@ -1,14 +1,31 @@
 package org.springframework.mongo.support;
 
+import com.mongodb.BasicDBList;
 import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteException;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.BulkWriteResult;
 import com.mongodb.DBObject;
 import com.mongodb.MongoException;
+import com.mongodb.WriteConcern;
 import com.mongodb.WriteResult;
+import org.bson.types.MaxKey;
+import org.bson.types.MinKey;
 import org.bson.types.ObjectId;
+import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.mongo.BulkDuplicateKeyException;
+import org.springframework.mongo.UncategorizedBulkWriteException;
 import org.springframework.mongo.UncategorizedMongoException;
+import org.springframework.mongo.core.BulkResult;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Helper class that provides static methods to ease work with the mongo-related stuff such as ID extraction,
@@ -39,12 +56,20 @@ public final class MongoUtil {
                 .append(ID, new ObjectId(id, false));
     }
 
+    /**
+     * @param dbObject Object with the {@code _id} field
+     * @return String representation of the id: hex string for {@link ObjectId}s, as is for the strings, numbers
+     * and UUIDs
+     */
     public static String extractId(DBObject dbObject) {
         final Object idObject = dbObject.get(ID);
         if (idObject == null) {
             throw new DataIntegrityViolationException("No ID field in dbObject=" + dbObject);
         } else if (idObject instanceof ObjectId) {
             return ((ObjectId) idObject).toStringMongod();
+        } else if (idObject instanceof String || idObject instanceof Long || idObject instanceof Integer ||
+                idObject instanceof UUID) {
+            return idObject.toString();
         }
 
         throw new DataIntegrityViolationException("Unrecognized ID field in dbObject=" + dbObject);
@@ -53,6 +78,11 @@ public final class MongoUtil {
     public static WriteResult executeWriteOperation(MongoWriteOperation writeOperation) {
         try {
             final WriteResult result = writeOperation.execute();
+            if (!isAcknowledged(result)) {
+                // getLastError would cost an additional round trip
+                return result;
+            }
+
             final MongoException mongoException = result.getLastError().getException();
             if (mongoException != null) {
                 throw mongoException;
@@ -66,12 +96,184 @@ public final class MongoUtil {
         }
     }
 
+    /**
+     * Executes the bulk write operation, translating its errors to the data access exceptions.
+     * Failure of any queued operation with the duplicate key error results in {@link DuplicateKeyException},
+     * the original {@link BulkWriteException}, available as a cause, contains result of the operations that
+     * succeeded and errors of all the failed ones.
+     *
+     * @param bulkWriteOperation Bulk write operation
+     * @param writeConcern Write concern
+     * @return Bulk write result
+     */
+    public static BulkWriteResult executeBulkWriteOperation(BulkWriteOperation bulkWriteOperation,
+                                                            WriteConcern writeConcern) {
+        try {
+            return bulkWriteOperation.execute(writeConcern);
+        } catch (BulkWriteException e) {
+            throw translateBulkWriteException(e, null);
+        } catch (MongoException e) {
+            throw new UncategorizedMongoException("Unable to execute bulk write", e);
+        }
+    }
+
+    /**
+     * @param e Exception, thrown by the bulk write
+     * @param bulkResult Result of the operations, known from the exception, or null
+     * @return {@link BulkDuplicateKeyException} if any of the operations failed with duplicate key error,
+     * {@link UncategorizedBulkWriteException} otherwise
+     */
+    public static DataAccessException translateBulkWriteException(BulkWriteException e, BulkResult bulkResult) {
+        for (final BulkWriteError error : e.getWriteErrors()) {
+            if (isDuplicateKeyError(error.getCode())) {
+                return new BulkDuplicateKeyException("Mongo PK violation in bulk operation #" + error.getIndex(),
+                        e, bulkResult);
+            }
+        }
+        return new UncategorizedBulkWriteException("Bulk write failed, errors=" + e.getWriteErrors() +
+                ", writeConcernError=" + e.getWriteConcernError(), e, bulkResult);
+    }
+
+    /**
+     * Estimates size of the given object in the BSON encoding without actually encoding it.
+     * The estimation is exact for the documents, that contain strings, numbers, booleans, dates, object ids,
+     * binary data, embedded documents and lists; values of the other types are assumed to take 16 bytes.
+     *
+     * @param dbObject Object, which size should be estimated
+     * @return Estimated size of the encoded object in bytes
+     */
+    public static int estimateBsonSize(DBObject dbObject) {
+        int size = 4 + 1; // document length and trailing zero
+        for (final String key : dbObject.keySet()) {
+            size += estimateElementSize(key, dbObject.get(key));
+        }
+        return size;
+    }
+
+    /**
+     * Copies the given document along with its mutable values: embedded documents, maps, lists, dates and binary
+     * arrays, so that in-place changes of the original values are not visible in the copy. Immutable values
+     * are shared.
+     *
+     * @param dbObject Document to be copied
+     * @return Copy of the document
+     */
+    public static DBObject deepCopy(DBObject dbObject) {
+        final BasicDBObject result = new BasicDBObject();
+        for (final String key : dbObject.keySet()) {
+            result.put(key, deepCopyValue(dbObject.get(key)));
+        }
+        return result;
+    }
+
+    /**
+     * @param result Result of the write operation
+     * @return True, if the write operation was acknowledged by the server, false otherwise
+     */
+    public static boolean isAcknowledged(WriteResult result) {
+        final WriteConcern concern = result.getLastConcern();
+        return concern == null || concern.callGetLastError();
+    }
+
     public static void expectOneUpdate(WriteResult result) {
+        if (!isAcknowledged(result)) {
+            return; // number of updated records is unknown
+        }
+
         if (result.getN() == 0) {
             throw new IncorrectUpdateSemanticsDataAccessException("Update failed: " +
                     "expecting to update exactly one record, result=" + result);
         }
     }
 
+    //
+    // Private
+    //
+
+    private static boolean isDuplicateKeyError(int code) {
+        return code == 11000 || code == 11001 || code == 12582;
+    }
+
+    private static Object deepCopyValue(Object value) {
+        if (value instanceof List) {
+            final List<?> list = (List<?>) value;
+            final BasicDBList result = new BasicDBList();
+            for (final Object element : list) {
+                result.add(deepCopyValue(element));
+            }
+            return result;
+        } else if (value instanceof DBObject) {
+            return deepCopy((DBObject) value);
+        } else if (value instanceof Map) {
+            final BasicDBObject result = new BasicDBObject();
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                result.put(String.valueOf(entry.getKey()), deepCopyValue(entry.getValue()));
+            }
+            return result;
+        } else if (value instanceof Date) {
+            return new Date(((Date) value).getTime());
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        }
+        return value;
+    }
+
+    private static int estimateElementSize(String key, Object value) {
+        // type byte, key as a C string and the value itself
+        return 1 + estimateCStringSize(key) + estimateValueSize(value);
+    }
+
+    private static int estimateValueSize(Object value) {
+        if (value == null || value instanceof MinKey || value instanceof MaxKey) {
+            return 0;
+        } else if (value instanceof String) {
+            return 4 + estimateCStringSize((String) value);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return 4;
+        } else if (value instanceof Number || value instanceof Date) {
+            return 8;
+        } else if (value instanceof Boolean) {
+            return 1;
+        } else if (value instanceof ObjectId) {
+            return 12;
+        } else if (value instanceof byte[]) {
+            return 4 + 1 + ((byte[]) value).length;
+        } else if (value instanceof DBObject) {
+            return estimateBsonSize((DBObject) value);
+        } else if (value instanceof Map) {
+            int size = 4 + 1;
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += estimateElementSize(String.valueOf(entry.getKey()), entry.getValue());
+            }
+            return size;
+        } else if (value instanceof Iterable) {
+            int size = 4 + 1;
+            int index = 0;
+            for (final Object element : (Iterable<?>) value) {
+                size += estimateElementSize(Integer.toString(index++), element);
+            }
+            return size;
+        }
+        return 16;
+    }
+
+    private static int estimateCStringSize(String value) {
+        int size = 1; // trailing zero
+        for (int i = 0; i < value.length(); ++i) {
+            final char ch = value.charAt(i);
+            if (ch < 0x80) {
+                size += 1;
+            } else if (ch < 0x800) {
+                size += 2;
+            } else if (Character.isHighSurrogate(ch)) {
+                size += 4; // surrogate pair takes 4 bytes in total
+                ++i;
+            } else {
+                size += 3;
+            }
+        }
+        return size;
+    }
+
     private MongoUtil() {}
 }
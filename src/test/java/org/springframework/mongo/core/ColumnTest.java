@@ -0,0 +1,94 @@
+package org.springframework.mongo.core;
+
+import com.mongodb.BasicDBObject;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public final class ColumnTest {
+
+    @Test
+    public void shouldGrowAndTrackNulls() {
+        final LongColumn column = new LongColumn("n");
+        final int rows = Column.INITIAL_CAPACITY * 3 + 5;
+        for (int i = 0; i < rows; ++i) {
+            column.add(i % 7 == 0 ? null : (Object) i);
+        }
+
+        assertEquals(rows, column.size());
+        for (int i = 0; i < rows; ++i) {
+            assertEquals(i % 7 == 0, column.isNull(i));
+            assertEquals(i % 7 == 0 ? 0L : i, column.get(i));
+        }
+        assertEquals(rows, column.toArray().length);
+    }
+
+    @Test
+    public void shouldTrackFirstNullAfterManyRows() {
+        final IntColumn column = new IntColumn("n");
+        for (int i = 0; i < 200; ++i) {
+            column.add(i);
+        }
+        assertFalse(column.isNull(99));
+        column.add(null);
+
+        assertEquals(201, column.size());
+        assertTrue(column.isNull(200));
+        assertFalse(column.isNull(199));
+    }
+
+    @Test
+    public void shouldReadNestedFields() {
+        final StringColumn column = new StringColumn("address.city");
+        column.addFrom(new BasicDBObject("address", new BasicDBObject("city", "Paris")));
+        column.addFrom(new BasicDBObject("address", "unknown"));
+        column.addFrom(new BasicDBObject());
+
+        assertEquals("Paris", column.get(0));
+        assertTrue(column.isNull(1));
+        assertTrue(column.isNull(2));
+    }
+
+    @Test
+    public void shouldConvertNumbers() {
+        final LongColumn longs = new LongColumn("n");
+        final IntColumn ints = new IntColumn("n");
+        final DoubleColumn doubles = new DoubleColumn("n");
+        for (final Object value : new Object[] { 1, 2L, 3.5 }) {
+            longs.add(value);
+            ints.add(value);
+            doubles.add(value);
+        }
+
+        assertArrayEquals(new long[] { 1L, 2L, 3L }, longs.toArray());
+        assertArrayEquals(new int[] { 1, 2, 3 }, ints.toArray());
+        assertArrayEquals(new double[] { 1.0, 2.0, 3.5 }, doubles.toArray(), 0.0);
+    }
+
+    @Test
+    public void shouldConvertStrings() {
+        final StringColumn column = new StringColumn("s");
+        final ObjectId id = new ObjectId();
+        column.add("a");
+        column.add(null);
+        column.add(id);
+
+        assertEquals("a", column.get(0));
+        assertNull(column.get(1));
+        assertTrue(column.isNull(1));
+        assertFalse(column.isNull(2));
+        assertEquals(id.toString(), column.get(2));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldRejectMissingRow() {
+        final IntColumn column = new IntColumn("n");
+        column.add(1);
+        column.get(1);
+    }
+}
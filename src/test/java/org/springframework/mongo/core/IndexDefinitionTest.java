@@ -0,0 +1,59 @@
+package org.springframework.mongo.core;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class IndexDefinitionTest {
+
+    @Test
+    public void shouldMatchIndexInfo() {
+        final IndexDefinition index = new IndexDefinition(new BasicDBObject("page", 1).append("time", -1))
+                .unique(true).background(true);
+        final DBObject indexInfo = new BasicDBObject("name", "page_1_time_-1")
+                .append("key", new BasicDBObject("page", 1.0).append("time", -1.0))
+                .append("unique", true);
+
+        assertEquals(Collections.<String>emptyList(), index.getDifferences(indexInfo));
+    }
+
+    @Test
+    public void shouldDescribeDifferences() {
+        final IndexDefinition index = new IndexDefinition(new BasicDBObject("time", 1))
+                .name("visitExpiry").expireAfter(1, TimeUnit.DAYS);
+        final DBObject indexInfo = new BasicDBObject("name", "visitExpiry")
+                .append("key", new BasicDBObject("time", -1))
+                .append("sparse", true)
+                .append("expireAfterSeconds", 3600);
+
+        assertEquals(Arrays.asList("key { \"time\" : -1} instead of { \"time\" : 1}", "sparse true instead of false",
+                "expireAfterSeconds 3600 instead of 86400"), index.getDifferences(indexInfo));
+    }
+
+    @Test
+    public void shouldCompareKeysInOrder() {
+        final IndexDefinition index = new IndexDefinition(new BasicDBObject("page", 1).append("time", -1));
+        assertTrue(index.isSameKeys(new BasicDBObject("page", 1).append("time", -1L)));
+        assertFalse(index.isSameKeys(new BasicDBObject("time", -1).append("page", 1)));
+        assertFalse(index.isSameKeys(new BasicDBObject("page", 1)));
+        assertFalse(index.isSameKeys(new BasicDBObject("page", "hashed").append("time", -1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectEmptyKeys() {
+        new IndexDefinition(new BasicDBObject());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectCompoundTtlIndex() {
+        new IndexDefinition(new BasicDBObject("page", 1).append("time", -1)).expireAfter(1, TimeUnit.DAYS);
+    }
+}
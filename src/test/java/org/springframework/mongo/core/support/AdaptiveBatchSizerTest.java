@@ -0,0 +1,65 @@
+package org.springframework.mongo.core.support;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCursor;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
+import static org.springframework.mongo.support.MongoUtil.estimateBsonSize;
+
+public final class AdaptiveBatchSizerTest {
+
+    @Test
+    public void shouldGrowBatchForSmallFastDocuments() {
+        final DBCursor cursor = mock(DBCursor.class);
+        final AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(cursor, 100);
+        for (int i = 0; i < 100; ++i) {
+            sizer.onDocument(new BasicDBObject("n", i), System.nanoTime());
+        }
+        sizer.onBatch(1000L * 1000L); // 1ms per batch
+
+        assertTrue(sizer.getBatchSize() > 100);
+        verify(cursor).batchSize(sizer.getBatchSize());
+    }
+
+    @Test
+    public void shouldShrinkBatchForSlowDocuments() {
+        final DBCursor cursor = mock(DBCursor.class);
+        final AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(cursor, 1000);
+        for (int i = 0; i < 1000; ++i) {
+            sizer.onDocument(new BasicDBObject("n", i), System.nanoTime());
+        }
+        sizer.onBatch(10L * 1000L * 1000L * 1000L); // 10s per batch
+
+        assertEquals((1000 + 10) / 2, sizer.getBatchSize());
+    }
+
+    @Test
+    public void shouldExtrapolateSampledDocumentSize() {
+        final DBCursor cursor = mock(DBCursor.class);
+        final AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(cursor, 1000);
+        final BasicDBObject document = new BasicDBObject("text", new String(new char[64 * 1024]));
+        for (int i = 0; i < 1000; ++i) {
+            sizer.onDocument(document, System.nanoTime());
+        }
+        sizer.onBatch(1000L); // latency does not limit the batch
+
+        assertEquals((1000 + AdaptiveBatchSizer.TARGET_BATCH_BYTES / estimateBsonSize(document)) / 2,
+                sizer.getBatchSize());
+    }
+
+    @Test
+    public void shouldDetectBatchByGetMoreCounter() {
+        final DBCursor cursor = mock(DBCursor.class);
+        when(cursor.numGetMores()).thenReturn(0, 0, 1);
+        final AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(cursor, 0);
+        sizer.onDocument(new BasicDBObject("n", 1), System.nanoTime());
+        sizer.onDocument(new BasicDBObject("n", 2), System.nanoTime());
+        verify(cursor, never()).batchSize(anyInt());
+
+        sizer.onDocument(new BasicDBObject("n", 3), System.nanoTime());
+        verify(cursor).batchSize(anyInt());
+    }
+}
@@ -0,0 +1,116 @@
+package org.springframework.mongo.core.support;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mongo.UncategorizedMongoException;
+import org.springframework.mongo.core.MongoOperations;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
+
+public final class AsyncMongoTemplateTest {
+    private final DBObject profile = new BasicDBObject("name", "bob");
+    private MongoOperations mo;
+    private AsyncMongoTemplate template;
+
+    @Before
+    public void init() {
+        mo = mock(MongoOperations.class);
+        template = new AsyncMongoTemplate(mo);
+        template.setPoolSize(2);
+        template.init();
+    }
+
+    @After
+    public void destroy() {
+        template.destroy();
+    }
+
+    @Test
+    public void shouldCompleteWithResult() throws Exception {
+        when(mo.insert("Profile", profile)).thenReturn("1");
+        assertEquals("1", template.insert("Profile", profile).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldTranslateMongoException() throws Exception {
+        when(mo.insert("Profile", profile)).thenThrow(new MongoException("failure"));
+        try {
+            template.insert("Profile", profile).get(1, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof UncategorizedMongoException);
+            return;
+        }
+        throw new AssertionError("ExecutionException expected");
+    }
+
+    @Test
+    public void shouldCompleteWithError() throws Exception {
+        when(mo.insert("Profile", profile)).thenThrow(new StackOverflowError());
+        try {
+            template.insert("Profile", profile).get(1, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof StackOverflowError);
+            return;
+        }
+        throw new AssertionError("ExecutionException expected");
+    }
+
+    @Test
+    public void shouldCancelRunningOperation() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        when(mo.insert("Profile", profile)).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) {
+                started.countDown();
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return "1";
+            }
+        });
+
+        final CompletableFuture<String> future = template.insert("Profile", profile);
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        assertTrue(future.cancel(true));
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldFailRejectedOperation() {
+        final AsyncMongoTemplate rejecting = new AsyncMongoTemplate(mo);
+        rejecting.setExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        });
+        rejecting.init();
+
+        final CompletableFuture<String> future = rejecting.insert("Profile", profile);
+        assertTrue(future.isCompletedExceptionally());
+        try {
+            future.join();
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof TaskRejectedException);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.springframework.mongo.core.support;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.mongo.core.CursorMapper;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+public final class CursorIteratorTest {
+    private static final int BATCH_SIZE = 20;
+
+    @Test
+    public void shouldMeasureLatencyOfGetMore() {
+        final DBCursor cursor = mock(DBCursor.class);
+        final AtomicInteger fetched = new AtomicInteger();
+        final AtomicInteger getMores = new AtomicInteger();
+        when(cursor.hasNext()).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) throws InterruptedException {
+                if (fetched.get() == BATCH_SIZE && getMores.get() == 0) {
+                    Thread.sleep(200L); // slow second batch
+                    getMores.incrementAndGet();
+                }
+                return fetched.get() < 2 * BATCH_SIZE;
+            }
+        });
+        when(cursor.next()).thenAnswer(new Answer<DBObject>() {
+            @Override
+            public DBObject answer(InvocationOnMock invocation) {
+                return new BasicDBObject("n", fetched.getAndIncrement());
+            }
+        });
+        when(cursor.numGetMores()).thenAnswer(new Answer<Integer>() {
+            @Override
+            public Integer answer(InvocationOnMock invocation) {
+                return getMores.get();
+            }
+        });
+
+        final AdaptiveBatchSizer batchSizer = new AdaptiveBatchSizer(cursor, BATCH_SIZE);
+        final CursorIterator<DBObject> iterator = new CursorIterator<DBObject>(cursor, new CursorMapper<DBObject>() {
+            @Override
+            public DBObject mapCursor(DBObject cursor, int rowNum) {
+                return cursor;
+            }
+        }, batchSizer, "Profile", null);
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            ++count;
+        }
+
+        assertEquals(2 * BATCH_SIZE, count);
+        // 10ms per document is measured, so that the batch shrinks
+        assertEquals(AdaptiveBatchSizer.MIN_BATCH_SIZE, batchSizer.getBatchSize());
+        verify(cursor).close();
+    }
+}
@@ -0,0 +1,127 @@
+package org.springframework.mongo.core.support;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkUpdateRequestBuilder;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteException;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.BulkWriteRequestBuilder;
+import com.mongodb.BulkWriteResult;
+import com.mongodb.BulkWriteUpsert;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.WriteConcern;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mongo.BulkDuplicateKeyException;
+import org.springframework.mongo.UncategorizedBulkWriteException;
+import org.springframework.mongo.core.BulkOperationResult;
+import org.springframework.mongo.core.BulkOperationType;
+import org.springframework.mongo.core.BulkResult;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests results of the bulk operations without database.
+ */
+public final class DefaultBulkOperationsTest {
+    private BulkWriteOperation bulkWriteOperation;
+    private BulkWriteResult writeResult;
+
+    @Before
+    public void init() {
+        bulkWriteOperation = mock(BulkWriteOperation.class);
+        final BulkWriteRequestBuilder requestBuilder = mock(BulkWriteRequestBuilder.class);
+        when(requestBuilder.upsert()).thenReturn(mock(BulkUpdateRequestBuilder.class));
+        when(bulkWriteOperation.find(any(DBObject.class))).thenReturn(requestBuilder);
+        writeResult = mock(BulkWriteResult.class);
+        when(writeResult.isAcknowledged()).thenReturn(true);
+        when(writeResult.getUpserts()).thenReturn(Collections.<BulkWriteUpsert>emptyList());
+    }
+
+    @Test
+    public void shouldReturnOperationResults() {
+        when(writeResult.getInsertedCount()).thenReturn(1);
+        when(writeResult.getUpserts()).thenReturn(Arrays.asList(new BulkWriteUpsert(1, "kate")));
+        when(bulkWriteOperation.execute(WriteConcern.ACKNOWLEDGED)).thenReturn(writeResult);
+
+        final BulkResult result = newBulkOperations(true)
+                .insert(new BasicDBObject("_id", 42L))
+                .upsert(new BasicDBObject("name", "kate"), new BasicDBObject("$set", new BasicDBObject("age", 25)))
+                .removeOne(new BasicDBObject("name", "dave"))
+                .execute();
+
+        final List<BulkOperationResult> operationResults = result.getOperationResults();
+        assertEquals(3, operationResults.size());
+        assertEquals(BulkOperationType.INSERT, operationResults.get(0).getType());
+        assertEquals(42L, operationResults.get(0).getId());
+        assertTrue(operationResults.get(1).isUpserted());
+        assertEquals("kate", operationResults.get(1).getId());
+        assertEquals(BulkOperationType.REMOVE_ONE, operationResults.get(2).getType());
+        assertNull(operationResults.get(2).getId());
+        assertTrue(operationResults.get(2).isExecuted());
+    }
+
+    @Test
+    public void shouldProvideResultOfFailedOrderedWrite() {
+        when(writeResult.getInsertedCount()).thenReturn(1);
+        final BulkWriteException exception = newBulkWriteException(11000, 1);
+        when(bulkWriteOperation.execute(WriteConcern.ACKNOWLEDGED)).thenThrow(exception);
+
+        try {
+            newBulkOperations(true)
+                    .insert(new BasicDBObject("_id", 1L))
+                    .insert(new BasicDBObject("_id", 2L))
+                    .insert(new BasicDBObject("_id", 3L))
+                    .execute();
+            fail("Duplicate key error expected");
+        } catch (BulkDuplicateKeyException e) {
+            final BulkResult result = e.getBulkResult();
+            assertEquals(1, result.getInsertedCount());
+            assertFalse(result.getOperationResults().get(0).isFailed());
+            assertEquals(11000, result.getOperationResults().get(1).getError().getCode());
+            assertTrue(result.getOperationResults().get(1).isExecuted());
+            assertFalse(result.getOperationResults().get(2).isExecuted());
+        }
+    }
+
+    @Test
+    public void shouldExecuteRemainingOperationsOfUnorderedWrite() {
+        final BulkWriteException exception = newBulkWriteException(121, 0);
+        when(bulkWriteOperation.execute(WriteConcern.ACKNOWLEDGED)).thenThrow(exception);
+
+        try {
+            newBulkOperations(false)
+                    .updateMulti(new BasicDBObject(), new BasicDBObject("$inc", new BasicDBObject("age", 1)))
+                    .remove(new BasicDBObject("age", 100))
+                    .execute();
+            fail("Bulk write error expected");
+        } catch (UncategorizedBulkWriteException e) {
+            final List<BulkOperationResult> operationResults = e.getBulkResult().getOperationResults();
+            assertTrue(operationResults.get(0).isFailed());
+            assertFalse(operationResults.get(1).isFailed());
+            assertTrue(operationResults.get(1).isExecuted());
+        }
+    }
+
+    private DefaultBulkOperations newBulkOperations(boolean ordered) {
+        final DBCollection collection = mock(DBCollection.class);
+        when(collection.initializeOrderedBulkOperation()).thenReturn(bulkWriteOperation);
+        when(collection.initializeUnorderedBulkOperation()).thenReturn(bulkWriteOperation);
+        return new DefaultBulkOperations(collection, ordered, WriteConcern.ACKNOWLEDGED,
+                new ReadYourWritesTracker(), null);
+    }
+
+    private BulkWriteException newBulkWriteException(int code, int index) {
+        final BulkWriteException exception = mock(BulkWriteException.class);
+        when(exception.getWriteErrors()).thenReturn(Arrays.asList(
+                new BulkWriteError(code, "bulk write error", new BasicDBObject(), index)));
+        when(exception.getWriteResult()).thenReturn(writeResult);
+        return exception;
+    }
+}
@@ -0,0 +1,147 @@
+package org.springframework.mongo.core.support;
+
+import com.mongodb.AggregationOutput;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import com.mongodb.WriteResult;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mongo.core.CursorMapper;
+import org.springframework.mongo.core.ParallelQueryOptions;
+import org.springframework.mongo.core.PartitionCallbackHandler;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests routing of the reads by the read preferences without database.
+ */
+public final class MongoTemplateRoutingTest {
+    private final DBObject query = new BasicDBObject("name", "bob");
+    private DBCollection collection;
+    private MongoTemplate template;
+
+    @Before
+    public void init() {
+        final DB db = mock(DB.class);
+        collection = mock(DBCollection.class);
+        when(db.getCollection("Profile")).thenReturn(collection);
+        final WriteResult result = mock(WriteResult.class);
+        when(result.getLastConcern()).thenReturn(WriteConcern.UNACKNOWLEDGED);
+        when(collection.remove(any(DBObject.class), any(WriteConcern.class))).thenReturn(result);
+
+        template = new MongoTemplate(db);
+        template.setReadPreference(ReadPreference.secondaryPreferred());
+        template.setReadYourWritesWindow(1, TimeUnit.MINUTES);
+    }
+
+    @Test
+    public void shouldUseDefaultOrExplicitReadPreference() {
+        assertEquals(ReadPreference.secondaryPreferred(), template.resolveReadPreference(null));
+        assertEquals(ReadPreference.nearest(), template.resolveReadPreference(ReadPreference.nearest()));
+
+        template.setReadPreference(null);
+        assertNull(template.resolveReadPreference(null));
+    }
+
+    @Test
+    public void shouldReadFromPrimaryAfterWrite() {
+        template.count("Profile", query);
+        verify(collection).count(query, ReadPreference.secondaryPreferred());
+
+        template.remove("Profile", query);
+        assertEquals(ReadPreference.primary(), template.resolveReadPreference(ReadPreference.nearest()));
+        template.count("Profile", query);
+        verify(collection).count(query, ReadPreference.primary());
+    }
+
+    @Test
+    public void shouldNotPinOtherThreads() throws InterruptedException {
+        template.remove("Profile", query);
+        final AtomicReference<ReadPreference> readPreference = new AtomicReference<ReadPreference>();
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                readPreference.set(template.resolveReadPreference(null));
+            }
+        });
+        thread.start();
+        thread.join();
+        assertEquals(ReadPreference.secondaryPreferred(), readPreference.get());
+    }
+
+    @Test
+    public void shouldNotPinWithoutWindow() {
+        template.setReadYourWritesWindow(0, TimeUnit.MINUTES);
+        template.remove("Profile", query);
+        assertEquals(ReadPreference.secondaryPreferred(), template.resolveReadPreference(null));
+    }
+
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void shouldAbortRunningPartitionsOnFailure() throws InterruptedException {
+        final AggregationOutput samples = mock(AggregationOutput.class);
+        when(samples.results()).thenReturn(Arrays.<DBObject>asList(new BasicDBObject("age", 10),
+                new BasicDBObject("age", 20)));
+        when(collection.aggregate(any(List.class), any(ReadPreference.class))).thenReturn(samples);
+        // both partitions are endless
+        final DBCursor cursor = mock(DBCursor.class);
+        when(cursor.hasNext()).thenReturn(true);
+        when(cursor.next()).thenReturn(new BasicDBObject("age", 15));
+        when(collection.find(any(DBObject.class), any(DBObject.class))).thenReturn(cursor);
+
+        final IllegalStateException error = new IllegalStateException("failed partition");
+        final AtomicInteger processed = new AtomicInteger();
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            template.parallelQuery("Profile", new CursorMapper<DBObject>() {
+                @Override
+                public DBObject mapCursor(DBObject cursor, int rowNum) {
+                    return cursor;
+                }
+            }, query, null, new ParallelQueryOptions().partitions(2).splitKey("age").pool(pool),
+                    new PartitionCallbackHandler<DBObject>() {
+                        @Override
+                        public void processObject(int partition, DBObject object) {
+                            if (partition == 1) {
+                                throw error;
+                            }
+                            processed.incrementAndGet();
+                        }
+                    });
+            fail("Exception of the failed partition expected");
+        } catch (IllegalStateException e) {
+            assertSame(error, e);
+        } finally {
+            pool.shutdown();
+        }
+
+        // no partition is running after return
+        final int count = processed.get();
+        Thread.sleep(50L);
+        assertEquals(count, processed.get());
+    }
+
+    @Test
+    public void shouldConvertDistinctNumbers() {
+        when(collection.distinct("age", query, ReadPreference.secondaryPreferred()))
+                .thenReturn(Arrays.<Object>asList(1, 2L, 3.0));
+        assertEquals(Arrays.asList(1L, 2L, 3L), template.distinct("Profile", "age", Long.class, query));
+        assertEquals(Arrays.asList(1.0, 2.0, 3.0), template.distinct("Profile", "age", double.class, query));
+    }
+}
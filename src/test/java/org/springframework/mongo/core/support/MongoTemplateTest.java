@@ -8,13 +8,30 @@ import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.mongo.BulkDuplicateKeyException;
+import org.springframework.mongo.core.AggregateOptions;
+import org.springframework.mongo.core.BulkOperationType;
+import org.springframework.mongo.core.BulkResult;
+import org.springframework.mongo.core.CloseableIterator;
+import org.springframework.mongo.core.CursorCallbackHandler;
 import org.springframework.mongo.core.CursorMapper;
+import org.springframework.mongo.core.IntColumn;
 import org.springframework.mongo.core.MongoOperations;
+import org.springframework.mongo.core.ParallelQueryOptions;
+import org.springframework.mongo.core.QueryOptions;
+import org.springframework.mongo.core.StringColumn;
 import org.springframework.mongo.test.MongoTestSupport;
 import org.springframework.mongo.test.objects.Profile;
 import org.springframework.test.context.ContextConfiguration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.springframework.mongo.support.MongoUtil.extractId;
 import static org.springframework.mongo.support.MongoUtil.withId;
 
@@ -34,6 +51,134 @@ public final class MongoTemplateTest extends MongoTestSupport {
         assertEquals(profile, mo.queryForObject("Profile", new ProfileMapper(), withId(id)));
     }
 
+    @Test
+    public void shouldExecuteBulkOperations() {
+        final String bobId = mo.insert("Profile", toDBObject(new Profile("bob", 36)));
+        final String daveId = mo.insert("Profile", toDBObject(new Profile("dave", 47)));
+
+        final BulkResult result = mo.bulkOps("Profile", true)
+                .insert(toDBObject(new Profile("ann", 19)))
+                .updateOne(withId(bobId), new BasicDBObject("$set", new BasicDBObject("age", 37)))
+                .upsert(new BasicDBObject("name", "kate"), new BasicDBObject("$set", new BasicDBObject("age", 25)))
+                .removeOne(withId(daveId))
+                .execute();
+
+        assertEquals(1, result.getInsertedCount());
+        assertEquals(1, result.getMatchedCount());
+        assertEquals(1, result.getRemovedCount());
+        assertEquals(1, result.getUpsertedCount());
+        assertTrue(result.getUpsertedIds().containsKey(2));
+        assertEquals(BulkOperationType.UPSERT, result.getOperationResults().get(2).getType());
+        assertTrue(result.getOperationResults().get(2).isUpserted());
+        assertEquals(result.getUpsertedIds().get(2), result.getOperationResults().get(2).getId());
+        assertEquals(withId(result.getInsertedIds().get(0)).get("_id"), result.getOperationResults().get(0).getId());
+        assertEquals(new Profile(bobId, "bob", 37), mo.queryForObject("Profile", new ProfileMapper(), withId(bobId)));
+        assertEquals(new Profile(result.getInsertedIds().get(0), "ann", 19),
+                mo.queryForObject("Profile", new ProfileMapper(), withId(result.getInsertedIds().get(0))));
+        assertEquals(ImmutableList.<Profile>of(), mo.query("Profile", new ProfileMapper(), withId(daveId)));
+    }
+
+    @Test(expected = DuplicateKeyException.class)
+    public void shouldTranslateBulkDuplicateKey() {
+        final DBObject profile = toDBObject(new Profile("bob", 36));
+        mo.insert("Profile", profile);
+        mo.bulkOps("Profile", false).insert(profile).execute();
+    }
+
+    @Test
+    public void shouldProvideResultOfFailedBulkWrite() {
+        final DBObject profile = toDBObject(new Profile("bob", 36));
+        mo.insert("Profile", profile);
+        try {
+            mo.bulkOps("Profile", true)
+                    .insert(toDBObject(new Profile("ann", 19)))
+                    .insert(profile)
+                    .insert(toDBObject(new Profile("dave", 47)))
+                    .execute();
+            fail("Duplicate key error expected");
+        } catch (BulkDuplicateKeyException e) {
+            final BulkResult result = e.getBulkResult();
+            assertEquals(1, result.getInsertedCount());
+            assertFalse(result.getOperationResults().get(0).isFailed());
+            assertTrue(result.getOperationResults().get(1).isFailed());
+            assertFalse(result.getOperationResults().get(2).isExecuted());
+        }
+        assertEquals(2, mo.count("Profile", new BasicDBObject()));
+    }
+
+    @Test
+    public void shouldQueryInParallel() {
+        final List<Profile> profiles = new ArrayList<Profile>();
+        for (int i = 0; i < 100; ++i) {
+            final Profile profile = new Profile("user" + i, i);
+            profiles.add(new Profile(mo.insert("Profile", toDBObject(profile)), profile));
+        }
+
+        assertEquals(profiles, mo.parallelQuery("Profile", new ProfileMapper(), new BasicDBObject(), null,
+                new ParallelQueryOptions().partitions(4)));
+        assertEquals(profiles.subList(50, 100), mo.parallelQuery("Profile", new ProfileMapper(),
+                new BasicDBObject("age", new BasicDBObject("$gte", 50)), null,
+                new ParallelQueryOptions().partitions(3).splitKey("age")));
+    }
+
+    @Test
+    public void shouldQueryWithParallelMapping() {
+        final List<Profile> profiles = new ArrayList<Profile>();
+        for (int i = 0; i < 300; ++i) {
+            final Profile profile = new Profile("user" + i, i);
+            profiles.add(new Profile(mo.insert("Profile", toDBObject(profile)), profile));
+        }
+
+        assertEquals(profiles, mo.query("Profile", new ProfileMapper(), new BasicDBObject(), null,
+                new BasicDBObject("age", 1), new QueryOptions().parallelMapping(true)));
+    }
+
+    @Test
+    public void shouldCountAndQueryDistinct() {
+        mo.insert("Profile", toDBObject(new Profile("bob", 36)));
+        mo.insert("Profile", toDBObject(new Profile("dave", 36)));
+        mo.insert("Profile", toDBObject(new Profile("ann", 19)));
+
+        final DBObject adults = new BasicDBObject("age", new BasicDBObject("$gte", 21));
+        assertEquals(2, mo.count("Profile", adults));
+        assertTrue(mo.exists("Profile", adults));
+        assertFalse(mo.exists("Profile", new BasicDBObject("name", "kate")));
+        assertEquals(ImmutableList.of(36), mo.distinct("Profile", "age", Integer.class, adults));
+    }
+
+    @Test
+    public void shouldAggregate() {
+        mo.insert("Profile", toDBObject(new Profile("bob", 36)));
+        mo.insert("Profile", toDBObject(new Profile("dave", 36)));
+        mo.insert("Profile", toDBObject(new Profile("ann", 19)));
+
+        final List<String> groups = mo.aggregate("Profile", new CursorMapper<String>() {
+            @Override
+            public String mapCursor(DBObject cursor, int rowNum) {
+                return cursor.get("_id") + ":" + cursor.get("count");
+            }
+        }, ImmutableList.<DBObject>of(
+                new BasicDBObject("$group", new BasicDBObject("_id", "$age")
+                        .append("count", new BasicDBObject("$sum", 1))),
+                new BasicDBObject("$sort", new BasicDBObject("_id", 1))),
+                new AggregateOptions().allowDiskUse(true).batchSize(1));
+        assertEquals(ImmutableList.of("19:1", "36:2"), groups);
+    }
+
+    @Test
+    public void shouldQueryColumns() {
+        for (int i = 0; i < 100; ++i) {
+            mo.insert("Profile", toDBObject(new Profile("user" + i, i)));
+        }
+
+        final IntColumn ages = new IntColumn("age");
+        final StringColumn names = new StringColumn("name");
+        assertEquals(50, mo.queryColumns("Profile", new BasicDBObject("age", new BasicDBObject("$gte", 50)),
+                new BasicDBObject("age", 1), null, ages, names));
+        assertEquals(50, ages.get(0));
+        assertEquals("user99", names.get(49));
+    }
+
     @Test
     public void shouldInsertAndRemove() {
         Profile profile = new Profile("bob", 36);
@@ -53,6 +198,74 @@ public final class MongoTemplateTest extends MongoTestSupport {
         assertEquals(profile.getAge(), mo.queryForObject("Profile", "age", Integer.class, withId(id)));
     }
 
+    @Test
+    public void shouldQueryWithProjection() {
+        final Profile profile = new Profile("bob", 36);
+        final String id = mo.insert("Profile", toDBObject(profile));
+        assertEquals(ImmutableList.of(new Profile(id, profile.getName(), null)),
+                mo.query("Profile", new ProfileMapper(), withId(id), new BasicDBObject("name", 1), null));
+    }
+
+    @Test
+    public void shouldQueryWithOptions() {
+        final Profile bob = new Profile("bob", 36);
+        final Profile dave = new Profile("dave", 47);
+        final Profile ann = new Profile("ann", 19);
+        mo.insert("Profile", toDBObject(bob));
+        final String daveId = mo.insert("Profile", toDBObject(dave));
+        mo.insert("Profile", toDBObject(ann));
+
+        assertEquals(ImmutableList.of(new Profile(daveId, dave)), mo.query("Profile", new ProfileMapper(),
+                new BasicDBObject(), null, new BasicDBObject("age", 1),
+                new QueryOptions().skip(2).limit(1).batchSize(10).adaptiveBatchSize(true)));
+    }
+
+    @Test
+    public void shouldQueryWithCallbackHandler() {
+        final Profile profile = new Profile("bob", 36);
+        final String id = mo.insert("Profile", toDBObject(profile));
+        final List<Profile> profiles = new ArrayList<Profile>();
+        mo.query("Profile", new CursorCallbackHandler() {
+            @Override
+            public void processCursor(DBObject cursor, int rowNum) {
+                profiles.add(new ProfileMapper().mapCursor(cursor, rowNum));
+            }
+        }, new BasicDBObject());
+        assertEquals(ImmutableList.of(new Profile(id, profile)), profiles);
+    }
+
+    @Test
+    public void shouldIterate() {
+        final Profile bob = new Profile("bob", 36);
+        final Profile dave = new Profile("dave", 47);
+        final String bobId = mo.insert("Profile", toDBObject(bob));
+        final String daveId = mo.insert("Profile", toDBObject(dave));
+
+        try (CloseableIterator<Profile> it = mo.iterate("Profile", new ProfileMapper(), new BasicDBObject(),
+                new BasicDBObject("age", 1))) {
+            assertEquals(ImmutableList.of(new Profile(bobId, bob), new Profile(daveId, dave)),
+                    ImmutableList.copyOf(it));
+            assertFalse(it.hasNext());
+        }
+    }
+
+    @Test
+    public void shouldInsertInBatches() {
+        final List<Profile> profiles = ImmutableList.of(new Profile("bob", 36), new Profile("dave", 47),
+                new Profile("ann", 19));
+        final List<DBObject> dbObjects = new ArrayList<DBObject>();
+        for (final Profile profile : profiles) {
+            dbObjects.add(toDBObject(profile));
+        }
+
+        final List<String> ids = mo.insert("Profile", dbObjects);
+        assertEquals(profiles.size(), ids.size());
+        for (int i = 0; i < profiles.size(); ++i) {
+            assertEquals(new Profile(ids.get(i), profiles.get(i)),
+                    mo.queryForObject("Profile", new ProfileMapper(), withId(ids.get(i))));
+        }
+    }
+
     @Configuration
     public static class Config {
         @Autowired
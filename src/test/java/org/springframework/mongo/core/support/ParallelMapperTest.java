@@ -0,0 +1,47 @@
+package org.springframework.mongo.core.support;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.junit.Test;
+import org.springframework.mongo.core.CursorMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+
+public final class ParallelMapperTest {
+
+    @Test
+    public void shouldKeepRowOrder() {
+        final ParallelMapper<String> mapper = new ParallelMapper<String>(new CursorMapper<String>() {
+            @Override
+            public String mapCursor(DBObject cursor, int rowNum) {
+                return cursor.get("n") + ":" + rowNum;
+            }
+        }, new ForkJoinPool(4));
+
+        final List<String> expected = new ArrayList<String>();
+        final int rows = ParallelMapper.CHUNK_SIZE * 10 + 7;
+        for (int i = 0; i < rows; ++i) {
+            mapper.processCursor(new BasicDBObject("n", i), i);
+            expected.add(i + ":" + i);
+        }
+
+        assertEquals(expected, mapper.getResult());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRethrowMappingException() {
+        final ParallelMapper<String> mapper = new ParallelMapper<String>(new CursorMapper<String>() {
+            @Override
+            public String mapCursor(DBObject cursor, int rowNum) {
+                throw new IllegalStateException("mapping failed");
+            }
+        }, ForkJoinPool.commonPool());
+
+        mapper.processCursor(new BasicDBObject(), 0);
+        mapper.getResult();
+    }
+}
@@ -0,0 +1,100 @@
+package org.springframework.mongo.core.support;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public final class RangePartitionerTest {
+
+    @Test
+    public void shouldSelectEvenlySpacedSplitPoints() {
+        final List<Object> samples = new ArrayList<Object>();
+        for (int i = 99; i >= 0; --i) {
+            samples.add(i);
+        }
+        samples.add(null);
+
+        assertEquals(Arrays.<Object>asList(25, 50, 75), RangePartitioner.selectSplitPoints(samples, 4));
+    }
+
+    @Test
+    public void shouldSkipDuplicateSplitPoints() {
+        assertEquals(Arrays.<Object>asList(1), RangePartitioner.selectSplitPoints(
+                Arrays.<Object>asList(1, 1, 1, 1, 1, 1), 3));
+    }
+
+    @Test
+    public void shouldCompareNumbersByValue() {
+        assertEquals(Arrays.<Object>asList(2, 4L), RangePartitioner.selectSplitPoints(
+                Arrays.<Object>asList(4L, 1, 3, 2L, 5.5, 2, 4L), 3));
+        assertEquals(0, RangePartitioner.VALUE_COMPARATOR.compare(2, 2L));
+        assertEquals(-1, Integer.signum(RangePartitioner.VALUE_COMPARATOR.compare(2L, 2.5)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMixedSplitKeyTypes() {
+        RangePartitioner.selectSplitPoints(Arrays.<Object>asList(1, "a"), 2);
+    }
+
+    @Test
+    public void shouldBuildRangeQueries() {
+        final List<DBObject> queries = RangePartitioner.rangeQueries(new BasicDBObject(), "age",
+                Arrays.<Object>asList(20, 40));
+
+        final BasicDBList first = new BasicDBList();
+        first.add(new BasicDBObject("age", new BasicDBObject("$lt", 20)));
+        final BasicDBList otherTypes = new BasicDBList();
+        for (final int type : new int[] {1, 16, 18}) {
+            otherTypes.add(new BasicDBObject("age", new BasicDBObject("$not", new BasicDBObject("$type", type))));
+        }
+        first.add(new BasicDBObject("$and", otherTypes));
+        assertEquals(Arrays.<DBObject>asList(
+                new BasicDBObject("$or", first),
+                new BasicDBObject("age", new BasicDBObject("$gte", 20).append("$lt", 40)),
+                new BasicDBObject("age", new BasicDBObject("$gte", 40))), queries);
+    }
+
+    @Test
+    public void shouldCombineRangeWithQuery() {
+        final DBObject query = new BasicDBObject("name", "bob");
+        final List<DBObject> queries = RangePartitioner.rangeQueries(query, "age", Arrays.<Object>asList(20));
+
+        final BasicDBList conditions = new BasicDBList();
+        conditions.add(query);
+        conditions.add(new BasicDBObject("age", new BasicDBObject("$gte", 20)));
+        assertEquals(new BasicDBObject("$and", conditions), queries.get(1));
+    }
+
+    @Test
+    public void shouldMatchOtherTypesInFirstPartition() {
+        final List<DBObject> queries = RangePartitioner.rangeQueries(new BasicDBObject(), "name",
+                Arrays.<Object>asList("m"));
+
+        final BasicDBList first = new BasicDBList();
+        first.add(new BasicDBObject("name", new BasicDBObject("$lt", "m")));
+        first.add(new BasicDBObject("name", new BasicDBObject("$not", new BasicDBObject("$type", 2))));
+        assertEquals(new BasicDBObject("$or", first), queries.get(0));
+    }
+
+    @Test
+    public void shouldNotSplitUnknownType() {
+        final DBObject query = new BasicDBObject("name", "bob");
+        assertEquals(Collections.singletonList(query), RangePartitioner.rangeQueries(query, "key",
+                Arrays.<Object>asList(new BasicDBObject("a", 1))));
+    }
+
+    @Test
+    public void shouldNotSplitWithoutSplitPoints() {
+        final DBObject query = new BasicDBObject("name", "bob");
+        assertEquals(Collections.singletonList(query), RangePartitioner.rangeQueries(query, "age",
+                Collections.emptyList()));
+    }
+}
@@ -0,0 +1,49 @@
+package org.springframework.mongo.core.support;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class ReadYourWritesTrackerTest {
+
+    @Test
+    public void shouldNotPinWhenDisabled() {
+        final ReadYourWritesTracker tracker = new ReadYourWritesTracker();
+        tracker.onWrite();
+        assertFalse(tracker.isPinned());
+    }
+
+    @Test
+    public void shouldPinWritingThreadOnly() throws InterruptedException {
+        final ReadYourWritesTracker tracker = new ReadYourWritesTracker();
+        tracker.setWindow(1, TimeUnit.MINUTES);
+        assertFalse(tracker.isPinned());
+
+        tracker.onWrite();
+        assertTrue(tracker.isPinned());
+
+        final AtomicBoolean pinned = new AtomicBoolean(true);
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                pinned.set(tracker.isPinned());
+            }
+        });
+        thread.start();
+        thread.join();
+        assertFalse(pinned.get());
+    }
+
+    @Test
+    public void shouldUnpinAfterWindow() throws InterruptedException {
+        final ReadYourWritesTracker tracker = new ReadYourWritesTracker();
+        tracker.setWindow(10, TimeUnit.MILLISECONDS);
+        tracker.onWrite();
+        Thread.sleep(20L);
+        assertFalse(tracker.isPinned());
+    }
+}
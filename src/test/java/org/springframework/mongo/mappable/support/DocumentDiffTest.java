@@ -0,0 +1,56 @@
+package org.springframework.mongo.mappable.support;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public final class DocumentDiffTest {
+
+    @Test
+    public void shouldReturnNullForEqualDocuments() {
+        assertNull(DocumentDiff.diff(newShelf("jane", 23, "math"), newShelf("jane", 23, "math")));
+    }
+
+    @Test
+    public void shouldSetChangedEmbeddedField() {
+        assertEquals(new BasicDBObject("$set", new BasicDBObject("librarian.age", 24)),
+                DocumentDiff.diff(newShelf("jane", 23, "math"), newShelf("jane", 24, "math")));
+    }
+
+    @Test
+    public void shouldReplaceChangedList() {
+        final DBObject current = newShelf("jane", 23, "geometry");
+        assertEquals(new BasicDBObject("$set", new BasicDBObject("tags", current.get("tags"))),
+                DocumentDiff.diff(newShelf("jane", 23, "math"), current));
+    }
+
+    @Test
+    public void shouldUnsetNullAndRemovedFields() {
+        final DBObject current = newShelf(null, 23, "math");
+        current.removeField("tags");
+        assertEquals(new BasicDBObject("$unset", new BasicDBObject("librarian.name", 1).append("tags", 1)),
+                DocumentDiff.diff(newShelf("jane", 23, "math"), current));
+    }
+
+    @Test
+    public void shouldTrackObjectsByIdentity() {
+        final SnapshotRegistry registry = new SnapshotRegistry();
+        final String object = new String("shelf");
+        final DBObject snapshot = new BasicDBObject();
+        registry.put(object, snapshot);
+
+        assertEquals(snapshot, registry.get(object));
+        assertNull(registry.get(new String("shelf")));
+    }
+
+    private static DBObject newShelf(String librarianName, int librarianAge, String tag) {
+        final BasicDBList tags = new BasicDBList();
+        tags.add(tag);
+        return new BasicDBObject("tags", tags)
+                .append("librarian", new BasicDBObject("name", librarianName).append("age", librarianAge));
+    }
+}
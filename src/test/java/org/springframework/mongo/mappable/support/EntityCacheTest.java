@@ -0,0 +1,52 @@
+package org.springframework.mongo.mappable.support;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public final class EntityCacheTest {
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() {
+        final EntityCache cache = new EntityCache(2, TimeUnit.HOURS.toNanos(1));
+        final DBObject a = new BasicDBObject("n", 1);
+        cache.put("a", a, cache.getGeneration());
+        cache.put("b", new BasicDBObject("n", 2), cache.getGeneration());
+        assertSame(a, cache.get("a"));
+        cache.put("c", new BasicDBObject("n", 3), cache.getGeneration());
+
+        assertNull(cache.get("b"));
+        assertSame(a, cache.get("a"));
+        final EntityCacheStats stats = cache.getStats();
+        assertEquals(2, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getEvictionCount());
+        assertEquals(2, stats.getSize());
+    }
+
+    @Test
+    public void shouldExpireEntries() throws InterruptedException {
+        final EntityCache cache = new EntityCache(10, TimeUnit.MILLISECONDS.toNanos(1));
+        cache.put("a", new BasicDBObject(), cache.getGeneration());
+        Thread.sleep(5);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    public void shouldNotCacheDocumentReadBeforeInvalidation() {
+        final EntityCache cache = new EntityCache(10, TimeUnit.HOURS.toNanos(1));
+        final long generation = cache.getGeneration();
+        cache.invalidate("a"); // concurrent update
+        cache.put("a", new BasicDBObject(), generation);
+
+        assertNull(cache.get("a"));
+    }
+}
@@ -0,0 +1,172 @@
+package org.springframework.mongo.mappable.support;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.ReadPreference;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.mongo.core.CursorMapper;
+import org.springframework.mongo.core.IndexDefinition;
+import org.springframework.mongo.core.MongoOperations;
+import org.springframework.mongo.core.QueryOptions;
+import org.springframework.mongo.test.objects.Profile;
+import org.springframework.mongo.test.objects.Shelf;
+import org.springframework.mongo.test.objects.TestDomainObject;
+import org.springframework.mongo.test.objects.Visit;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests routing of the reads of the mappable objects by the read preferences without database.
+ */
+public final class MappableMongoTemplateRoutingTest {
+    private MongoOperations mo;
+    private MappableMongoTemplate template;
+
+    @Before
+    public void init() {
+        mo = mock(MongoOperations.class);
+        template = new MappableMongoTemplate(TestDomainObject.class);
+        template.setMongoOperations(mo);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldApplyClassReadPreference() {
+        template.setReadPreference(Profile.class, ReadPreference.secondary());
+        template.init();
+
+        template.query(Profile.class, new BasicDBObject(), null, new QueryOptions().limit(5));
+        template.query(Profile.class, new BasicDBObject(), null,
+                new QueryOptions().readPreference(ReadPreference.nearest()));
+
+        final ArgumentCaptor<QueryOptions> options = ArgumentCaptor.forClass(QueryOptions.class);
+        verify(mo, times(2)).query(eq("Profile"), any(CursorMapper.class), any(DBObject.class),
+                any(DBObject.class), any(DBObject.class), options.capture());
+        assertEquals(ReadPreference.secondary(), options.getAllValues().get(0).getReadPreference());
+        assertEquals(5, options.getAllValues().get(0).getLimit());
+        assertEquals(ReadPreference.nearest(), options.getAllValues().get(1).getReadPreference());
+    }
+
+    @Test
+    public void shouldCountWithClassReadPreference() {
+        template.setReadPreference(Profile.class, ReadPreference.secondaryPreferred());
+        template.init();
+        when(mo.count(eq("Profile"), any(DBObject.class), any(QueryOptions.class))).thenReturn(3L);
+
+        assertEquals(3L, template.count(Profile.class, new BasicDBObject("name", "bob")));
+
+        final ArgumentCaptor<QueryOptions> options = ArgumentCaptor.forClass(QueryOptions.class);
+        verify(mo).count(eq("Profile"), any(DBObject.class), options.capture());
+        assertEquals(ReadPreference.secondaryPreferred(), options.getValue().getReadPreference());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldFillEntityCacheFromPrimary() {
+        template.setReadPreference(Profile.class, ReadPreference.secondary());
+        template.setEntityCache(Profile.class, 10, 1, TimeUnit.MINUTES);
+        template.init();
+        final ObjectId id = new ObjectId();
+        when(mo.query(eq("Profile"), any(CursorMapper.class), any(DBObject.class), any(DBObject.class),
+                any(DBObject.class), any(QueryOptions.class))).thenReturn(Collections.<Object>singletonList(
+                new BasicDBObject("_id", id).append("name", "bob").append("age", 36)));
+
+        assertEquals("bob", template.queryById(Profile.class, id.toStringMongod()).getName());
+        assertEquals("bob", template.queryById(Profile.class, id.toStringMongod()).getName());
+
+        final ArgumentCaptor<QueryOptions> options = ArgumentCaptor.forClass(QueryOptions.class);
+        verify(mo).query(eq("Profile"), any(CursorMapper.class), any(DBObject.class), any(DBObject.class),
+                any(DBObject.class), options.capture());
+        assertEquals(ReadPreference.primary(), options.getValue().getReadPreference());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldNotShareCachedValues() {
+        template.setEntityCache(Shelf.class, 10, 1, TimeUnit.MINUTES);
+        template.init();
+        final ObjectId id = new ObjectId();
+        final BasicDBList tags = new BasicDBList();
+        tags.add("math");
+        when(mo.query(eq("Shelf"), any(CursorMapper.class), any(DBObject.class), any(DBObject.class),
+                any(DBObject.class), any(QueryOptions.class))).thenReturn(Collections.<Object>singletonList(
+                new BasicDBObject("_id", id).append("books", new BasicDBList()).append("tags", tags)));
+
+        template.queryById(Shelf.class, id.toStringMongod()).getTags().add("miss");
+        template.queryById(Shelf.class, id.toStringMongod()).getTags().add("hit");
+
+        assertEquals(Arrays.asList("math"), template.queryById(Shelf.class, id.toStringMongod()).getTags());
+    }
+
+    @Test
+    public void shouldNotApplyReadPreferenceWithoutClassReadPreference() {
+        template.init();
+        template.query(Profile.class, new BasicDBObject(), null, (QueryOptions) null);
+        verify(mo).query(eq("Profile"), any(CursorMapper.class), any(DBObject.class), any(DBObject.class),
+                any(DBObject.class), (QueryOptions) isNull());
+    }
+
+    @Test(expected = BeanInitializationException.class)
+    public void shouldRejectSessionModeForGivenMongoOperations() {
+        template.setReadYourWritesWindow(1, TimeUnit.SECONDS);
+        template.init();
+    }
+
+    @Test
+    public void shouldReportMismatchingIndexes() {
+        when(mo.getIndexInfo("Visit")).thenReturn(Arrays.<DBObject>asList(
+                new BasicDBObject("name", "_id_").append("key", new BasicDBObject("_id", 1)),
+                new BasicDBObject("name", "userName_1").append("key", new BasicDBObject("userName", 1)),
+                new BasicDBObject("name", "visitExpiry").append("key", new BasicDBObject("time", 1))
+                        .append("expireAfterSeconds", 86400)));
+        template.setMappableClasses(Arrays.<Class<?>>asList(Visit.class));
+        try {
+            template.init();
+            fail("Index mismatch expected");
+        } catch (BeanInitializationException e) {
+            final String message = e.getCause().getMessage();
+            assertTrue(message, message.contains("Visit.userName_1 declared by " + Visit.class.getName() +
+                    " exists with [sparse false instead of true]"));
+            assertFalse(message, message.contains("visitExpiry"));
+        }
+        // missing index is created, matching one is not
+        verify(mo).ensureIndex(eq("Visit"), any(IndexDefinition.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldEnsureIndexesOfLazilyResolvedClass() {
+        when(mo.getIndexInfo("Visit")).thenReturn(Arrays.<DBObject>asList(
+                new BasicDBObject("name", "_id_").append("key", new BasicDBObject("_id", 1)),
+                new BasicDBObject("name", "userName_1").append("key", new BasicDBObject("userName", 1))
+                        .append("sparse", true)));
+        template.init();
+        verify(mo, never()).getIndexInfo(anyString());
+
+        template.query(Visit.class, new BasicDBObject());
+        template.query(Visit.class, new BasicDBObject());
+
+        // only the missing compound and expiring indexes are created, once
+        verify(mo).getIndexInfo("Visit");
+        final ArgumentCaptor<IndexDefinition> indexes = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(mo, times(2)).ensureIndex(eq("Visit"), indexes.capture());
+        assertEquals(new HashSet<String>(Arrays.asList("visitExpiry", "page_1_time_-1")),
+                new HashSet<String>(Arrays.asList(indexes.getAllValues().get(0).getName(),
+                        indexes.getAllValues().get(1).getName())));
+    }
+}
@@ -2,11 +2,16 @@ package org.springframework.mongo.mappable.support;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.DB;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.mongo.core.BulkResult;
+import org.springframework.mongo.core.CloseableIterator;
+import org.springframework.mongo.mappable.MappableCallbackHandler;
 import org.springframework.mongo.mappable.MappableMongoOperations;
 import org.springframework.mongo.test.MongoTestSupport;
 import org.springframework.mongo.test.objects.*;
@@ -14,8 +19,14 @@ import org.springframework.test.context.ContextConfiguration;
 
 import java.net.URI;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 import static org.springframework.mongo.support.MongoUtil.withId;
@@ -26,6 +37,9 @@ public final class MappableMongoTemplateTest extends MongoTestSupport {
     @Autowired
     private MappableMongoOperations mmo;
 
+    @Autowired
+    private DB db;
+
     @Test
     public void shouldInsertUpdateAndFind() {
         Profile profile = new Profile("bob", 36);
@@ -39,6 +53,101 @@ public final class MappableMongoTemplateTest extends MongoTestSupport {
         assertEquals(profile, mmo.queryById(Profile.class, id));
     }
 
+    @Test
+    public void shouldInsertAll() {
+        final Profile profile = new Profile("bob", 36);
+        final Shelf shelf = new Shelf(Arrays.asList(new Book("Algebra", 496L)), Arrays.asList("math"), profile);
+        final List<String> ids = mmo.insertAll(Arrays.asList(profile, shelf));
+        assertEquals(2, ids.size());
+        assertEquals(new Profile(ids.get(0), profile), mmo.queryById(Profile.class, ids.get(0)));
+        assertEquals(new Shelf(ids.get(1), shelf), mmo.queryById(Shelf.class, ids.get(1)));
+    }
+
+    @Test
+    public void shouldExecuteBulkOperations() {
+        final String bobId = mmo.insert(new Profile("bob", 36));
+        final Profile dave = new Profile(new ObjectId().toStringMongod(), "dave", 47);
+
+        final BulkResult result = mmo.bulkOps(Profile.class, false)
+                .update(new Profile(bobId, "bob", 37))
+                .upsert(dave)
+                .insert(new Profile("ann", 19))
+                .execute();
+
+        assertEquals(1, result.getMatchedCount());
+        assertEquals(1, result.getUpsertedCount());
+        assertEquals(1, result.getInsertedCount());
+        assertEquals(new Profile(bobId, "bob", 37), mmo.queryById(Profile.class, bobId));
+        assertEquals(dave, mmo.queryById(Profile.class, dave.getId()));
+    }
+
+    @Test
+    public void shouldExecuteBulkOperationsByQueryAndNativeId() {
+        final Session session = new Session(UUID.randomUUID(), new ObjectId());
+        mmo.insert(session);
+        final String bobId = mmo.insert(new Profile("bob", 36));
+        mmo.insert(new Profile("dave", 47));
+
+        final BulkResult result = mmo.bulkOps(Session.class, true).remove(session.getId()).execute();
+        assertEquals(1, result.getRemovedCount());
+        assertEquals(0, mmo.count(Session.class, new BasicDBObject()));
+
+        mmo.bulkOps(Profile.class, true)
+                .updateOne(new BasicDBObject("name", "bob"), new BasicDBObject("$set", new BasicDBObject("age", 37)))
+                .removeOne(new BasicDBObject("name", "dave"))
+                .execute();
+        assertEquals(Arrays.asList(new Profile(bobId, "bob", 37)), mmo.query(Profile.class, new BasicDBObject()));
+    }
+
+    @Test
+    public void shouldAggregate() {
+        final String bobId = mmo.insert(new Profile("bob", 36));
+        mmo.insert(new Profile("ann", 19));
+        final String daveId = mmo.insert(new Profile("dave", 47));
+
+        assertEquals(Arrays.asList(new Profile(daveId, "dave", 47), new Profile(bobId, "bob", 36)),
+                mmo.aggregate(Profile.class, Profile.class, Arrays.<DBObject>asList(
+                        new BasicDBObject("$match", new BasicDBObject("age", new BasicDBObject("$gte", 21))),
+                        new BasicDBObject("$sort", new BasicDBObject("age", -1))), null));
+    }
+
+    @Test
+    public void shouldCountAndQueryDistinct() {
+        final String id = mmo.insert(new Profile("bob", 36));
+        mmo.insert(new Shelf(Arrays.asList(new Book("Algebra", 496L)), Arrays.asList("math", "algebra"), null));
+        mmo.insert(new Shelf(Arrays.asList(new Book("Geo", 85L)), Arrays.asList("math"), null));
+
+        assertEquals(2, mmo.count(Shelf.class, new BasicDBObject("tags", "math")));
+        assertTrue(mmo.exists(Profile.class, new BasicDBObject("name", "bob")));
+        assertFalse(mmo.exists(Profile.class, new BasicDBObject("name", "dave")));
+        assertEquals(Arrays.asList(id), mmo.distinct(Profile.class, "id", String.class, null));
+        assertEquals(new HashSet<String>(Arrays.asList("math", "algebra")),
+                new HashSet<String>(mmo.distinct(Shelf.class, "tags", String.class, null)));
+        assertEquals(new HashSet<Book>(Arrays.asList(new Book("Algebra", 496L), new Book("Geo", 85L))),
+                new HashSet<Book>(mmo.distinct(Shelf.class, "books", Book.class, new BasicDBObject())));
+    }
+
+    @Test
+    public void shouldUseNativeIds() {
+        final Counter counter = new Counter(42L, 7L);
+        assertEquals("42", mmo.insert(counter));
+        assertEquals(counter, mmo.queryById(Counter.class, 42L));
+
+        final Session session = new Session(UUID.randomUUID(), new ObjectId());
+        assertEquals(session.getId().toString(), mmo.insert(session));
+        assertEquals(session, mmo.queryById(Session.class, session.getId()));
+        assertEquals(1, mmo.remove(Session.class, session.getId()));
+        assertEquals(0, mmo.count(Session.class, new BasicDBObject()));
+    }
+
+    @Test
+    public void shouldInsertLoadedObjectAsNew() {
+        final String id = mmo.insert(new Profile("bob", 36));
+        final String copyId = mmo.insert(mmo.queryById(Profile.class, id));
+        assertFalse(id.equals(copyId));
+        assertEquals(2, mmo.count(Profile.class, new BasicDBObject("name", "bob")));
+    }
+
     @Test
     public void shouldRemove() {
         Profile profile = new Profile("bob", 36);
@@ -144,6 +253,97 @@ public final class MappableMongoTemplateTest extends MongoTestSupport {
         mmo.queryForObject(Profile.class, withId(id));
     }
 
+    @Test
+    public void shouldQueryWithCallbackHandler() {
+        final Profile profile = new Profile("bob", 36);
+        final String id = mmo.insert(profile);
+        final List<Profile> profiles = new ArrayList<Profile>();
+        mmo.query(Profile.class, new BasicDBObject(), null, new MappableCallbackHandler<Profile>() {
+            @Override
+            public void processObject(Profile object) {
+                profiles.add(object);
+            }
+        });
+        assertEquals(Arrays.asList(new Profile(id, profile)), profiles);
+    }
+
+    @Test
+    public void shouldIterate() {
+        final Profile profile = new Profile("bob", 36);
+        final String id = mmo.insert(profile);
+        try (CloseableIterator<Profile> it = mmo.iterate(Profile.class, new BasicDBObject(), null)) {
+            assertTrue(it.hasNext());
+            assertEquals(new Profile(id, profile), it.next());
+            assertFalse(it.hasNext());
+        }
+    }
+
+    @Test
+    public void shouldCacheQueryById() {
+        final MappableMongoTemplate template = (MappableMongoTemplate) mmo;
+        Profile profile = new Profile("bob", 36);
+        final String id = mmo.insert(profile);
+        profile = new Profile(id, profile);
+
+        assertEquals(profile, mmo.queryById(Profile.class, id));
+        assertEquals(profile, mmo.queryById(Profile.class, id));
+        final EntityCacheStats stats = template.getEntityCacheStats(Profile.class);
+        assertEquals(1, stats.getHitCount());
+
+        profile = new Profile(id, "dave", null);
+        mmo.update(profile);
+        assertEquals(profile, mmo.queryById(Profile.class, id));
+        assertNull(template.getEntityCacheStats(Shelf.class));
+    }
+
+    @Test
+    public void shouldUpdateChangedFields() {
+        final Shelf shelf = new Shelf(Arrays.asList(new Book("Algebra", 496L)), Arrays.asList("math"),
+                new Profile("jane", 23));
+        final String id = mmo.insert(shelf);
+        final Shelf original = mmo.queryById(Shelf.class, id);
+        assertFalse(mmo.updateChanged(original));
+
+        final Shelf changed = new Shelf(id, shelf.getBooks(), Arrays.asList("math", "geometry"),
+                new Profile("jane", 24));
+        assertTrue(mmo.updateChanged(changed, original));
+        assertEquals(changed, mmo.queryById(Shelf.class, id));
+        assertFalse(mmo.updateChanged(changed, new Shelf(id, changed)));
+    }
+
+    @Test
+    public void shouldUpdateListChangedInPlace() {
+        final String id = mmo.insert(new Shelf(Arrays.asList(new Book("Algebra", 496L)),
+                new ArrayList<String>(Arrays.asList("math")), new Profile("jane", 23)));
+        final Shelf shelf = mmo.queryById(Shelf.class, id);
+        shelf.getTags().add("geometry");
+
+        assertTrue(mmo.updateChanged(shelf));
+        assertEquals(Arrays.asList("math", "geometry"), mmo.queryById(Shelf.class, id).getTags());
+        assertFalse(mmo.updateChanged(shelf));
+    }
+
+    @Test
+    public void shouldEnsureDeclaredIndexes() {
+        final Set<String> names = new HashSet<String>();
+        for (final DBObject index : db.getCollection("Visit").getIndexInfo()) {
+            names.add((String) index.get("name"));
+        }
+        assertEquals(new HashSet<String>(Arrays.asList("_id_", "userName_1", "visitExpiry", "page_1_time_-1")),
+                names);
+
+        db.getCollection("Visit").createIndex(new BasicDBObject("page", 1));
+        try {
+            final MappableMongoTemplate template = new MappableMongoTemplate(TestDomainObject.class, db);
+            template.setMappableClasses(Arrays.<Class<?>>asList(Visit.class));
+            template.setBackgroundIndexBuild(true);
+            template.init();
+            assertEquals(Arrays.asList("Visit.page_1"), template.getUndeclaredIndexes());
+        } finally {
+            db.getCollection("Visit").dropIndex("page_1");
+        }
+    }
+
     @Configuration
     public static class Config {
         @Autowired
@@ -151,7 +351,11 @@ public final class MappableMongoTemplateTest extends MongoTestSupport {
 
         @Bean
         public MappableMongoOperations mappableMongoOperations() {
-            return new MappableMongoTemplate(TestDomainObject.class, db);
+            final MappableMongoTemplate template = new MappableMongoTemplate(TestDomainObject.class, db);
+            template.setEntityCache(Profile.class, 100, 1, TimeUnit.MINUTES);
+            template.setDirtyTracking(Shelf.class, true);
+            template.setBasePackages(TestDomainObject.class.getPackage().getName());
+            return template;
         }
     }
 }
@@ -0,0 +1,291 @@
+package org.springframework.mongo.mappable.support;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import org.bson.BasicBSONEncoder;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.mongo.core.CursorMapper;
+import org.springframework.mongo.core.IndexDefinition;
+import org.springframework.mongo.mappable.object.MappableClassLayout;
+import org.springframework.mongo.test.objects.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests mapping of the mappable objects without database.
+ */
+public final class MappableObjectsConfigTest {
+
+    @Test
+    public void shouldMapWithCompiledMapper() {
+        final MappableObjectsConfig config = newConfig(true);
+        final CursorMapper<Shelf> mapper = config.getLayout(Shelf.class).getCursorMapper();
+        assertTrue(mapper instanceof MethodHandleCursorMapper);
+
+        final ObjectId id = new ObjectId();
+        assertEquals(newShelf(id.toStringMongod()), mapper.mapCursor(newShelfDBObject(id), 0));
+    }
+
+    @Test
+    public void shouldMapWithReflectiveMapper() {
+        final MappableObjectsConfig config = newConfig(false);
+        final ObjectId id = new ObjectId();
+        assertEquals(newShelf(id.toStringMongod()), config.getLayout(Shelf.class).getCursorMapper()
+                .mapCursor(newShelfDBObject(id), 0));
+    }
+
+    @Test
+    public void shouldConvertPrimitiveFields() {
+        for (final boolean compiledMappersEnabled : new boolean[] { true, false }) {
+            final CursorMapper<Book> mapper = newConfig(compiledMappersEnabled).getLayout(Book.class)
+                    .getCursorMapper();
+            for (final Object pages : new Object[] { 85, 85L, 85.0 }) {
+                assertEquals(new Book("Geo", 85L),
+                        mapper.mapCursor(new BasicDBObject("name", "Geo").append("pages", pages), 0));
+            }
+            assertEquals(new Book("Geo", 0L), mapper.mapCursor(new BasicDBObject("name", "Geo"), 0));
+        }
+    }
+
+    @Test
+    public void shouldDecodePrimitiveFieldsDirectly() {
+        final MappableClassLayout<Book> layout = newConfig(true).getLayout(Book.class);
+        for (final Object pages : new Object[] { 85, 85L, 85.0 }) {
+            final DBObject decoded = layout.getDecoderFactory().create().decode(new BasicBSONEncoder()
+                    .encode(new BasicDBObject("name", "Geo").append("pages", pages)), (DBCollection) null);
+            assertEquals(new Book("Geo", 85L), layout.getCursorMapper().mapCursor(decoded, 0));
+        }
+    }
+
+    @Test
+    public void shouldMapNativeIds() {
+        for (final boolean compiledMappersEnabled : new boolean[] { true, false }) {
+            final MappableObjectsConfig config = newConfig(compiledMappersEnabled);
+            final MappableClassLayout<Counter> counterLayout = config.getLayout(Counter.class);
+            assertEquals(new Counter(42L, 1L), counterLayout.getCursorMapper()
+                    .mapCursor(new BasicDBObject("_id", 42).append("value", 1L), 0));
+            assertEquals(42L, counterLayout.getMongoId(new Counter(42L, 1L)));
+            assertEquals(42L, counterLayout.toMongoId(42L));
+
+            final MappableClassLayout<Session> sessionLayout = config.getLayout(Session.class);
+            final Session session = new Session(UUID.randomUUID(), new ObjectId());
+            assertEquals(session, sessionLayout.getCursorMapper().mapCursor(new BasicDBObject("_id", session.getId())
+                    .append("userId", session.getUserId()), 0));
+            assertEquals(session.getId(), sessionLayout.getMongoId(session));
+        }
+    }
+
+    @Test
+    public void shouldInsertAssignedNativeIdsOnly() {
+        final MappableObjectsConfig config = newConfig(true);
+        final String profileId = new ObjectId().toStringMongod();
+        assertNull(MappableMongoTemplate.toInsertedDBObject(config.getLayout(Profile.class),
+                new Profile(profileId, "bob", 36)).get("_id"));
+        assertEquals(42L, MappableMongoTemplate.toInsertedDBObject(config.getLayout(Counter.class),
+                new Counter(42L, 1L)).get("_id"));
+
+        for (final Object object : new Object[] { new Counter(0L, 1L), new Session(null, new ObjectId()) }) {
+            try {
+                MappableMongoTemplate.toInsertedDBObject(config.getLayout(object.getClass()), object);
+                fail("Unassigned id of " + object + " should be rejected");
+            } catch (InvalidDataAccessApiUsageException expected) {
+                // ok
+            }
+        }
+    }
+
+    @Test
+    public void shouldDecodeUuidIdsDirectly() {
+        final MappableClassLayout<Session> layout = newConfig(true).getLayout(Session.class);
+        final Session session = new Session(UUID.randomUUID(), new ObjectId());
+        final DBObject decoded = layout.getDecoderFactory().create().decode(new BasicBSONEncoder()
+                .encode(new BasicDBObject("_id", session.getId()).append("userId", session.getUserId())),
+                (DBCollection) null);
+        assertTrue(decoded instanceof DecodedObject);
+        assertEquals(session, layout.getCursorMapper().mapCursor(decoded, 0));
+    }
+
+    @Test
+    public void shouldSerializeWithCompiledSerializer() {
+        final ObjectId id = new ObjectId();
+        final MappableClassLayout<Shelf> layout = newConfig(true).getLayout(Shelf.class);
+        assertEquals(withoutId(newShelfDBObject(id)), layout.toDBObject(newShelf(id.toStringMongod())));
+        assertEquals(id, layout.getMongoId(newShelf(id.toStringMongod())));
+    }
+
+    @Test
+    public void shouldSerializeWithReflectiveSerializer() {
+        final ObjectId id = new ObjectId();
+        final MappableClassLayout<Shelf> layout = newConfig(false).getLayout(Shelf.class);
+        assertEquals(withoutId(newShelfDBObject(id)), layout.toDBObject(newShelf(id.toStringMongod())));
+        assertEquals(id, layout.getMongoId(newShelf(id.toStringMongod())));
+    }
+
+    @Test
+    public void shouldProjectMappedFields() {
+        assertEquals(new BasicDBObject("_id", 1).append("books", 1).append("tags", 1).append("librarian", 1),
+                newConfig(true).getLayout(Shelf.class).getFields());
+    }
+
+    @Test
+    public void shouldScanMappableClasses() {
+        final List<Class<?>> classes = new MappableClassScanner(getClass().getClassLoader())
+                .scan(TestDomainObject.class, "org.springframework.mongo.test.objects");
+        assertTrue(classes.containsAll(Arrays.asList(Profile.class, Shelf.class, Book.class)));
+        assertFalse(classes.contains(TestDomainObject.class));
+        assertFalse(classes.contains(MsgState.class));
+    }
+
+    @Test
+    public void shouldNotLoadUnrelatedClassesOnScan() {
+        final List<String> loadedNames = new ArrayList<String>();
+        final ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                loadedNames.add(name);
+                return super.loadClass(name, resolve);
+            }
+        };
+
+        final List<Class<?>> classes = new MappableClassScanner(classLoader)
+                .scan(TestDomainObject.class, "org.springframework.mongo.test.objects");
+        assertTrue(classes.contains(Profile.class));
+        assertTrue(loadedNames.contains(Profile.class.getName()));
+        assertFalse(loadedNames.contains(MsgState.class.getName()));
+    }
+
+    @Test
+    public void shouldPrecompileLayouts() {
+        final MappableObjectsConfig config = newConfig(true);
+        config.precompile(Arrays.<Class<?>>asList(Profile.class, Shelf.class));
+        assertSame(config.getLayout(Shelf.class), config.getLayout(Shelf.class));
+        assertSame(config.getLayout(Shelf.class).getCursorMapper(), config.getLayout(Shelf.class).getCursorMapper());
+    }
+
+    @Test
+    public void shouldDecodeDirectly() {
+        final MappableClassLayout<Shelf> layout = newConfig(true).getLayout(Shelf.class);
+        final ObjectId id = new ObjectId();
+        final DBObject dbObject = newShelfDBObject(id);
+        dbObject.put("unmapped", new BasicDBObject("nested", Arrays.asList(1, 2L, 3.0)));
+        dbObject.put("unmappedDate", new Date());
+        dbObject.put("unmappedBinary", new byte[] { 1, 2, 3 });
+
+        final DBObject decoded = layout.getDecoderFactory().create()
+                .decode(new BasicBSONEncoder().encode(dbObject), (DBCollection) null);
+        assertTrue(decoded instanceof DecodedObject);
+        assertEquals(newShelf(id.toStringMongod()), layout.getCursorMapper().mapCursor(decoded, 0));
+    }
+
+    @Test
+    public void shouldFallbackToDefaultDecoding() {
+        final MappableClassLayout<Shelf> layout = newConfig(true).getLayout(Shelf.class);
+        final ObjectId id = new ObjectId();
+        final DBObject dbObject = newShelfDBObject(id);
+        dbObject.put("librarian", new BasicDBObject("name", "jane").append("age", 23)
+                .append("photo", new Binary((byte) 0x80, new byte[] { 1 })));
+
+        final DBObject decoded = layout.getDecoderFactory().create()
+                .decode(new BasicBSONEncoder().encode(dbObject), (DBCollection) null);
+        assertFalse(decoded instanceof DecodedObject);
+        assertEquals(newShelf(id.toStringMongod()), layout.getCursorMapper().mapCursor(decoded, 0));
+    }
+
+    @Test
+    public void shouldNotDecodeWithReflectiveMapper() {
+        assertNull(newConfig(false).getLayout(Shelf.class).getDecoderFactory());
+    }
+
+    @Test
+    public void shouldConvertDistinctValues() {
+        final MappableClassLayout<Shelf> layout = newConfig(true).getLayout(Shelf.class);
+        final ObjectId id = new ObjectId();
+        assertEquals("_id", layout.getMongoName("id"));
+        assertEquals(id.toStringMongod(), layout.toJavaValue("id", id));
+        assertEquals("math", layout.toJavaValue("tags", "math"));
+        assertEquals(new Book("Geo", 85L), layout.toJavaValue("books",
+                new BasicDBObject("name", "Geo").append("pages", 85L)));
+    }
+
+    @Test
+    public void shouldMapLazyFieldsOnFirstAccess() {
+        final MappableObjectsConfig config = newConfig(true);
+        config.setLazyFields(Shelf.class, Arrays.asList("books"));
+        final MappableClassLayout<Shelf> layout = config.getLayout(Shelf.class);
+        final ObjectId id = new ObjectId();
+
+        final Shelf shelf = layout.getCursorMapper().mapCursor(newShelfDBObject(id), 0);
+        final LazyMappableList<?> books = (LazyMappableList<?>) shelf.getBooks();
+        assertEquals(2, books.size());
+        assertFalse(books.isMapped());
+        assertEquals(withoutId(newShelfDBObject(id)), layout.toDBObject(shelf));
+
+        assertEquals(newShelf(id.toStringMongod()), shelf);
+        assertTrue(books.isMapped());
+        assertEquals(withoutId(newShelfDBObject(id)), layout.toDBObject(shelf));
+    }
+
+    private static DBObject withoutId(DBObject dbObject) {
+        dbObject.removeField("_id");
+        return dbObject;
+    }
+
+    @Test
+    public void shouldReadDeclaredIndexes() {
+        final List<IndexDefinition> indexes = newConfig(true).getLayout(Visit.class).getIndexes();
+        assertEquals(3, indexes.size());
+
+        assertEquals("userName_1", indexes.get(0).getName());
+        assertTrue(indexes.get(0).isSparse());
+        assertFalse(indexes.get(0).isUnique());
+
+        assertEquals("visitExpiry", indexes.get(1).getName());
+        assertEquals(86400L, indexes.get(1).toOptions().get("expireAfterSeconds"));
+
+        assertEquals(new BasicDBObject("page", 1).append("time", -1), indexes.get(2).getKeys());
+        assertEquals("page_1_time_-1", indexes.get(2).getName());
+        assertTrue(indexes.get(2).isUnique());
+        assertTrue(newConfig(true).getLayout(Book.class).getIndexes().isEmpty());
+    }
+
+    private static MappableObjectsConfig newConfig(boolean compiledMappersEnabled) {
+        final MappableObjectsConfig config = new MappableObjectsConfig();
+        config.setMappableBase(TestDomainObject.class);
+        config.setCompiledMappersEnabled(compiledMappersEnabled);
+        return config;
+    }
+
+    private static Shelf newShelf(String id) {
+        return new Shelf(id, Arrays.asList(new Book("Algebra", 496L), new Book("Geo", 85L)),
+                Arrays.asList("math", "geometry"), new Profile("jane", 23));
+    }
+
+    private static DBObject newShelfDBObject(ObjectId id) {
+        final BasicDBList books = new BasicDBList();
+        books.add(new BasicDBObject("name", "Algebra").append("pages", 496L));
+        books.add(new BasicDBObject("name", "Geo").append("pages", 85L));
+        final BasicDBList tags = new BasicDBList();
+        tags.add("math");
+        tags.add("geometry");
+        return new BasicDBObject("_id", id)
+                .append("books", books)
+                .append("tags", tags)
+                .append("librarian", new BasicDBObject("name", "jane").append("age", 23));
+    }
+}
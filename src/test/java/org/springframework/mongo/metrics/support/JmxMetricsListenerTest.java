@@ -0,0 +1,83 @@
+package org.springframework.mongo.metrics.support;
+
+import org.junit.Test;
+import org.springframework.mongo.metrics.OperationType;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class JmxMetricsListenerTest {
+
+    @Test
+    public void shouldComputeQuantiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; ++i) {
+            histogram.record(i * 1000L);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(100000L, histogram.getMax());
+        assertEquals(50500L, histogram.getMean());
+        // upper bound of the bucket, containing the 50th value
+        assertTrue(histogram.getQuantile(0.5) >= 50000L);
+        assertTrue(histogram.getQuantile(0.5) < 2 * 50000L);
+        assertEquals(100000L, histogram.getQuantile(1.0));
+    }
+
+    @Test
+    public void shouldRegisterAndUnregisterStats() throws Exception {
+        final MBeanServer server = MBeanServerFactory.newMBeanServer();
+        final JmxMetricsListener listener = new JmxMetricsListener();
+        listener.setMBeanServer(server);
+
+        listener.onWrite("Profile", OperationType.INSERT, 2000L, 10);
+        listener.onWrite("Profile", OperationType.INSERT, 4000L, 5);
+        listener.onQuery("Profile", 6000L, 1000L, 3);
+
+        final OperationStatsMXBean insertStats = listener.getOperationStats("Profile", OperationType.INSERT);
+        assertEquals(2, insertStats.getOperationCount());
+        assertEquals(15, insertStats.getDocumentCount());
+        assertEquals(3, insertStats.getDriverTimeMeanMicros());
+        assertEquals(4, insertStats.getDriverTimeMaxMicros());
+        assertEquals(1, listener.getOperationStats("Profile", OperationType.QUERY).getMappingTimeMaxMicros());
+
+        final ObjectName name = new ObjectName(
+                "org.springframework.mongo:type=OperationStats,collection=\"Profile\",operation=INSERT");
+        assertTrue(server.isRegistered(name));
+        assertEquals(15L, server.getAttribute(name, "DocumentCount"));
+
+        listener.destroy();
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    public void shouldNotFailOnRegistrationConflict() throws Exception {
+        final MBeanServer server = MBeanServerFactory.newMBeanServer();
+        final JmxMetricsListener first = new JmxMetricsListener();
+        first.setMBeanServer(server);
+        final JmxMetricsListener second = new JmxMetricsListener();
+        second.setMBeanServer(server);
+        final JmxMetricsListener named = new JmxMetricsListener();
+        named.setMBeanServer(server);
+        named.setName("shelves");
+
+        first.onWrite("Profile", OperationType.INSERT, 2000L, 1);
+        second.onWrite("Profile", OperationType.INSERT, 2000L, 2);
+        named.onWrite("Profile", OperationType.INSERT, 2000L, 3);
+
+        assertEquals(2, second.getOperationStats("Profile", OperationType.INSERT).getDocumentCount());
+        assertTrue(server.isRegistered(new ObjectName(
+                "org.springframework.mongo:type=OperationStats,collection=\"Profile\",operation=INSERT")));
+        assertEquals(3L, server.getAttribute(new ObjectName("org.springframework.mongo:type=OperationStats," +
+                "listener=\"shelves\",collection=\"Profile\",operation=INSERT"), "DocumentCount"));
+
+        second.destroy();
+        assertTrue(server.isRegistered(new ObjectName(
+                "org.springframework.mongo:type=OperationStats,collection=\"Profile\",operation=INSERT")));
+    }
+}
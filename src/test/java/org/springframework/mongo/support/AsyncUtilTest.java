@@ -0,0 +1,63 @@
+package org.springframework.mongo.support;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class AsyncUtilTest {
+
+    @Test
+    public void shouldBoundUnboundedExecutor() throws Exception {
+        final ExecutorService executor = new AsyncUtil.BoundedExecutorService(Executors.newCachedThreadPool(), 2, 1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(2);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                final int current = running.incrementAndGet();
+                int max = maxRunning.get();
+                while (current > max && !maxRunning.compareAndSet(max, current)) {
+                    max = maxRunning.get();
+                }
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+            }
+        };
+
+        try {
+            for (int i = 0; i < 3; ++i) {
+                executor.execute(task);
+            }
+            assertTrue(started.await(1, TimeUnit.SECONDS));
+            try {
+                executor.execute(task);
+                fail("RejectedExecutionException expected");
+            } catch (RejectedExecutionException ignored) {
+                // two tasks are running and one is waiting
+            }
+
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+            assertEquals(2, maxRunning.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
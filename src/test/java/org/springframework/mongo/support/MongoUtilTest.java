@@ -0,0 +1,93 @@
+package org.springframework.mongo.support;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteException;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.DBObject;
+import com.mongodb.WriteConcern;
+import com.mongodb.WriteResult;
+import org.bson.BasicBSONEncoder;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.*;
+import static org.springframework.mongo.support.MongoUtil.*;
+
+public final class MongoUtilTest {
+
+    @Test
+    public void shouldEstimateBsonSize() {
+        final BasicDBList books = new BasicDBList();
+        books.add(new BasicDBObject("name", "Algebra").append("pages", 496L));
+        books.add(new BasicDBObject("name", "Геометрия").append("pages", 85));
+
+        final DBObject dbObject = new BasicDBObject("_id", new ObjectId())
+                .append("books", books)
+                .append("tags", Arrays.asList("math", "geometry"))
+                .append("created", new Date())
+                .append("ratio", 0.5)
+                .append("active", true)
+                .append("empty", null)
+                .append("data", new byte[] {1, 2, 3});
+
+        assertEquals(new BasicBSONEncoder().encode(dbObject).length, estimateBsonSize(dbObject));
+    }
+
+    @Test
+    public void shouldDeepCopyMutableValues() {
+        final List<String> tags = new ArrayList<String>(Arrays.asList("math"));
+        final Date created = new Date(1000L);
+        final BasicDBObject librarian = new BasicDBObject("name", "jane");
+        final DBObject original = new BasicDBObject("tags", tags).append("created", created)
+                .append("librarian", librarian).append("name", "Algebra");
+        final DBObject copy = deepCopy(original);
+        assertEquals(original, copy);
+
+        tags.add("geometry");
+        created.setTime(2000L);
+        librarian.put("name", "bob");
+        assertEquals(Arrays.asList("math"), copy.get("tags"));
+        assertEquals(new Date(1000L), copy.get("created"));
+        assertEquals(new BasicDBObject("name", "jane"), copy.get("librarian"));
+        assertNotSame(original.get("tags"), copy.get("tags"));
+        assertSame(original.get("name"), copy.get("name"));
+    }
+
+    @Test
+    public void shouldNotCallLastErrorForUnacknowledgedWrite() {
+        final WriteResult result = mock(WriteResult.class);
+        when(result.getLastConcern()).thenReturn(WriteConcern.UNACKNOWLEDGED);
+
+        assertSame(result, executeWriteOperation(new MongoWriteOperation() {
+            @Override
+            public WriteResult execute() {
+                return result;
+            }
+        }));
+        expectOneUpdate(result);
+        verify(result, never()).getLastError();
+        verify(result, never()).getN();
+    }
+
+    @Test(expected = DuplicateKeyException.class)
+    public void shouldTranslateBulkDuplicateKeyError() {
+        final BulkWriteException exception = mock(BulkWriteException.class);
+        when(exception.getWriteErrors()).thenReturn(Arrays.asList(
+                new BulkWriteError(11000, "E11000 duplicate key error", new BasicDBObject(), 1)));
+        final BulkWriteOperation operation = mock(BulkWriteOperation.class);
+        when(operation.execute(WriteConcern.ACKNOWLEDGED)).thenThrow(exception);
+
+        executeBulkWriteOperation(operation, WriteConcern.ACKNOWLEDGED);
+    }
+}
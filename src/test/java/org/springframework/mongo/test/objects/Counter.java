@@ -0,0 +1,26 @@
+package org.springframework.mongo.test.objects;
+
+/**
+ * @author Alexander Shabanov
+ */
+public final class Counter extends TestDomainObject {
+    private long id;
+    private long value;
+
+    public Counter() {
+    }
+
+    public Counter(long id, long value) {
+        this();
+        this.id = id;
+        this.value = value;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,30 @@
+package org.springframework.mongo.test.objects;
+
+import org.bson.types.ObjectId;
+
+import java.util.UUID;
+
+/**
+ * @author Alexander Shabanov
+ */
+public final class Session extends TestDomainObject {
+    private UUID id;
+    private ObjectId userId;
+
+    public Session() {
+    }
+
+    public Session(UUID id, ObjectId userId) {
+        this();
+        this.id = id;
+        this.userId = userId;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public ObjectId getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,45 @@
+package org.springframework.mongo.test.objects;
+
+import org.springframework.mongo.mappable.object.CompoundIndex;
+import org.springframework.mongo.mappable.object.Indexed;
+
+import java.util.Date;
+
+/**
+ * @author Alexander Shabanov
+ */
+@CompoundIndex(fields = {"page", "-time"}, unique = true)
+public final class Visit extends TestDomainObject {
+    private String id;
+    @Indexed(sparse = true)
+    private String userName;
+    private String page;
+    @Indexed(name = "visitExpiry", expireAfterSeconds = 86400L)
+    private Date time;
+
+    public Visit() {
+    }
+
+    public Visit(String userName, String page, Date time) {
+        this();
+        this.userName = userName;
+        this.page = page;
+        this.time = time;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public String getPage() {
+        return page;
+    }
+
+    public Date getTime() {
+        return time;
+    }
+}